@@ -0,0 +1,203 @@
+package benchmark;
+
+import map.MapLoader;
+import model.GameMap;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Maps shared by the benchmarks.
+ * "map1" is res/maps/map1.txt; "RxC" is a synthetic maze of R rows and C columns
+ * with a border wall, a pillar on every even row/column crossing and a point on
+ * every open cell, so corridors and junctions look like a real map at any size.
+ * "mazeRxC" is a carved maze of long winding corridors, a few of its walls knocked out
+ * so it has loops, for code that exploits corridors.
+ */
+public final class BenchmarkMaps {
+
+    // Name of the bundled map
+    public static final String MAP1 = "map1";
+
+    // Prefix of carved maze names
+    public static final String MAZE = "maze";
+
+    // One in this many walls between two maze cells is knocked out after carving
+    private static final int MAZE_LOOP_ODDS = 16;
+
+    private BenchmarkMaps() {
+        // Helpers only
+    }
+
+    /**
+     * Load a map by benchmark name
+     * @param name "map1", "RxC" or "mazeRxC"
+     * @return Character map in the MapLoader format
+     */
+    public static char[][] load(String name) {
+        boolean maze = name.startsWith(MAZE);
+        if (maze) {
+            name = name.substring(MAZE.length());
+        }
+        if (MAP1.equals(name)) {
+            char[][] map = new MapLoader().loadMap(map1Path());
+            if (map.length == 0) {
+                throw new IllegalStateException("Could not load " + map1Path());
+            }
+            return map;
+        }
+
+        int separator = name.indexOf('x');
+        if (separator < 0) {
+            throw new IllegalArgumentException("Unknown map: " + name);
+        }
+        int rows = Integer.parseInt(name.substring(0, separator));
+        int columns = Integer.parseInt(name.substring(separator + 1));
+        return maze ? maze(rows, columns, 42L) : synthetic(rows, columns);
+    }
+
+    /**
+     * Generate a synthetic maze
+     * @param rows Number of rows, at least 3
+     * @param columns Number of columns, at least 3
+     * @return Character map in the MapLoader format
+     */
+    public static char[][] synthetic(int rows, int columns) {
+        if (rows < 3 || columns < 3) {
+            throw new IllegalArgumentException("Map must be at least 3x3");
+        }
+        char[][] map = new char[rows][columns];
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < columns; col++) {
+                boolean border = row == 0 || col == 0 || row == rows - 1 || col == columns - 1;
+                boolean pillar = row % 2 == 0 && col % 2 == 0;
+                map[row][col] = border || pillar ? '#' : 'o';
+            }
+        }
+        return map;
+    }
+
+    /**
+     * Carve a maze: every odd row/column crossing is a cell, and a depth-first walk from the
+     * top-left cell opens the wall to each unvisited neighbour it moves to
+     * @param rows Number of rows, at least 3
+     * @param columns Number of columns, at least 3
+     * @param seed Seed of the walk; the same seed gives the same maze
+     * @return Character map in the MapLoader format
+     */
+    public static char[][] maze(int rows, int columns, long seed) {
+        if (rows < 3 || columns < 3) {
+            throw new IllegalArgumentException("Map must be at least 3x3");
+        }
+        char[][] map = new char[rows][columns];
+        for (char[] row : map) {
+            Arrays.fill(row, '#');
+        }
+        int[] rowSteps = {-2, 2, 0, 0};
+        int[] columnSteps = {0, 0, -2, 2};
+        SplittableRandom random = new SplittableRandom(seed);
+        int[] stack = new int[rows * columns];
+        int top = 0;
+        map[1][1] = 'o';
+        stack[top++] = columns + 1;
+        while (top > 0) {
+            int cell = stack[top - 1];
+            int row = cell / columns;
+            int col = cell % columns;
+            // Pick a random unvisited neighbour, or backtrack when there is none
+            int next = -1;
+            int seen = 0;
+            for (int direction = 0; direction < 4; direction++) {
+                int r = row + rowSteps[direction];
+                int c = col + columnSteps[direction];
+                if (r > 0 && r < rows - 1 && c > 0 && c < columns - 1 && map[r][c] == '#'
+                        && random.nextInt(++seen) == 0) {
+                    next = direction;
+                }
+            }
+            if (next < 0) {
+                top--;
+                continue;
+            }
+            int r = row + rowSteps[next];
+            int c = col + columnSteps[next];
+            map[row + rowSteps[next] / 2][col + columnSteps[next] / 2] = 'o';
+            map[r][c] = 'o';
+            stack[top++] = r * columns + c;
+        }
+
+        // Knock out some walls between two cells so ghosts can take different ways round
+        for (int row = 1; row < rows - 1; row++) {
+            for (int col = 1; col < columns - 1; col++) {
+                boolean between = (row + col) % 2 == 1
+                        && (row % 2 == 1 ? map[row][col - 1] == 'o' && map[row][col + 1] == 'o'
+                                         : map[row - 1][col] == 'o' && map[row + 1][col] == 'o');
+                if (between && map[row][col] == '#' && random.nextInt(MAZE_LOOP_ODDS) == 0) {
+                    map[row][col] = 'o';
+                }
+            }
+        }
+        return map;
+    }
+
+    /**
+     * Write a map in the text format read by MapLoader.loadMap
+     * @param map Character map
+     * @return Temporary file, deleted on exit
+     */
+    public static File writeTempFile(char[][] map) throws IOException {
+        File file = File.createTempFile("pacman-bench-", ".txt");
+        file.deleteOnExit();
+        try (PrintWriter writer = new PrintWriter(file)) {
+            StringBuilder line = new StringBuilder();
+            for (char[] row : map) {
+                line.setLength(0);
+                for (int col = 0; col < row.length; col++) {
+                    if (col > 0) {
+                        line.append(' ');
+                    }
+                    line.append(row[col]);
+                }
+                writer.println(line);
+            }
+        }
+        return file;
+    }
+
+    /**
+     * Find the first walkable cell at or after a position, scanning row by row
+     * @param gameMap The game map
+     * @param row Start row
+     * @param column Start column
+     * @return {row, column} of a walkable cell
+     */
+    public static int[] findOpenCell(GameMap gameMap, int row, int column) {
+        int cells = gameMap.getRows() * gameMap.getColumns();
+        int start = row * gameMap.getColumns() + column;
+        for (int i = 0; i < cells; i++) {
+            int index = (start + i) % cells;
+            int r = index / gameMap.getColumns();
+            int c = index % gameMap.getColumns();
+            if (gameMap.isWalkable(r, c)) {
+                return new int[] {r, c};
+            }
+        }
+        throw new IllegalStateException("Map has no walkable cell");
+    }
+
+    /**
+     * Locate map1.txt from the project root or from the bench directory,
+     * unless the pacman.map1 system property points at it
+     */
+    private static String map1Path() {
+        String path = System.getProperty("pacman.map1");
+        if (path != null) {
+            return path;
+        }
+        File fromRoot = new File("res/maps/map1.txt");
+        return fromRoot.isFile() ? fromRoot.getPath() : "../res/maps/map1.txt";
+    }
+}
@@ -0,0 +1,100 @@
+package benchmark;
+
+import map.ProceduralMazeSource;
+import model.ChunkedGameMap;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for ChunkedGameMap lookups on a 10000x10000 procedural maze.
+ * walkers: 16 random walkers each check their four neighbours, the access pattern of
+ * entities in a game; chunks stay loaded and lookups hit memory.
+ * sweepRow: reads one whole row per call, moving down a row each time, so chunks
+ * stream through the budget and are loaded and evicted as it goes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ChunkedMapBenchmark {
+
+    private static final int SIZE = 10_000;
+    private static final int WALKERS = 16;
+
+    // Memory budget in chunks
+    @Param({"64", "4096"})
+    public int budgetChunks;
+
+    private ChunkedGameMap gameMap;
+    private final int[] walkerRows = new int[WALKERS];
+    private final int[] walkerColumns = new int[WALKERS];
+    private SplittableRandom random;
+    private int sweepRow;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        gameMap = new ChunkedGameMap(SIZE, SIZE, new ProceduralMazeSource(SIZE, SIZE, 42L),
+                (long) budgetChunks * ChunkedGameMap.CHUNK_BYTES);
+        random = new SplittableRandom(42L);
+        for (int i = 0; i < WALKERS; i++) {
+            // Odd rows and columns are always open in the generated maze
+            walkerRows[i] = random.nextInt(SIZE / 2 - 1) * 2 + 1;
+            walkerColumns[i] = random.nextInt(SIZE / 2 - 1) * 2 + 1;
+        }
+        sweepRow = 1;
+    }
+
+    @Benchmark
+    public int walkers() {
+        int open = 0;
+        for (int i = 0; i < WALKERS; i++) {
+            int row = walkerRows[i];
+            int column = walkerColumns[i];
+            int exits = 0;
+            if (gameMap.isWalkable(row - 1, column)) {
+                exits |= 1;
+            }
+            if (gameMap.isWalkable(row + 1, column)) {
+                exits |= 2;
+            }
+            if (gameMap.isWalkable(row, column - 1)) {
+                exits |= 4;
+            }
+            if (gameMap.isWalkable(row, column + 1)) {
+                exits |= 8;
+            }
+            open += Integer.bitCount(exits);
+
+            // Step through a random open side
+            if (exits != 0) {
+                int pick = random.nextInt(Integer.bitCount(exits));
+                while (pick-- > 0) {
+                    exits &= exits - 1;
+                }
+                switch (Integer.numberOfTrailingZeros(exits)) {
+                    case 0: walkerRows[i]--; break;
+                    case 1: walkerRows[i]++; break;
+                    case 2: walkerColumns[i]--; break;
+                    default: walkerColumns[i]++; break;
+                }
+            }
+        }
+        return open;
+    }
+
+    @Benchmark
+    public int sweepRow() {
+        int open = 0;
+        for (int column = 0; column < SIZE; column++) {
+            if (gameMap.isWalkable(sweepRow, column)) {
+                open++;
+            }
+        }
+        sweepRow = sweepRow + 1 == SIZE ? 0 : sweepRow + 1;
+        return open;
+    }
+}
@@ -0,0 +1,70 @@
+package benchmark;
+
+import map.MapLoader;
+import model.GameMapWithWalls;
+import model.OccupancyIndex;
+import model.PacmanModel;
+import model.Wall;
+import model.WallSegments;
+import org.openjdk.jmh.annotations.*;
+import service.CollisionService;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for CollisionService against every wall of the map.
+ * Pacman stands on an open cell, so no wall collides: the list version scans every
+ * wall, the indexed version looks at Pacman's cell and the cell he came from, and the
+ * segment version searches the run-length wall segments of Pacman's row.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CollisionBenchmark {
+
+    @Param({"map1", "100x100", "500x500", "1000x1000"})
+    public String map;
+
+    private PacmanModel pacman;
+    private List<Wall> walls;
+    private WallSegments segments;
+    private OccupancyIndex index;
+    private int pacmanId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        GameMapWithWalls gameMap = new MapLoader().createGameMap(BenchmarkMaps.load(map));
+        walls = gameMap.getWalls();
+        segments = gameMap.getWallSegments();
+
+        int[] cell = BenchmarkMaps.findOpenCell(gameMap, 1, 1);
+        pacman = new PacmanModel(cell[0], cell[1]);
+
+        // Walls by list index, with Pacman as the last id
+        index = new OccupancyIndex(gameMap.getRows(), gameMap.getColumns());
+        for (int i = 0; i < walls.size(); i++) {
+            index.add(i, walls.get(i).getRow(), walls.get(i).getColumn());
+        }
+        pacmanId = walls.size();
+        index.add(pacmanId, cell[0], cell[1]);
+    }
+
+    @Benchmark
+    public boolean checkCollisions() {
+        return CollisionService.checkCollisions(pacman, walls);
+    }
+
+    @Benchmark
+    public int findCollisionIndexed() {
+        return index.findCollision(pacmanId);
+    }
+
+    @Benchmark
+    public boolean wouldCollideSegments() {
+        return CollisionService.wouldCollide(pacman.getRow(), pacman.getColumn(), segments);
+    }
+}
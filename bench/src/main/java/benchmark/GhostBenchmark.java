@@ -0,0 +1,125 @@
+package benchmark;
+
+import map.MapLoader;
+import model.Blinky;
+import model.DistanceFieldCache;
+import model.FlowField;
+import model.GameMapWithWalls;
+import model.Ghost;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the ghost decision logic in Blinky.calculateNextMove and
+ * Ghost.calculateNextMove. The ghost sits near the map centre and chases a
+ * Pacman in the far corner.
+ * distanceFieldBuild measures the BFS that fills a distance field on a cache miss;
+ * steering by the fields and the other move strategies is measured through
+ * GhostManager in GhostDecisionBenchmark.
+ * flowFieldStep moves the shared chase field's target back and forth between two
+ * neighbouring cells, which is the incremental update Pacman's moves trigger;
+ * flowFieldBuild is the full rebuild it replaces.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GhostBenchmark {
+
+    @Param({"map1", "100x100", "500x500", "1000x1000"})
+    public String map;
+
+    private GameMapWithWalls gameMap;
+    private Blinky blinky;
+    private Ghost ghost;
+    private DistanceFieldCache distanceFields;
+    private int centreRow;
+    private int centreColumn;
+    private FlowField flowField;
+    private int[] flowTargets;   // Pacman's cell and a neighbour, row then column
+    private int flowStep;
+    private int pacmanRow;
+    private int pacmanColumn;
+
+    /**
+     * Minimal ghost personality that scatters to the top-left corner
+     */
+    static class BenchmarkGhost extends Ghost {
+        BenchmarkGhost(int row, int column) {
+            super(row, column);
+        }
+
+        @Override
+        protected void loadAnimationFrames() {
+            // No images needed
+        }
+
+        @Override
+        protected void setScatterTarget() {
+            targetRow = 0;
+            targetColumn = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        gameMap = new MapLoader().createGameMap(BenchmarkMaps.load(map));
+
+        int[] centre = BenchmarkMaps.findOpenCell(gameMap,
+                gameMap.getRows() / 2, gameMap.getColumns() / 2);
+        centreRow = centre[0];
+        centreColumn = centre[1];
+        blinky = new Blinky(centre[0], centre[1]);
+        ghost = new BenchmarkGhost(centre[0], centre[1]);
+        ghost.setRandom(new SplittableRandom(42));
+
+        int[] corner = BenchmarkMaps.findOpenCell(gameMap,
+                gameMap.getRows() - 2, gameMap.getColumns() - 2);
+        pacmanRow = corner[0];
+        pacmanColumn = corner[1];
+
+        distanceFields = new DistanceFieldCache(gameMap, 4);
+
+        flowField = new FlowField(gameMap);
+        int pacmanCell = gameMap.getCellIndex(pacmanRow, pacmanColumn);
+        int neighbour = pacmanCell + gameMap.getCellDelta(
+                Integer.numberOfTrailingZeros(gameMap.getExitMask(pacmanCell)));
+        flowTargets = new int[] {pacmanRow, pacmanColumn,
+                gameMap.getCellRow(neighbour), gameMap.getCellColumn(neighbour)};
+        flowField.setTarget(pacmanRow, pacmanColumn);
+    }
+
+    @Benchmark
+    public Object blinkyCalculateNextMove() {
+        return blinky.calculateNextMove(pacmanRow, pacmanColumn, gameMap);
+    }
+
+    @Benchmark
+    public Object ghostCalculateNextMove() {
+        return ghost.calculateNextMove(gameMap, pacmanRow, pacmanColumn);
+    }
+
+    @Benchmark
+    public int distanceFieldBuild() {
+        distanceFields.invalidate();
+        return distanceFields.getDistance(centreRow, centreColumn, pacmanRow, pacmanColumn);
+    }
+
+    @Benchmark
+    public int flowFieldStep() {
+        flowStep ^= 2;
+        flowField.setTarget(flowTargets[flowStep], flowTargets[flowStep + 1]);
+        return flowField.getTarget();
+    }
+
+    @Benchmark
+    public int flowFieldBuild() {
+        flowField.setGameMap(gameMap);
+        flowField.setTarget(pacmanRow, pacmanColumn);
+        return flowField.getTarget();
+    }
+}
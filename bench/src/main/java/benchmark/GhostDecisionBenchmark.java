@@ -0,0 +1,109 @@
+package benchmark;
+
+import map.MapLoader;
+import model.FlowField;
+import model.GameMapWithWalls;
+import model.Ghost;
+import model.GhostStore;
+import model.PacmanModel;
+import org.openjdk.jmh.annotations.*;
+import service.GhostManager;
+import service.HierarchicalPathfinder;
+import service.PathfindingService;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the batched ghost decisions in GhostManager.
+ * chaseKernel is the shared flow field's batch pick alone, reported per ghost.
+ * tick advances 4096 ghosts on random open cells by one engine tick, at a speed that
+ * takes every ghost into a new cell each tick, so every ghost decides every tick; all
+ * chase a Pacman in the far corner, or with mixedStates a third each chase, scatter and
+ * are frightened. Eaten ghosts are left out: each heads for its own spawn cell, and on
+ * the large map thousands of homes outgrow the distance field budget, so the tick would
+ * mostly measure field builds.
+ * strategy picks what scattering ghosts steer by, set through GhostManager.setMoveStrategy:
+ * the default distance fields, the A* pathfinder bounded to PATHFINDER_EXPANSIONS cells per
+ * query, or the hierarchical pathfinder with its per-ghost path caches. It only matters
+ * with mixedStates.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GhostDecisionBenchmark {
+
+    private static final int GHOSTS = 4096;
+
+    // Ten cells per second over 100 ms: exactly one cell per tick
+    private static final double CELLS_PER_SECOND = 10.0;
+    private static final int TICK_MS = 100;
+
+    // Keeps a third of 4096 A* queries per tick within a benchmark iteration on the large map
+    private static final int PATHFINDER_EXPANSIONS = 256;
+
+    @Param({"map1", "500x500"})
+    public String map;
+
+    @Param({"false", "true"})
+    public boolean mixedStates;
+
+    @Param({"fields", "pathfinder", "hierarchical"})
+    public String strategy;
+
+    private GhostStore ghosts;
+    private GhostManager ghostManager;
+    private FlowField chaseField;
+    private final int[] cells = new int[GHOSTS];
+    private final int[] exits = new int[GHOSTS];
+    private final int[] directions = new int[GHOSTS];
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        GameMapWithWalls gameMap = new MapLoader().createGameMap(BenchmarkMaps.load(map));
+        int[] corner = BenchmarkMaps.findOpenCell(gameMap,
+                gameMap.getRows() - 2, gameMap.getColumns() - 2);
+        PacmanModel pacman = new PacmanModel(corner[0], corner[1]);
+
+        ghosts = new GhostStore(GHOSTS);
+        SplittableRandom random = new SplittableRandom(42L);
+        Ghost.GhostState[] states = {Ghost.GhostState.CHASE, Ghost.GhostState.SCATTER,
+                Ghost.GhostState.FRIGHTENED};
+        for (int i = 0; i < GHOSTS; i++) {
+            int[] cell = BenchmarkMaps.findOpenCell(gameMap,
+                    random.nextInt(gameMap.getRows()), random.nextInt(gameMap.getColumns()));
+            ghosts.add(cell[0], cell[1], CELLS_PER_SECOND);
+            if (mixedStates) {
+                ghosts.setState(i, states[i % states.length]);
+            }
+            cells[i] = gameMap.getCellIndex(cell[0], cell[1]);
+            exits[i] = gameMap.getExitMask(cells[i]);
+        }
+        ghostManager = new GhostManager(ghosts, gameMap, pacman, random.split());
+        if (strategy.equals("pathfinder")) {
+            PathfindingService pathfinder = new PathfindingService(gameMap);
+            pathfinder.setExpansionLimit(PATHFINDER_EXPANSIONS);
+            ghostManager.setMoveStrategy(pathfinder);
+        } else if (strategy.equals("hierarchical")) {
+            ghostManager.setMoveStrategy(new HierarchicalPathfinder(gameMap));
+        }
+
+        chaseField = new FlowField(gameMap);
+        chaseField.setTarget(corner[0], corner[1]);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(GHOSTS)
+    public int[] chaseKernel() {
+        chaseField.nextDirections(cells, exits, directions, GHOSTS);
+        return directions;
+    }
+
+    @Benchmark
+    public int tick() {
+        return ghostManager.update(TICK_MS);
+    }
+}
@@ -0,0 +1,115 @@
+package benchmark;
+
+import map.MapLoader;
+import model.GameMapWithWalls;
+import org.openjdk.jmh.annotations.*;
+import service.HierarchicalPathfinder;
+import service.PathfindingService;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for HierarchicalPathfinder on large maps: a tick's worth of queries from 64
+ * ghosts on random open cells, all heading for a Pacman in the far corner, against A* on the
+ * cell grid. walkingTick moves each ghost one cell along its answer per call, so most
+ * answers come from the ghosts' cached paths; a ghost that arrives starts over.
+ * updateCell walls off and reopens a cell on a cluster corner; rebuild builds every cluster.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class HierarchicalPathfindingBenchmark {
+
+    private static final int GHOSTS = 64;
+
+    @Param({"1000x1000", "maze1001x1001"})
+    public String map;
+
+    private GameMapWithWalls gameMap;
+    private HierarchicalPathfinder hierarchical;
+    private PathfindingService aStar;
+    private final int[] startCells = new int[GHOSTS];
+    private final int[] ghostCells = new int[GHOSTS];
+    private final int[] ghostExits = new int[GHOSTS];
+    private int pacmanRow;
+    private int pacmanColumn;
+    private int pacmanCell;
+    private int wallRow;
+    private int wallColumn;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        gameMap = new MapLoader().createGameMap(BenchmarkMaps.load(map));
+        hierarchical = new HierarchicalPathfinder(gameMap);
+        aStar = new PathfindingService(gameMap);
+
+        SplittableRandom random = new SplittableRandom(42L);
+        for (int i = 0; i < GHOSTS; i++) {
+            int[] cell = BenchmarkMaps.findOpenCell(gameMap,
+                    random.nextInt(gameMap.getRows()), random.nextInt(gameMap.getColumns()));
+            startCells[i] = gameMap.getCellIndex(cell[0], cell[1]);
+            ghostCells[i] = startCells[i];
+            ghostExits[i] = gameMap.getExitMask(startCells[i]);
+        }
+        int[] corner = BenchmarkMaps.findOpenCell(gameMap,
+                gameMap.getRows() - 2, gameMap.getColumns() - 2);
+        pacmanRow = corner[0];
+        pacmanColumn = corner[1];
+        pacmanCell = gameMap.getCellIndex(pacmanRow, pacmanColumn);
+
+        int[] centre = BenchmarkMaps.findOpenCell(gameMap,
+                HierarchicalPathfinder.DEFAULT_CLUSTER_SIZE * 8, HierarchicalPathfinder.DEFAULT_CLUSTER_SIZE * 8);
+        wallRow = centre[0];
+        wallColumn = centre[1];
+    }
+
+    @Benchmark
+    public int hierarchicalTick() {
+        int sum = 0;
+        for (int i = 0; i < GHOSTS; i++) {
+            sum += hierarchical.nextDirection(startCells[i], ghostExits[i], pacmanRow, pacmanColumn);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int aStarTick() {
+        int sum = 0;
+        for (int i = 0; i < GHOSTS; i++) {
+            sum += aStar.nextDirection(startCells[i], ghostExits[i], pacmanRow, pacmanColumn);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int walkingTick() {
+        int sum = 0;
+        for (int i = 0; i < GHOSTS; i++) {
+            int cell = ghostCells[i];
+            int direction = hierarchical.nextDirection(i, cell, gameMap.getExitMask(cell), pacmanRow, pacmanColumn);
+            cell += gameMap.getCellDelta(direction);
+            ghostCells[i] = cell == pacmanCell ? startCells[i] : cell;
+            sum += direction;
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int updateCell() {
+        gameMap.addWall(wallRow, wallColumn);
+        hierarchical.updateCell(gameMap, wallRow, wallColumn);
+        gameMap.setWalkable(wallRow, wallColumn, true);
+        hierarchical.updateCell(gameMap, wallRow, wallColumn);
+        return hierarchical.getNodeCount();
+    }
+
+    @Benchmark
+    public int rebuild() {
+        hierarchical.setGameMap(gameMap);
+        return hierarchical.getNodeCount();
+    }
+}
@@ -0,0 +1,99 @@
+package benchmark;
+
+import map.MapLoader;
+import model.GameMapWithWalls;
+import model.JunctionGraph;
+import org.openjdk.jmh.annotations.*;
+import service.PathfindingService;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for JunctionGraph: a tick's worth of ghost queries, 256 ghosts on random open
+ * cells all heading for a Pacman in the far corner, against the same queries answered by
+ * A* on the cell grid; and patching the graph after one wall changes against rebuilding it.
+ * The carved maze is what the graph is for; map1 is mostly open floor, which barely
+ * compresses.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class JunctionGraphBenchmark {
+
+    private static final int GHOSTS = 256;
+
+    @Param({"map1", "500x500", "maze501x501"})
+    public String map;
+
+    private GameMapWithWalls gameMap;
+    private JunctionGraph graph;
+    private PathfindingService aStar;
+    private final int[] ghostCells = new int[GHOSTS];
+    private final int[] ghostExits = new int[GHOSTS];
+    private int pacmanRow;
+    private int pacmanColumn;
+    private int wallRow;
+    private int wallColumn;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        gameMap = new MapLoader().createGameMap(BenchmarkMaps.load(map));
+        graph = new JunctionGraph(gameMap);
+        aStar = new PathfindingService(gameMap);
+
+        SplittableRandom random = new SplittableRandom(42L);
+        for (int i = 0; i < GHOSTS; i++) {
+            int[] cell = BenchmarkMaps.findOpenCell(gameMap,
+                    random.nextInt(gameMap.getRows()), random.nextInt(gameMap.getColumns()));
+            ghostCells[i] = gameMap.getCellIndex(cell[0], cell[1]);
+            ghostExits[i] = gameMap.getExitMask(ghostCells[i]);
+        }
+        int[] corner = BenchmarkMaps.findOpenCell(gameMap,
+                gameMap.getRows() - 2, gameMap.getColumns() - 2);
+        pacmanRow = corner[0];
+        pacmanColumn = corner[1];
+
+        // A walkable cell near the centre to wall off and reopen
+        int[] centre = BenchmarkMaps.findOpenCell(gameMap,
+                gameMap.getRows() / 2, gameMap.getColumns() / 2);
+        wallRow = centre[0];
+        wallColumn = centre[1];
+    }
+
+    @Benchmark
+    public int graphTick() {
+        int sum = 0;
+        for (int i = 0; i < GHOSTS; i++) {
+            sum += graph.nextDirection(ghostCells[i], ghostExits[i], pacmanRow, pacmanColumn);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int aStarTick() {
+        int sum = 0;
+        for (int i = 0; i < GHOSTS; i++) {
+            sum += aStar.nextDirection(ghostCells[i], ghostExits[i], pacmanRow, pacmanColumn);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int updateCell() {
+        gameMap.addWall(wallRow, wallColumn);
+        graph.updateCell(gameMap, wallRow, wallColumn);
+        gameMap.setWalkable(wallRow, wallColumn, true);
+        graph.updateCell(gameMap, wallRow, wallColumn);
+        return graph.getNodeCount();
+    }
+
+    @Benchmark
+    public int rebuild() {
+        graph.setGameMap(gameMap);
+        return graph.getNodeCount();
+    }
+}
@@ -0,0 +1,80 @@
+package benchmark;
+
+import map.MapLoader;
+import model.BitGridSearch;
+import model.GameMapWithWalls;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for whole-map flood fills, as used by reachability checks and
+ * connected components. bitFill runs BitGridSearch on the packed walkability bits;
+ * cellFill is a plain breadth-first search over the exit masks for comparison.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MapAnalysisBenchmark {
+
+    @Param({"map1", "100x100", "500x500", "1000x1000"})
+    public String map;
+
+    private GameMapWithWalls gameMap;
+    private BitGridSearch search;
+    private int[] labels;
+    private int[] queue;
+    private boolean[] seen;
+    private int startRow;
+    private int startColumn;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        gameMap = new MapLoader().createGameMap(BenchmarkMaps.load(map));
+        search = new BitGridSearch(gameMap);
+        labels = new int[gameMap.getCellCount()];
+        queue = new int[gameMap.getCellCount()];
+        seen = new boolean[gameMap.getCellCount()];
+        int[] centre = BenchmarkMaps.findOpenCell(gameMap,
+                gameMap.getRows() / 2, gameMap.getColumns() / 2);
+        startRow = centre[0];
+        startColumn = centre[1];
+    }
+
+    @Benchmark
+    public int bitFill() {
+        return search.fill(startRow, startColumn);
+    }
+
+    @Benchmark
+    public int cellFill() {
+        Arrays.fill(seen, false);
+        int start = gameMap.getCellIndex(startRow, startColumn);
+        int head = 0;
+        int tail = 0;
+        seen[start] = true;
+        queue[tail++] = start;
+        while (head < tail) {
+            int cell = queue[head++];
+            int exits = gameMap.getExitMask(cell);
+            while (exits != 0) {
+                int neighbour = cell + gameMap.getCellDelta(Integer.numberOfTrailingZeros(exits));
+                exits &= exits - 1;
+                if (!seen[neighbour]) {
+                    seen[neighbour] = true;
+                    queue[tail++] = neighbour;
+                }
+            }
+        }
+        return tail;
+    }
+
+    @Benchmark
+    public int labelComponents() {
+        return search.labelComponents(labels);
+    }
+}
@@ -0,0 +1,53 @@
+package benchmark;
+
+import map.MapLoader;
+import model.GameMapWithWalls;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for MapLoader.loadMap and MapLoader.createGameMap.
+ * Synthetic maps are written to a temporary file once per trial so loadMap
+ * reads the same text format as res/maps/map1.txt.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MapLoaderBenchmark {
+
+    @Param({"map1", "100x100", "500x500", "1000x1000"})
+    public String map;
+
+    private MapLoader loader;
+    private char[][] charMap;
+    private String path;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        loader = new MapLoader();
+        charMap = BenchmarkMaps.load(map);
+        File file = BenchmarkMaps.writeTempFile(charMap);
+        path = file.getPath();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        new File(path).delete();
+    }
+
+    @Benchmark
+    public char[][] loadMap() {
+        return loader.loadMap(path);
+    }
+
+    @Benchmark
+    public GameMapWithWalls createGameMap() {
+        return loader.createGameMap(charMap);
+    }
+}
@@ -0,0 +1,62 @@
+package benchmark;
+
+import map.MapLoader;
+import model.Direction;
+import model.GameMapWithWalls;
+import model.PacmanModel;
+import org.openjdk.jmh.annotations.*;
+import service.MovementService;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for MovementService.moveEntity and its packed cell-index variant.
+ * Pacman steps right and back left, so every call is a successful move.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MovementBenchmark {
+
+    @Param({"map1", "100x100", "500x500", "1000x1000"})
+    public String map;
+
+    private GameMapWithWalls gameMap;
+    private PacmanModel pacman;
+    private Direction next;
+    private int pacmanCell;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        gameMap = new MapLoader().createGameMap(BenchmarkMaps.load(map));
+
+        // Any open cell with an open cell to its right
+        int[] cell = BenchmarkMaps.findOpenCell(gameMap, 1, 1);
+        while (!gameMap.isWalkable(cell[0], cell[1] + 1)) {
+            cell = BenchmarkMaps.findOpenCell(gameMap, cell[0], cell[1] + 1);
+        }
+        pacman = new PacmanModel(cell[0], cell[1]);
+        next = Direction.RIGHT;
+        pacmanCell = gameMap.getCellIndex(cell[0], cell[1]);
+    }
+
+    @Benchmark
+    public boolean moveEntity() {
+        boolean moved = MovementService.moveEntity(pacman, next, gameMap);
+        next = next == Direction.RIGHT ? Direction.LEFT : Direction.RIGHT;
+        return moved;
+    }
+
+    @Benchmark
+    public int moveEntityCell() {
+        int moved = MovementService.moveEntityCell(pacman, pacmanCell, next.ordinal(), gameMap);
+        if (moved != MovementService.NO_CELL) {
+            pacmanCell = moved;
+        }
+        next = next == Direction.RIGHT ? Direction.LEFT : Direction.RIGHT;
+        return moved;
+    }
+}
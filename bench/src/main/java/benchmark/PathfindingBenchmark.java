@@ -0,0 +1,82 @@
+package benchmark;
+
+import map.MapLoader;
+import model.GameMapWithWalls;
+import org.openjdk.jmh.annotations.*;
+import service.PathfindingService;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for PathfindingService: one call answers a tick's worth of ghost queries,
+ * 256 ghosts on random open cells all heading for a Pacman in the far corner.
+ * expansionLimit 0 searches to the target; otherwise each query stops after that many cells
+ * and heads for the closest cell it reached, the setting that keeps a tick within budget.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PathfindingBenchmark {
+
+    private static final int GHOSTS = 256;
+
+    @Param({"map1", "500x500"})
+    public String map;
+
+    @Param({"0", "256"})
+    public int expansionLimit;
+
+    private GameMapWithWalls gameMap;
+    private PathfindingService aStar;
+    private PathfindingService bfs;
+    private final int[] ghostCells = new int[GHOSTS];
+    private final int[] ghostExits = new int[GHOSTS];
+    private int pacmanRow;
+    private int pacmanColumn;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        gameMap = new MapLoader().createGameMap(BenchmarkMaps.load(map));
+        aStar = new PathfindingService(gameMap);
+        bfs = new PathfindingService(gameMap);
+        bfs.setAlgorithm(PathfindingService.Algorithm.BFS);
+        if (expansionLimit > 0) {
+            aStar.setExpansionLimit(expansionLimit);
+            bfs.setExpansionLimit(expansionLimit);
+        }
+
+        SplittableRandom random = new SplittableRandom(42L);
+        for (int i = 0; i < GHOSTS; i++) {
+            int[] cell = BenchmarkMaps.findOpenCell(gameMap,
+                    random.nextInt(gameMap.getRows()), random.nextInt(gameMap.getColumns()));
+            ghostCells[i] = gameMap.getCellIndex(cell[0], cell[1]);
+            ghostExits[i] = gameMap.getExitMask(ghostCells[i]);
+        }
+        int[] corner = BenchmarkMaps.findOpenCell(gameMap,
+                gameMap.getRows() - 2, gameMap.getColumns() - 2);
+        pacmanRow = corner[0];
+        pacmanColumn = corner[1];
+    }
+
+    @Benchmark
+    public int aStarTick() {
+        return queryAll(aStar);
+    }
+
+    @Benchmark
+    public int bfsTick() {
+        return queryAll(bfs);
+    }
+
+    private int queryAll(PathfindingService pathfinder) {
+        int sum = 0;
+        for (int i = 0; i < GHOSTS; i++) {
+            sum += pathfinder.nextDirection(ghostCells[i], ghostExits[i], pacmanRow, pacmanColumn);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,45 @@
+package benchmark;
+
+import controller.GameEngine;
+import map.MapLoader;
+import model.GameMapWithWalls;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for GameEngine.checkPointCollection with a point on every open cell.
+ * Pacman stays on one cell, so after the first call nothing is left to collect
+ * and every call measures the lookup at an already eaten cell.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PointCollectionBenchmark {
+
+    @Param({"map1", "100x100", "500x500", "1000x1000"})
+    public String map;
+
+    private GameEngine engine;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        MapLoader loader = new MapLoader();
+        char[][] charMap = BenchmarkMaps.load(map);
+        GameMapWithWalls gameMap = loader.createGameMap(charMap);
+        engine = new GameEngine(gameMap, 42L);
+        loader.addPointsFromMap(engine, charMap);
+
+        int[] cell = BenchmarkMaps.findOpenCell(gameMap, 1, 1);
+        engine.getPacman().setPosition(cell[0], cell[1]);
+    }
+
+    @Benchmark
+    public int checkPointCollection() {
+        engine.checkPointCollection();
+        return engine.getScore();
+    }
+}
@@ -0,0 +1,93 @@
+package benchmark;
+
+import map.MapLoader;
+import model.BitGridSearch;
+import model.GameMapWithWalls;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks the word-parallel flood fill against a plain BFS on random mazes, including
+ * mazes whose walls change between fills. The widths cover rows of less than one word,
+ * exactly one word and several words with a partial last one.
+ */
+public class BitGridSearchTest {
+
+    private static final int[][] SIZES = {{31, 41}, {21, 64}, {45, 131}};
+    private static final int FILLS = 20;
+    private static final int TOGGLES = 25;
+
+    @Test
+    public void fillReachesWhatBfsReaches() {
+        SplittableRandom random = new SplittableRandom(20L);
+        for (int[] size : SIZES) {
+            GameMapWithWalls gameMap = new MapLoader().createGameMap(
+                    BenchmarkMaps.maze(size[0], size[1], random.nextLong()));
+            BitGridSearch search = new BitGridSearch(gameMap);
+            for (int round = 0; round < TOGGLES; round++) {
+                for (int i = 0; i < FILLS; i++) {
+                    assertFillMatches(gameMap, search, ReferenceBfs.randomWalkableCell(gameMap, random));
+                }
+                ReferenceBfs.toggleRandomCell(gameMap, random);
+                search.load(gameMap);
+            }
+        }
+    }
+
+    @Test
+    public void fillFromWallOrOutsideReachesNothing() {
+        GameMapWithWalls gameMap = new MapLoader().createGameMap(BenchmarkMaps.maze(21, 21, 1L));
+        BitGridSearch search = new BitGridSearch(gameMap);
+        assertEquals(0, search.fill(0, 0));
+        assertEquals(0, search.fill(-1, 5));
+        assertEquals(0, search.fill(5, 21));
+    }
+
+    @Test
+    public void labelComponentsMatchesBfs() {
+        SplittableRandom random = new SplittableRandom(21L);
+        for (int[] size : SIZES) {
+            GameMapWithWalls gameMap = new MapLoader().createGameMap(
+                    BenchmarkMaps.maze(size[0], size[1], random.nextLong()));
+            BitGridSearch search = new BitGridSearch(gameMap);
+            int[] labels = new int[gameMap.getCellCount()];
+            for (int round = 0; round < TOGGLES; round++) {
+                // Adding walls splits the maze, so later rounds see several components
+                int[] expected = ReferenceBfs.components(gameMap);
+                int components = search.labelComponents(labels);
+                assertArrayEquals(expected, labels, "Labels after " + round + " toggles");
+                int highest = -1;
+                for (int label : expected) {
+                    highest = Math.max(highest, label);
+                }
+                assertEquals(highest + 1, components);
+
+                ReferenceBfs.toggleRandomCell(gameMap, random);
+                search.load(gameMap);
+            }
+        }
+    }
+
+    private static void assertFillMatches(GameMapWithWalls gameMap, BitGridSearch search, int start) {
+        int[] distances = ReferenceBfs.distances(gameMap, start);
+        int reachable = 0;
+        int walkable = 0;
+        for (int cell = 0; cell < distances.length; cell++) {
+            reachable += distances[cell] != ReferenceBfs.UNREACHABLE ? 1 : 0;
+            walkable += gameMap.isWalkableCell(cell) ? 1 : 0;
+        }
+
+        int row = gameMap.getCellRow(start);
+        int column = gameMap.getCellColumn(start);
+        assertEquals(reachable, search.fill(row, column), "Cells reached from " + row + "," + column);
+        for (int cell = 0; cell < distances.length; cell++) {
+            assertEquals(distances[cell] != ReferenceBfs.UNREACHABLE,
+                    search.isReached(gameMap.getCellRow(cell), gameMap.getCellColumn(cell)));
+        }
+        assertEquals(walkable - reachable, search.countUnreached());
+    }
+}
@@ -0,0 +1,96 @@
+package benchmark;
+
+import map.ProceduralMazeSource;
+import model.ChunkSource;
+import model.ChunkedGameMap;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Fuzzes the chunked map against a plain grid filled from the same source: scattered
+ * lookups make chunks load and evict under tight budgets, scattered edits move chunks into
+ * the overlay, and every lookup, before or after its chunk was evicted, must match.
+ */
+public class ChunkedGameMapTest {
+
+    // Not a multiple of the chunk size, so the edge chunks are partial
+    private static final int ROWS = 300;
+    private static final int COLUMNS = 270;
+    private static final int OPERATIONS = 200_000;
+
+    @Test
+    public void oneChunkBudgetMatchesPlainGrid() {
+        fuzz(1, 170L);
+    }
+
+    @Test
+    public void smallBudgetMatchesPlainGrid() {
+        fuzz(5, 171L);
+    }
+
+    private static void fuzz(int budgetChunks, long seed) {
+        ChunkSource source = new ProceduralMazeSource(ROWS, COLUMNS, seed);
+        ChunkedGameMap gameMap = new ChunkedGameMap(ROWS, COLUMNS, source,
+                (long) budgetChunks * ChunkedGameMap.CHUNK_BYTES);
+        boolean[][] expected = plainGrid(source);
+        Set<Integer> editedChunks = new HashSet<>();
+        SplittableRandom random = new SplittableRandom(seed);
+
+        for (int i = 0; i < OPERATIONS; i++) {
+            // Some lookups off the map, which must read as walls
+            int row = random.nextInt(ROWS + 2) - 1;
+            int column = random.nextInt(COLUMNS + 2) - 1;
+            boolean onMap = row >= 0 && row < ROWS && column >= 0 && column < COLUMNS;
+            if (onMap && random.nextInt(50) == 0) {
+                boolean walkable = random.nextBoolean();
+                gameMap.setWalkable(row, column, walkable);
+                expected[row][column] = walkable;
+                editedChunks.add((row >> ChunkedGameMap.CHUNK_SHIFT) * 1000 + (column >> ChunkedGameMap.CHUNK_SHIFT));
+            }
+            assertEquals(onMap && expected[row][column], gameMap.isWalkable(row, column),
+                    "Cell " + row + "," + column + " after " + i + " operations");
+            assertTrue(gameMap.getLoadedChunkCount() - gameMap.getEditedChunkCount() <= budgetChunks,
+                    "Loaded chunks within the budget");
+        }
+        assertEquals(editedChunks.size(), gameMap.getEditedChunkCount());
+        assertTrue(gameMap.getEvictionCount() > 0, "Chunks were evicted");
+
+        // Every cell once more in order, long after most chunks were evicted and reloaded
+        for (int row = 0; row < ROWS; row++) {
+            for (int column = 0; column < COLUMNS; column++) {
+                assertEquals(expected[row][column], gameMap.isWalkable(row, column), "Cell " + row + "," + column);
+            }
+        }
+    }
+
+    /**
+     * Fill a plain grid chunk by chunk from the source
+     */
+    private static boolean[][] plainGrid(ChunkSource source) {
+        boolean[][] grid = new boolean[ROWS][COLUMNS];
+        long[] words = new long[ChunkedGameMap.CHUNK_SIZE];
+        for (int chunkRow = 0; chunkRow << ChunkedGameMap.CHUNK_SHIFT < ROWS; chunkRow++) {
+            for (int chunkColumn = 0; chunkColumn << ChunkedGameMap.CHUNK_SHIFT < COLUMNS; chunkColumn++) {
+                Arrays.fill(words, 0L);
+                source.fill(chunkRow, chunkColumn, words);
+                for (int r = 0; r < ChunkedGameMap.CHUNK_SIZE; r++) {
+                    for (int c = 0; c < ChunkedGameMap.CHUNK_SIZE; c++) {
+                        int row = (chunkRow << ChunkedGameMap.CHUNK_SHIFT) + r;
+                        int column = (chunkColumn << ChunkedGameMap.CHUNK_SHIFT) + c;
+                        if (row < ROWS && column < COLUMNS) {
+                            grid[row][column] = (words[r] >>> c & 1L) != 0;
+                        }
+                    }
+                }
+            }
+        }
+        return grid;
+    }
+}
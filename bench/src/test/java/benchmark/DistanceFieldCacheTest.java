@@ -0,0 +1,163 @@
+package benchmark;
+
+import map.MapLoader;
+import model.DistanceFieldCache;
+import model.GameMapWithWalls;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the distance field cache against a plain BFS: after invalidate every slot is
+ * empty again and rebuilt in place, without dropping a new field to make room; and on a
+ * map too big for short fields, with distances past 0xFFFF, the wide fields and the wide
+ * batch kernel answer exactly.
+ */
+public class DistanceFieldCacheTest {
+
+    private static final int CAPACITY = 4;
+    private static final int PICKS = 500;
+
+    @Test
+    public void invalidateEmptiesSlotsForReuse() {
+        SplittableRandom random = new SplittableRandom(190L);
+        GameMapWithWalls gameMap = new MapLoader().createGameMap(BenchmarkMaps.maze(101, 101, 190L));
+        DistanceFieldCache cache = new DistanceFieldCache(gameMap, CAPACITY);
+        int[] targets = new int[CAPACITY];
+        for (int i = 0; i < CAPACITY; i++) {
+            targets[i] = ReferenceBfs.randomWalkableCell(gameMap, random);
+            prepare(gameMap, cache, targets[i]);
+        }
+        assertEquals(CAPACITY, cache.getBuildCount(), "Full cache");
+
+        // Walls change in place: every field is stale and must be rebuilt on next use
+        ReferenceBfs.toggleRandomCell(gameMap, random);
+        cache.invalidate();
+        assertEquals(CAPACITY, cache.getCapacity(), "Capacity kept");
+        int[] fresh = new int[CAPACITY];
+        for (int i = 0; i < CAPACITY; i++) {
+            fresh[i] = ReferenceBfs.randomWalkableCell(gameMap, random);
+        }
+        long allocated = allocatedBytes(() -> {
+            for (int target : fresh) {
+                prepare(gameMap, cache, target);
+            }
+        });
+        assertEquals(2 * CAPACITY, cache.getBuildCount(), "One build per emptied slot");
+        if (allocated >= 0) {
+            assertTrue(allocated < cache.getFieldBytes(), "Rebuilt into the old arrays, allocated " + allocated);
+        }
+
+        // Each new field took an empty slot, so none of them was evicted
+        for (int target : fresh) {
+            prepare(gameMap, cache, target);
+            assertField(gameMap, cache, target);
+        }
+        assertEquals(2 * CAPACITY, cache.getBuildCount(), "Fields kept after the refill");
+    }
+
+    @Test
+    public void wideFieldsMatchBfs() {
+        SplittableRandom random = new SplittableRandom(191L);
+        GameMapWithWalls gameMap = new MapLoader().createGameMap(serpentine(261, 520));
+        assertTrue(gameMap.getCellCount() > DistanceFieldCache.MAX_SHORT_CELLS);
+        DistanceFieldCache cache = new DistanceFieldCache(gameMap, CAPACITY);
+        assertTrue(cache.isWide(), "Wide fields past MAX_SHORT_CELLS cells");
+
+        // Both ends of the snake, where distances run past 0xFFFF, and a few cells between
+        int[] targets = {
+                gameMap.getCellIndex(1, 1),
+                gameMap.getCellIndex(gameMap.getRows() - 2, 1),
+                ReferenceBfs.randomWalkableCell(gameMap, random),
+                ReferenceBfs.randomWalkableCell(gameMap, random)
+        };
+        for (int target : targets) {
+            int[] distances = assertField(gameMap, cache, target);
+            if (target == targets[0]) {
+                assertTrue(Arrays.stream(distances).filter(d -> d != ReferenceBfs.UNREACHABLE).max().getAsInt()
+                        > 0xFFFF, "Distances past 0xFFFF");
+            }
+
+            int[] movers = new int[PICKS];
+            int[] cells = new int[PICKS];
+            int[] exits = new int[PICKS];
+            int[] directions = new int[PICKS];
+            for (int k = 0; k < PICKS; k++) {
+                movers[k] = k;
+                cells[k] = ReferenceBfs.randomWalkableCell(gameMap, random);
+                exits[k] = gameMap.getExitMask(cells[k]) & random.nextInt(16);
+            }
+            int row = gameMap.getCellRow(target);
+            int column = gameMap.getCellColumn(target);
+            cache.nextDirections(movers, cells, exits, directions, 0, PICKS, row, column);
+            for (int k = 0; k < PICKS; k++) {
+                assertEquals(cache.nextDirection(cells[k], exits[k], row, column), directions[k],
+                        "Pick for cell " + cells[k]);
+            }
+        }
+    }
+
+    private static void prepare(GameMapWithWalls gameMap, DistanceFieldCache cache, int target) {
+        cache.prepare(gameMap.getCellRow(target), gameMap.getCellColumn(target));
+    }
+
+    /**
+     * Compare every walkable cell's distance with a plain BFS
+     * @return The BFS distances
+     */
+    private static int[] assertField(GameMapWithWalls gameMap, DistanceFieldCache cache, int target) {
+        int[] distances = ReferenceBfs.distances(gameMap, target);
+        int row = gameMap.getCellRow(target);
+        int column = gameMap.getCellColumn(target);
+        for (int cell = 0; cell < distances.length; cell++) {
+            if (gameMap.isWalkableCell(cell)) {
+                assertEquals(distances[cell],
+                        cache.getDistance(gameMap.getCellRow(cell), gameMap.getCellColumn(cell), row, column),
+                        "Distance of " + cell + " to " + target);
+            }
+        }
+        return distances;
+    }
+
+    /**
+     * Bytes this thread allocated while running some code
+     * @return Bytes, or -1 where the JVM can't tell
+     */
+    private static long allocatedBytes(Runnable code) {
+        if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean)) {
+            code.run();
+            return -1;
+        }
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        threads.getThreadAllocatedBytes(thread);
+        long before = threads.getThreadAllocatedBytes(thread);
+        code.run();
+        return threads.getThreadAllocatedBytes(thread) - before;
+    }
+
+    /**
+     * One corridor snaking down the map, row by row, linked at alternating ends
+     * @param rows Number of rows, odd
+     * @param columns Number of columns
+     */
+    private static char[][] serpentine(int rows, int columns) {
+        char[][] map = new char[rows][columns];
+        for (char[] row : map) {
+            Arrays.fill(row, '#');
+        }
+        for (int row = 1; row < rows - 1; row += 2) {
+            Arrays.fill(map[row], 1, columns - 1, 'o');
+            if (row + 2 < rows - 1) {
+                map[row + 1][(row / 2) % 2 == 0 ? columns - 2 : 1] = 'o';
+            }
+        }
+        return map;
+    }
+}
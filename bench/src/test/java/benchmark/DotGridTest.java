@@ -0,0 +1,86 @@
+package benchmark;
+
+import model.DotGrid;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the dot grid's bookkeeping through add, eat and re-add on the same cell: the
+ * remaining count, the eaten bit of every point index, and grids copied from the layout.
+ */
+public class DotGridTest {
+
+    @Test
+    public void reAddAfterEatIsEdibleAgain() {
+        DotGrid grid = new DotGrid(3, 5);
+        grid.add(1, 1, DotGrid.DOT, 0);
+        grid.add(1, 2, DotGrid.DOT, 1);
+        grid.add(1, 3, DotGrid.DOT, 2);
+        assertEquals(3, grid.getRemaining());
+
+        assertEquals(0, grid.eat(1, 1));
+        assertEquals(-1, grid.eat(1, 1), "Eaten twice");
+        assertEquals(2, grid.getRemaining());
+        assertEquals(DotGrid.EMPTY, grid.getKind(1, 1));
+
+        // A new point on the eaten cell
+        grid.add(1, 1, DotGrid.PELLET, 3);
+        assertEquals(3, grid.getRemaining());
+        assertEquals(DotGrid.PELLET, grid.getKind(1, 1));
+        assertTrue(grid.isEaten(0), "Old point stays eaten");
+        assertEquals(3, grid.eat(1, 1));
+        assertEquals(2, grid.getRemaining());
+
+        // The same point index again
+        grid.add(1, 1, DotGrid.DOT, 3);
+        assertFalse(grid.isEaten(3));
+        assertEquals(3, grid.getRemaining());
+        assertEquals(3, grid.eat(1, 1));
+        assertEquals(2, grid.getRemaining());
+    }
+
+    @Test
+    public void reAddOverUneatenReplacesIt() {
+        DotGrid grid = new DotGrid(3, 5);
+        grid.add(1, 1, DotGrid.DOT, 0);
+        grid.add(1, 2, DotGrid.DOT, 1);
+
+        grid.add(1, 2, DotGrid.BOOST, 2);
+        assertEquals(2, grid.getRemaining(), "Still one edible per cell");
+        assertTrue(grid.isEaten(1), "Replaced point is gone");
+        assertFalse(grid.isEaten(2));
+        assertEquals(DotGrid.BOOST, grid.getKind(1, 2));
+
+        // Eating everything leaves nothing behind, and every point index reads as eaten
+        assertEquals(2, grid.eat(1, 2));
+        assertEquals(0, grid.eat(1, 1));
+        assertEquals(0, grid.getRemaining());
+        for (int i = 0; i < grid.getPointCount(); i++) {
+            assertTrue(grid.isEaten(i), "Point " + i);
+        }
+    }
+
+    @Test
+    public void copiesCountOnlyPlacedPoints() {
+        DotGrid layout = new DotGrid(3, 5);
+        layout.add(1, 1, DotGrid.DOT, 0);
+        layout.add(1, 2, DotGrid.DOT, 1);
+        assertEquals(0, layout.eat(1, 1));
+        layout.add(1, 1, DotGrid.DOT, 2);
+        layout.add(1, 2, DotGrid.DOT, 3);
+        layout.freezeLayout();
+
+        DotGrid game = new DotGrid(layout);
+        assertEquals(2, game.getRemaining());
+        assertTrue(game.isEaten(0), "Point 0 was replaced in the layout");
+        assertTrue(game.isEaten(1), "Point 1 was replaced in the layout");
+        assertFalse(game.isEaten(2));
+        assertFalse(game.isEaten(3));
+        assertEquals(2, game.eat(1, 1));
+        assertEquals(3, game.eat(1, 2));
+        assertEquals(0, game.getRemaining());
+    }
+}
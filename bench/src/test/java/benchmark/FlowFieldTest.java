@@ -0,0 +1,125 @@
+package benchmark;
+
+import map.MapLoader;
+import model.FlowField;
+import model.GameMapWithWalls;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the flow field against a plain BFS from its target after every move on random
+ * mazes: one-cell steps, which go through the incremental stepTarget, jumps and wall
+ * changes, which rebuild it, and the batch pick against the single one.
+ */
+public class FlowFieldTest {
+
+    private static final int STEPS = 400;
+    private static final int ROUNDS = 15;
+
+    @Test
+    public void stepsMatchBfs() {
+        SplittableRandom random = new SplittableRandom(22L);
+        GameMapWithWalls gameMap = new MapLoader().createGameMap(BenchmarkMaps.maze(41, 51, 22L));
+        FlowField field = new FlowField(gameMap);
+        int target = ReferenceBfs.randomWalkableCell(gameMap, random);
+        setTarget(gameMap, field, target);
+        assertField(gameMap, field);
+
+        for (int i = 0; i < STEPS; i++) {
+            int next = randomNeighbour(gameMap, target, random);
+            long updates = field.getIncrementalUpdateCount();
+            long builds = field.getFullBuildCount();
+            setTarget(gameMap, field, next);
+            if (next != target) {
+                assertEquals(updates + 1, field.getIncrementalUpdateCount(), "Step handled incrementally");
+                assertEquals(builds, field.getFullBuildCount());
+            }
+            target = next;
+            assertField(gameMap, field);
+        }
+    }
+
+    @Test
+    public void jumpsAndWallChangesMatchBfs() {
+        SplittableRandom random = new SplittableRandom(23L);
+        GameMapWithWalls gameMap = new MapLoader().createGameMap(BenchmarkMaps.maze(35, 35, 23L));
+        FlowField field = new FlowField(gameMap);
+        int target = ReferenceBfs.randomWalkableCell(gameMap, random);
+        setTarget(gameMap, field, target);
+        for (int round = 0; round < ROUNDS; round++) {
+            // A wall change first, then a few steps on the changed map, then a jump
+            int toggled = ReferenceBfs.toggleRandomCell(gameMap, random);
+            field.setGameMap(gameMap);
+            if (toggled == target) {
+                target = ReferenceBfs.randomWalkableCell(gameMap, random);
+            }
+            setTarget(gameMap, field, target);
+            assertField(gameMap, field);
+            for (int i = 0; i < STEPS / ROUNDS; i++) {
+                target = randomNeighbour(gameMap, target, random);
+                setTarget(gameMap, field, target);
+                assertField(gameMap, field);
+            }
+            target = ReferenceBfs.randomWalkableCell(gameMap, random);
+            setTarget(gameMap, field, target);
+            assertField(gameMap, field);
+        }
+    }
+
+    @Test
+    public void batchPickMatchesSinglePick() {
+        SplittableRandom random = new SplittableRandom(24L);
+        GameMapWithWalls gameMap = new MapLoader().createGameMap(BenchmarkMaps.maze(41, 41, 24L));
+        FlowField field = new FlowField(gameMap);
+        int target = ReferenceBfs.randomWalkableCell(gameMap, random);
+        setTarget(gameMap, field, target);
+
+        int count = 500;
+        int[] cells = new int[count];
+        int[] exits = new int[count];
+        int[] directions = new int[count];
+        for (int k = 0; k < count; k++) {
+            cells[k] = ReferenceBfs.randomWalkableCell(gameMap, random);
+            // Some exits closed, as for a ghost that may not reverse
+            exits[k] = gameMap.getExitMask(cells[k]) & random.nextInt(16);
+        }
+        field.nextDirections(cells, exits, directions, count);
+        for (int k = 0; k < count; k++) {
+            assertEquals(field.nextDirection(cells[k], exits[k]), directions[k], "Pick for cell " + cells[k]);
+        }
+    }
+
+    private static void setTarget(GameMapWithWalls gameMap, FlowField field, int cell) {
+        field.setTarget(gameMap.getCellRow(cell), gameMap.getCellColumn(cell));
+    }
+
+    /**
+     * Pick a random open neighbour, or the cell itself if it has none
+     */
+    private static int randomNeighbour(GameMapWithWalls gameMap, int cell, SplittableRandom random) {
+        int exits = gameMap.getExitMask(cell);
+        if (exits == 0) {
+            return cell;
+        }
+        int pick = random.nextInt(Integer.bitCount(exits));
+        while (pick-- > 0) {
+            exits &= exits - 1;
+        }
+        return cell + gameMap.getCellDelta(Integer.numberOfTrailingZeros(exits));
+    }
+
+    private static void assertField(GameMapWithWalls gameMap, FlowField field) {
+        int target = field.getTarget();
+        assertTrue(gameMap.isWalkableCell(target), "Target on a walkable cell");
+        int[] distances = ReferenceBfs.distances(gameMap, target);
+        for (int cell = 0; cell < distances.length; cell++) {
+            if (gameMap.isWalkableCell(cell)) {
+                assertEquals(distances[cell], field.getDistance(cell), "Distance of " + cell + " to " + target);
+            }
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package benchmark;
+
+import controller.GameEngine;
+import map.MapLoader;
+import model.DistanceFieldCache;
+import model.FlowField;
+import model.GameMap;
+import model.GameMapWithWalls;
+import model.Ghost;
+import model.GhostStore;
+import model.PacmanModel;
+import model.SubCellMotion;
+import org.junit.jupiter.api.Test;
+import service.GhostManager;
+import service.MovementService;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Runs ghosts in mixed states through GhostManager's batched decisions and, side by side on
+ * the same seed, through a plain loop asking each ghost's way one at a time with
+ * GhostMoveStrategy.nextDirection; every ghost must pick the same direction on every tick.
+ */
+public class GhostManagerTest {
+
+    private static final int GHOSTS = 48;
+    private static final int TICKS = 3000;
+    private static final int STATE_CHANGE_TICKS = 40;
+    private static final int PACMAN_STEP_TICKS = 6;
+
+    @Test
+    public void batchPicksMatchPerGhostPicks() {
+        long seed = 250L;
+        SplittableRandom random = new SplittableRandom(seed);
+        GameMapWithWalls gameMap = new MapLoader().createGameMap(BenchmarkMaps.maze(41, 41, seed));
+        int start = ReferenceBfs.randomWalkableCell(gameMap, random);
+        PacmanModel pacman = new PacmanModel(gameMap.getCellRow(start), gameMap.getCellColumn(start));
+
+        GhostStore batchGhosts = new GhostStore();
+        GhostStore referenceGhosts = new GhostStore();
+        for (int i = 0; i < GHOSTS; i++) {
+            // Own homes, so eaten ghosts head for many different targets
+            int cell = ReferenceBfs.randomWalkableCell(gameMap, random);
+            double speed = 2 + random.nextInt(9);
+            batchGhosts.add(gameMap.getCellRow(cell), gameMap.getCellColumn(cell), speed);
+            referenceGhosts.add(gameMap.getCellRow(cell), gameMap.getCellColumn(cell), speed);
+        }
+        GhostManager manager = new GhostManager(batchGhosts, gameMap, pacman, new SplittableRandom(seed));
+        PerGhostReference reference = new PerGhostReference(referenceGhosts, gameMap, pacman,
+                new SplittableRandom(seed));
+
+        Ghost.GhostState[] states = Ghost.GhostState.values();
+        for (int tick = 0; tick < TICKS; tick++) {
+            if (tick % STATE_CHANGE_TICKS == 0) {
+                for (int i = 0; i < GHOSTS; i++) {
+                    Ghost.GhostState state = states[random.nextInt(states.length)];
+                    batchGhosts.setState(i, state);
+                    referenceGhosts.setState(i, state);
+                }
+            }
+            if (tick % PACMAN_STEP_TICKS == 0) {
+                int cell = gameMap.getCellIndex(pacman.getRow(), pacman.getColumn());
+                int exits = gameMap.getExitMask(cell);
+                if (exits != 0) {
+                    int pick = random.nextInt(Integer.bitCount(exits));
+                    while (pick-- > 0) {
+                        exits &= exits - 1;
+                    }
+                    cell += gameMap.getCellDelta(Integer.numberOfTrailingZeros(exits));
+                    pacman.setPosition(gameMap.getCellRow(cell), gameMap.getCellColumn(cell));
+                }
+            }
+
+            manager.update(GameEngine.TICK_MS);
+            reference.update(GameEngine.TICK_MS);
+            for (int i = 0; i < GHOSTS; i++) {
+                assertEquals(referenceGhosts.getDirection(i), batchGhosts.getDirection(i),
+                        "Ghost " + i + " in " + batchGhosts.getState(i) + " on tick " + tick);
+                assertEquals(referenceGhosts.getRow(i), batchGhosts.getRow(i), "Row of ghost " + i);
+                assertEquals(referenceGhosts.getColumn(i), batchGhosts.getColumn(i), "Column of ghost " + i);
+            }
+        }
+    }
+
+    /**
+     * Moves ghosts like GhostManager.update, but decides each ghost on its own as it needs
+     * a direction, in ghost order: the chase field and the distance fields answer one
+     * ghost per call, and frightened ghosts draw from the same random stream
+     */
+    private static final class PerGhostReference {
+
+        private final GhostStore ghosts;
+        private final GameMapWithWalls gameMap;
+        private final PacmanModel pacman;
+        private final SplittableRandom random;
+        private final FlowField chaseField;
+        private final DistanceFieldCache distanceFields;
+
+        PerGhostReference(GhostStore ghosts, GameMapWithWalls gameMap, PacmanModel pacman,
+                          SplittableRandom random) {
+            this.ghosts = ghosts;
+            this.gameMap = gameMap;
+            this.pacman = pacman;
+            this.random = random;
+            this.chaseField = new FlowField(gameMap);
+            this.distanceFields = new DistanceFieldCache(gameMap, 8);
+        }
+
+        void update(int elapsedMs) {
+            int[] rows = ghosts.rows();
+            int[] columns = ghosts.columns();
+            byte[] directions = ghosts.directions();
+            int[] speeds = ghosts.speeds();
+            int[] progress = ghosts.progress();
+            for (int i = 0; i < ghosts.size(); i++) {
+                if (directions[i] == GameMap.NONE) {
+                    decide(i);
+                }
+            }
+            for (int i = 0; i < ghosts.size(); i++) {
+                if (directions[i] == GameMap.NONE) {
+                    continue;
+                }
+                progress[i] += SubCellMotion.advance(speeds[i], elapsedMs);
+                if (progress[i] < SubCellMotion.ONE) {
+                    continue;
+                }
+                progress[i] -= SubCellMotion.ONE;
+                rows[i] += MovementService.getRowDelta(directions[i]);
+                columns[i] += MovementService.getColumnDelta(directions[i]);
+                decide(i);
+                if (directions[i] == GameMap.NONE) {
+                    progress[i] = 0;
+                }
+            }
+        }
+
+        private void decide(int i) {
+            byte[] directions = ghosts.directions();
+            int row = ghosts.getRow(i);
+            int column = ghosts.getColumn(i);
+            int cell = gameMap.getCellIndex(row, column);
+            int open = GameMapWithWalls.getForwardExits(gameMap.getExitMask(cell), directions[i]);
+            if (open == 0) {
+                directions[i] = (byte) GameMap.NONE;
+                return;
+            }
+
+            int targetRow;
+            int targetColumn;
+            switch (ghosts.getState(i)) {
+                case CHASE:
+                    chaseField.setTarget(pacman.getRow(), pacman.getColumn());
+                    int chase = chaseField.nextDirection(cell, open);
+                    directions[i] = (byte) (chase != GameMap.NONE ? chase
+                            : towards(row, column, open, pacman.getRow(), pacman.getColumn()));
+                    return;
+                case FRIGHTENED:
+                    int pick = random.nextInt(Integer.bitCount(open));
+                    while (pick-- > 0) {
+                        open &= open - 1;
+                    }
+                    directions[i] = (byte) Integer.numberOfTrailingZeros(open);
+                    return;
+                case SCATTER:
+                    targetRow = (i & 1) == 0 ? 0 : gameMap.getRows() - 1;
+                    targetColumn = (i & 2) == 0 ? gameMap.getColumns() - 1 : 0;
+                    break;
+                default:
+                    targetRow = ghosts.getHomeRow(i);
+                    targetColumn = ghosts.getHomeColumn(i);
+                    break;
+            }
+            int direction = distanceFields.nextDirection(i, cell, open, targetRow, targetColumn);
+            directions[i] = (byte) (direction != GameMap.NONE ? direction
+                    : towards(row, column, open, targetRow, targetColumn));
+        }
+
+        private static int towards(int row, int column, int open, int targetRow, int targetColumn) {
+            int best = GameMap.NONE;
+            int bestDistance = Integer.MAX_VALUE;
+            for (int direction = GameMap.UP; direction <= GameMap.RIGHT; direction++) {
+                if ((open & 1 << direction) == 0) {
+                    continue;
+                }
+                int distance = Math.abs(row + MovementService.getRowDelta(direction) - targetRow)
+                        + Math.abs(column + MovementService.getColumnDelta(direction) - targetColumn);
+                if (distance < bestDistance) {
+                    bestDistance = distance;
+                    best = direction;
+                }
+            }
+            return best;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package benchmark;
+
+import map.MapLoader;
+import model.GameMap;
+import model.GameMapWithWalls;
+import org.junit.jupiter.api.Test;
+import service.HierarchicalPathfinder;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Walks movers along hierarchical paths and checks them against a plain BFS: every step
+ * keeps the target reachable, and the walk arrives within a cluster side of the shortest
+ * path. A mover's cached path answers every step after the first. After a wall toggle,
+ * updateCell must match a pathfinder built from scratch and drop every cached path.
+ * The maps are open pillar grids with random walls, where entrance choice matters;
+ * a one-cell-wide maze would leave only one way round.
+ */
+public class HierarchicalPathfinderTest {
+
+    private static final int CLUSTER_SIZE = 8;
+    private static final int WALKS = 100;
+    private static final int TOGGLES = 30;
+
+    @Test
+    public void walksArriveWithinOneClusterOfShortest() {
+        SplittableRandom random = new SplittableRandom(240L);
+        GameMapWithWalls gameMap = openMap(random);
+        HierarchicalPathfinder pathfinder = new HierarchicalPathfinder(gameMap, CLUSTER_SIZE);
+        for (int walk = 0; walk < WALKS; walk++) {
+            int start = ReferenceBfs.randomWalkableCell(gameMap, random);
+            int target = ReferenceBfs.randomWalkableCell(gameMap, random);
+            int[] distances = ReferenceBfs.distances(gameMap, target);
+            if (distances[start] == ReferenceBfs.UNREACHABLE || start == target) {
+                continue;
+            }
+
+            long searches = pathfinder.getSearchCount();
+            long hits = pathfinder.getPathHitCount();
+            int steps = walk(gameMap, pathfinder, walk, start, target, distances);
+            assertTrue(steps - distances[start] <= CLUSTER_SIZE,
+                    "Walk of " + steps + " steps where " + distances[start] + " do");
+            // One search, then the cached path all the way
+            assertEquals(searches + 1, pathfinder.getSearchCount(), "Searches on one walk");
+            assertEquals(hits + steps - 1, pathfinder.getPathHitCount(), "Steps taken from the cached path");
+        }
+    }
+
+    @Test
+    public void updateCellMatchesFreshPathfinder() {
+        SplittableRandom random = new SplittableRandom(241L);
+        GameMapWithWalls gameMap = openMap(random);
+        HierarchicalPathfinder pathfinder = new HierarchicalPathfinder(gameMap, CLUSTER_SIZE);
+        for (int round = 0; round < TOGGLES; round++) {
+            // Border cells too, so entrances between clusters change
+            int toggled = ReferenceBfs.toggleRandomCell(gameMap, random);
+            pathfinder.updateCell(gameMap, gameMap.getCellRow(toggled), gameMap.getCellColumn(toggled));
+
+            HierarchicalPathfinder fresh = new HierarchicalPathfinder(gameMap, CLUSTER_SIZE);
+            assertEquals(fresh.getNodeCount(), pathfinder.getNodeCount(), "Entrances after " + round + " toggles");
+            for (int i = 0; i < WALKS; i++) {
+                int cell = ReferenceBfs.randomWalkableCell(gameMap, random);
+                int target = ReferenceBfs.randomWalkableCell(gameMap, random);
+                int exits = gameMap.getExitMask(cell);
+                int row = gameMap.getCellRow(target);
+                int column = gameMap.getCellColumn(target);
+                assertEquals(fresh.nextDirection(cell, exits, row, column),
+                        pathfinder.nextDirection(cell, exits, row, column), "Step from " + cell + " towards " + target);
+            }
+        }
+    }
+
+    @Test
+    public void updateCellDropsCachedPaths() {
+        SplittableRandom random = new SplittableRandom(242L);
+        GameMapWithWalls gameMap = openMap(random);
+        HierarchicalPathfinder pathfinder = new HierarchicalPathfinder(gameMap, CLUSTER_SIZE);
+        int mover = 0;
+        for (int round = 0; round < TOGGLES; round++) {
+            int start = ReferenceBfs.randomWalkableCell(gameMap, random);
+            int target = ReferenceBfs.randomWalkableCell(gameMap, random);
+            int[] distances = ReferenceBfs.distances(gameMap, target);
+            if (distances[start] == ReferenceBfs.UNREACHABLE || distances[start] < 4) {
+                continue;
+            }
+
+            // Halfway there, open a wall; the next step must search again
+            int halfway = walkTo(gameMap, pathfinder, mover, start, target, distances, distances[start] / 2);
+            int wall;
+            do {
+                wall = gameMap.getCellIndex(1 + random.nextInt(gameMap.getRows() - 2),
+                        1 + random.nextInt(gameMap.getColumns() - 2));
+            } while (gameMap.isWalkableCell(wall));
+            gameMap.setWalkable(gameMap.getCellRow(wall), gameMap.getCellColumn(wall), true);
+            pathfinder.updateCell(gameMap, gameMap.getCellRow(wall), gameMap.getCellColumn(wall));
+
+            long searches = pathfinder.getSearchCount();
+            walkTo(gameMap, pathfinder, mover, halfway, target, ReferenceBfs.distances(gameMap, target), 1);
+            assertEquals(searches + 1, pathfinder.getSearchCount(), "Cached path dropped after updateCell");
+        }
+    }
+
+    /**
+     * Pillar grid with random walls inside the border
+     */
+    private static GameMapWithWalls openMap(SplittableRandom random) {
+        GameMapWithWalls gameMap = new MapLoader().createGameMap(BenchmarkMaps.synthetic(61, 61));
+        for (int i = 0; i < 900; i++) {
+            ReferenceBfs.toggleRandomCell(gameMap, random);
+        }
+        return gameMap;
+    }
+
+    /**
+     * Walk a mover all the way to its target with every exit allowed
+     * @return Number of steps taken
+     */
+    private static int walk(GameMapWithWalls gameMap, HierarchicalPathfinder pathfinder, int mover,
+                            int start, int target, int[] distances) {
+        int cell = start;
+        int steps = 0;
+        while (cell != target) {
+            cell = walkTo(gameMap, pathfinder, mover, cell, target, distances, 1);
+            steps++;
+            assertTrue(steps <= gameMap.getCellCount(), "Walk towards " + target + " never arrives");
+        }
+        return steps;
+    }
+
+    /**
+     * Walk a mover up to some steps towards its target, checking each step
+     * @param steps Most steps to take
+     * @return Cell reached
+     */
+    private static int walkTo(GameMapWithWalls gameMap, HierarchicalPathfinder pathfinder, int mover,
+                              int start, int target, int[] distances, int steps) {
+        int cell = start;
+        for (int step = 0; step < steps && cell != target; step++) {
+            int exits = gameMap.getExitMask(cell);
+            int direction = pathfinder.nextDirection(mover, cell, exits,
+                    gameMap.getCellRow(target), gameMap.getCellColumn(target));
+            assertNotEquals(GameMap.NONE, direction, "Step from " + cell + " towards " + target);
+            assertTrue((exits & 1 << direction) != 0, "Direction " + direction + " not allowed");
+            cell += gameMap.getCellDelta(direction);
+            assertTrue(distances[cell] != ReferenceBfs.UNREACHABLE, "Stepped off the way to " + target);
+        }
+        return cell;
+    }
+}
@@ -0,0 +1,79 @@
+package benchmark;
+
+import map.MapLoader;
+import model.GameMap;
+import model.GameMapWithWalls;
+import model.JunctionGraph;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks junction graph queries against a plain BFS on random mazes, and that a graph
+ * patched by updateCell after each wall toggle answers like one built from scratch.
+ */
+public class JunctionGraphTest {
+
+    private static final int QUERIES = 30;
+    private static final int TOGGLES = 40;
+
+    @Test
+    public void queriesTakeAShortestPath() {
+        SplittableRandom random = new SplittableRandom(230L);
+        GameMapWithWalls gameMap = new MapLoader().createGameMap(BenchmarkMaps.maze(41, 51, 230L));
+        JunctionGraph graph = new JunctionGraph(gameMap);
+        for (int i = 0; i < QUERIES * 10; i++) {
+            assertShortestStep(gameMap, graph, random);
+        }
+    }
+
+    @Test
+    public void updateCellMatchesFreshGraph() {
+        SplittableRandom random = new SplittableRandom(231L);
+        GameMapWithWalls gameMap = new MapLoader().createGameMap(BenchmarkMaps.maze(45, 45, 231L));
+        JunctionGraph graph = new JunctionGraph(gameMap);
+        for (int round = 0; round < TOGGLES; round++) {
+            int toggled = ReferenceBfs.toggleRandomCell(gameMap, random);
+            graph.updateCell(gameMap, gameMap.getCellRow(toggled), gameMap.getCellColumn(toggled));
+
+            JunctionGraph fresh = new JunctionGraph(gameMap);
+            assertEquals(fresh.getNodeCount(), graph.getNodeCount(), "Nodes after " + round + " toggles");
+            assertEquals(fresh.getEdgeCount(), graph.getEdgeCount(), "Edges after " + round + " toggles");
+            for (int cell = 0; cell < gameMap.getCellCount(); cell++) {
+                assertEquals(fresh.getNode(cell) >= 0, graph.getNode(cell) >= 0, "Node at " + cell);
+                if (fresh.getEdge(cell) >= 0) {
+                    assertEquals(fresh.getEdgeLength(fresh.getEdge(cell)), graph.getEdgeLength(graph.getEdge(cell)),
+                            "Length of the corridor through " + cell);
+                }
+            }
+            for (int i = 0; i < QUERIES; i++) {
+                assertShortestStep(gameMap, graph, random);
+            }
+        }
+    }
+
+    /**
+     * Ask for the way between two random cells with every exit allowed; a reachable target
+     * must be one step closer after the answer
+     */
+    private static void assertShortestStep(GameMapWithWalls gameMap, JunctionGraph graph,
+                                           SplittableRandom random) {
+        int cell = ReferenceBfs.randomWalkableCell(gameMap, random);
+        int target = ReferenceBfs.randomWalkableCell(gameMap, random);
+        int exits = gameMap.getExitMask(cell);
+        int direction = graph.nextDirection(cell, exits, gameMap.getCellRow(target), gameMap.getCellColumn(target));
+
+        int[] distances = ReferenceBfs.distances(gameMap, target);
+        if (exits == 0 || distances[cell] == ReferenceBfs.UNREACHABLE || cell == target) {
+            return;
+        }
+        assertNotEquals(GameMap.NONE, direction, "Step from " + cell + " towards " + target);
+        assertTrue((exits & 1 << direction) != 0, "Direction " + direction + " not allowed");
+        assertEquals(distances[cell] - 1, distances[cell + gameMap.getCellDelta(direction)],
+                "Step from " + cell + " towards " + target);
+    }
+}
@@ -0,0 +1,39 @@
+package benchmark;
+
+import map.MapLoader;
+import model.LevelTopology;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Checks that createTopology accepts a level whose dots Pacman can all reach from the
+ * centre of the map, and rejects one with a dot walled off.
+ */
+public class MapLoaderTest {
+
+    @Test
+    public void reachableDotsAreAccepted() {
+        char[][] charMap = BenchmarkMaps.load("map1");
+        LevelTopology topology = new MapLoader().createTopology(charMap);
+        int dots = 0;
+        for (char[] row : charMap) {
+            for (char c : row) {
+                dots += c == 'o' ? 1 : 0;
+            }
+        }
+        assertEquals(dots, topology.getDots().getPointCount());
+    }
+
+    @Test
+    public void sealedOffDotIsRejected() {
+        char[][] charMap = BenchmarkMaps.load("map1");
+        // Wall in the top-left dot
+        charMap[1][2] = '#';
+        charMap[2][1] = '#';
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> new MapLoader().createTopology(charMap));
+        assertEquals("Invalid map data: 1 dots can't be reached from Pacman's start", e.getMessage());
+    }
+}
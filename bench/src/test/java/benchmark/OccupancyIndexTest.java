@@ -0,0 +1,113 @@
+package benchmark;
+
+import controller.GameEngine;
+import map.MapLoader;
+import model.Direction;
+import model.GhostStore;
+import model.OccupancyIndex;
+import model.PacmanModel;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the swept checks that catch two entities passing through each other between
+ * cell centres: findSwept and findSweptCells on the index itself, and in the engine a
+ * ghost running head-on into Pacman down a corridor at every pair of speeds, which must
+ * cost a life before the ghost is ever seen on Pacman's far side.
+ */
+public class OccupancyIndexTest {
+
+    private static final int GHOST = 0;
+    private static final int PACMAN = 1;
+    private static final int MAX_TICKS = 5000;
+
+    @Test
+    public void swapInOneTickIsFound() {
+        OccupancyIndex index = new OccupancyIndex(3, 8);
+        index.add(GHOST, 1, 4);
+        index.add(PACMAN, 1, 3);
+
+        // Pacman steps right while the ghost steps left: they swap cells
+        index.beginTick();
+        index.move(GHOST, 1, 3);
+        index.move(PACMAN, 1, 4);
+        assertEquals(GHOST, index.findSwept(1, 3, 1, 4), "Swept from Pacman's step");
+        assertEquals(GHOST, index.findSweptCells(11, 12), "Swept by cell index");
+        assertEquals(PACMAN, index.findSwept(1, 4, 1, 3), "Swept from the ghost's step");
+        assertEquals(GHOST, index.findCollision(PACMAN));
+        assertEquals(PACMAN, index.findCollision(GHOST));
+
+        // The swap only counts in the tick it happened
+        index.beginTick();
+        assertEquals(OccupancyIndex.NONE, index.findSwept(1, 3, 1, 4), "Swap from the tick before");
+        assertEquals(OccupancyIndex.NONE, index.findCollision(PACMAN));
+    }
+
+    @Test
+    public void sameWayAndOneSidedStepsAreNotSwept() {
+        OccupancyIndex index = new OccupancyIndex(3, 8);
+        index.add(GHOST, 1, 2);
+        index.add(PACMAN, 1, 3);
+
+        // Both step right, one behind the other
+        index.beginTick();
+        index.move(GHOST, 1, 3);
+        index.move(PACMAN, 1, 4);
+        assertEquals(OccupancyIndex.NONE, index.findSwept(1, 3, 1, 4));
+        assertEquals(OccupancyIndex.NONE, index.findCollision(PACMAN));
+
+        // The ghost steps on to Pacman's cell while he stands: same cell, not a swap
+        index.beginTick();
+        index.move(GHOST, 1, 4);
+        assertEquals(OccupancyIndex.NONE, index.findSweptCells(12, 12), "Standing mover");
+        assertEquals(GHOST, index.firstAt(1, 4));
+        assertEquals(GHOST, index.findCollision(PACMAN));
+
+        // Off the map
+        assertEquals(OccupancyIndex.NONE, index.findSwept(-1, 0, 0, 0));
+    }
+
+    @Test
+    public void ghostNeverPassesThroughPacman() {
+        for (int pacmanSpeed = 1; pacmanSpeed <= 5; pacmanSpeed++) {
+            for (int ghostSpeed = 1; ghostSpeed <= 5; ghostSpeed++) {
+                for (int gap = 2; gap <= 9; gap++) {
+                    runHeadOn(pacmanSpeed, ghostSpeed, gap);
+                }
+            }
+        }
+    }
+
+    /**
+     * Run Pacman right and a chasing ghost left down a one-cell corridor until they meet
+     */
+    private static void runHeadOn(int pacmanSpeed, int ghostSpeed, int gap) {
+        char[][] charMap = new char[3][31];
+        for (char[] row : charMap) {
+            Arrays.fill(row, '#');
+        }
+        Arrays.fill(charMap[1], 1, 30, ' ');
+        GameEngine engine = new GameEngine(new MapLoader().createGameMap(charMap), 140L);
+        engine.setPacmanSpeedLevel(pacmanSpeed);
+        engine.setGhostSpeedLevel(ghostSpeed);
+        PacmanModel pacman = engine.getPacman();
+        GhostStore ghosts = engine.getGhosts();
+        ghosts.setPosition(0, 1, pacman.getColumn() + gap);
+        engine.setPacmanDirection(Direction.RIGHT);
+
+        String run = "Pacman speed " + pacmanSpeed + ", ghost speed " + ghostSpeed + ", gap " + gap;
+        for (int tick = 0; tick < MAX_TICKS; tick++) {
+            engine.step();
+            if (engine.getLives() < GameEngine.STARTING_LIVES) {
+                return;
+            }
+            assertTrue(ghosts.getColumn(0) > pacman.getColumn(),
+                    run + ": ghost passed through Pacman on tick " + tick);
+        }
+        throw new AssertionError(run + ": never met");
+    }
+}
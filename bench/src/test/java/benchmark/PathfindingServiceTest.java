@@ -0,0 +1,125 @@
+package benchmark;
+
+import map.MapLoader;
+import model.GameMap;
+import model.GameMapWithWalls;
+import org.junit.jupiter.api.Test;
+import service.PathfindingService;
+
+import java.lang.reflect.Field;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that A* and BFS both answer with the first step of a shortest path, measured by a
+ * plain BFS from the target, on random mazes whose walls change between queries; that the
+ * expansion limit bounds the work; and that queries stay exact across the stamp wrap.
+ */
+public class PathfindingServiceTest {
+
+    private static final int QUERIES = 30;
+    private static final int TOGGLES = 20;
+
+    @Test
+    public void aStarTakesAShortestPath() {
+        checkShortestPaths(PathfindingService.Algorithm.A_STAR, 210L);
+    }
+
+    @Test
+    public void bfsTakesAShortestPath() {
+        checkShortestPaths(PathfindingService.Algorithm.BFS, 211L);
+    }
+
+    @Test
+    public void expansionLimitBoundsEveryQuery() {
+        SplittableRandom random = new SplittableRandom(212L);
+        GameMapWithWalls gameMap = new MapLoader().createGameMap(BenchmarkMaps.maze(61, 61, 212L));
+        for (PathfindingService.Algorithm algorithm : PathfindingService.Algorithm.values()) {
+            PathfindingService pathfinder = new PathfindingService(gameMap);
+            pathfinder.setAlgorithm(algorithm);
+            pathfinder.setExpansionLimit(16);
+            for (int i = 0; i < QUERIES; i++) {
+                int cell = ReferenceBfs.randomWalkableCell(gameMap, random);
+                int target = ReferenceBfs.randomWalkableCell(gameMap, random);
+                int exits = gameMap.getExitMask(cell);
+                long before = pathfinder.getExpansionCount();
+                int direction = pathfinder.nextDirection(cell, exits,
+                        gameMap.getCellRow(target), gameMap.getCellColumn(target));
+                assertTrue(pathfinder.getExpansionCount() - before <= 16, "Expansions of one query");
+                if (exits != 0) {
+                    assertTrue((exits & 1 << direction) != 0, "Direction " + direction + " not allowed");
+                }
+            }
+        }
+        assertThrows(IllegalArgumentException.class, () -> new PathfindingService(gameMap).setExpansionLimit(0));
+    }
+
+    @Test
+    public void noAllowedExitGivesNone() {
+        GameMapWithWalls gameMap = new MapLoader().createGameMap(BenchmarkMaps.maze(21, 21, 213L));
+        PathfindingService pathfinder = new PathfindingService(gameMap);
+        assertEquals(GameMap.NONE, pathfinder.nextDirection(gameMap.getCellIndex(1, 1), 0, 19, 19));
+    }
+
+    @Test
+    public void queriesStayExactAcrossStampWrap() throws ReflectiveOperationException {
+        SplittableRandom random = new SplittableRandom(214L);
+        GameMapWithWalls gameMap = new MapLoader().createGameMap(BenchmarkMaps.maze(41, 41, 214L));
+        PathfindingService pathfinder = new PathfindingService(gameMap);
+        for (int i = 0; i < QUERIES; i++) {
+            assertShortestStep(gameMap, pathfinder, random);
+        }
+
+        // Jump to just below the wrap; cells marked by the queries above must not read as seen
+        Field stamp = PathfindingService.class.getDeclaredField("stamp");
+        stamp.setAccessible(true);
+        stamp.setLong(pathfinder, (1L << 31) - QUERIES / 2);
+        for (int i = 0; i < QUERIES; i++) {
+            assertShortestStep(gameMap, pathfinder, random);
+        }
+        assertTrue(stamp.getLong(pathfinder) < QUERIES, "Stamp wrapped");
+    }
+
+    private static void checkShortestPaths(PathfindingService.Algorithm algorithm, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        GameMapWithWalls gameMap = new MapLoader().createGameMap(BenchmarkMaps.maze(41, 51, seed));
+        PathfindingService pathfinder = new PathfindingService(gameMap);
+        pathfinder.setAlgorithm(algorithm);
+        for (int round = 0; round < TOGGLES; round++) {
+            for (int i = 0; i < QUERIES; i++) {
+                assertShortestStep(gameMap, pathfinder, random);
+            }
+            ReferenceBfs.toggleRandomCell(gameMap, random);
+            pathfinder.setGameMap(gameMap);
+        }
+    }
+
+    /**
+     * Ask for the way between two random cells with every exit allowed; a reachable target
+     * must be one step closer after the answer
+     */
+    private static void assertShortestStep(GameMapWithWalls gameMap, PathfindingService pathfinder,
+                                           SplittableRandom random) {
+        int cell = ReferenceBfs.randomWalkableCell(gameMap, random);
+        int target = ReferenceBfs.randomWalkableCell(gameMap, random);
+        int exits = gameMap.getExitMask(cell);
+        int direction = pathfinder.nextDirection(cell, exits,
+                gameMap.getCellRow(target), gameMap.getCellColumn(target));
+        if (exits == 0) {
+            assertEquals(GameMap.NONE, direction);
+            return;
+        }
+        assertNotEquals(GameMap.NONE, direction);
+        assertTrue((exits & 1 << direction) != 0, "Direction " + direction + " not allowed");
+
+        int[] distances = ReferenceBfs.distances(gameMap, target);
+        if (distances[cell] != ReferenceBfs.UNREACHABLE && cell != target) {
+            assertEquals(distances[cell] - 1, distances[cell + gameMap.getCellDelta(direction)],
+                    "Step from " + cell + " towards " + target);
+        }
+    }
+}
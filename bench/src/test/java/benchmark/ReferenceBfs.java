@@ -0,0 +1,93 @@
+package benchmark;
+
+import model.GameMapWithWalls;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Plain cell-by-cell breadth-first search, the reference the optimised searches are
+ * checked against
+ */
+final class ReferenceBfs {
+
+    static final int UNREACHABLE = Integer.MAX_VALUE;
+
+    private ReferenceBfs() {
+    }
+
+    /**
+     * Walking distance from every cell to a target over the map's exit masks
+     * @return Distance per cell index, UNREACHABLE for walls and cut-off cells
+     */
+    static int[] distances(GameMapWithWalls gameMap, int target) {
+        int[] distances = new int[gameMap.getCellCount()];
+        Arrays.fill(distances, UNREACHABLE);
+        int[] queue = new int[distances.length];
+        int head = 0;
+        int tail = 0;
+        distances[target] = 0;
+        queue[tail++] = target;
+        while (head < tail) {
+            int cell = queue[head++];
+            for (int direction = 0; direction < 4; direction++) {
+                if ((gameMap.getExitMask(cell) & 1 << direction) == 0) {
+                    continue;
+                }
+                int neighbour = cell + gameMap.getCellDelta(direction);
+                if (distances[neighbour] == UNREACHABLE) {
+                    distances[neighbour] = distances[cell] + 1;
+                    queue[tail++] = neighbour;
+                }
+            }
+        }
+        return distances;
+    }
+
+    /**
+     * Number the connected components of the walkable cells in the order of their first cell
+     * @return Component per cell index, -1 for walls
+     */
+    static int[] components(GameMapWithWalls gameMap) {
+        int[] labels = new int[gameMap.getCellCount()];
+        Arrays.fill(labels, -1);
+        int components = 0;
+        for (int cell = 0; cell < labels.length; cell++) {
+            if (labels[cell] >= 0 || !gameMap.isWalkableCell(cell)) {
+                continue;
+            }
+            int[] distances = distances(gameMap, cell);
+            for (int other = 0; other < labels.length; other++) {
+                if (distances[other] != UNREACHABLE) {
+                    labels[other] = components;
+                }
+            }
+            components++;
+        }
+        return labels;
+    }
+
+    /**
+     * Pick a random walkable cell
+     * @return Cell index
+     */
+    static int randomWalkableCell(GameMapWithWalls gameMap, SplittableRandom random) {
+        while (true) {
+            int cell = random.nextInt(gameMap.getCellCount());
+            if (gameMap.isWalkableCell(cell)) {
+                return cell;
+            }
+        }
+    }
+
+    /**
+     * Flip a random cell inside the border between wall and floor
+     * @return Cell index of the flipped cell
+     */
+    static int toggleRandomCell(GameMapWithWalls gameMap, SplittableRandom random) {
+        int row = 1 + random.nextInt(gameMap.getRows() - 2);
+        int column = 1 + random.nextInt(gameMap.getColumns() - 2);
+        gameMap.setWalkable(row, column, !gameMap.isWalkable(row, column));
+        return gameMap.getCellIndex(row, column);
+    }
+}
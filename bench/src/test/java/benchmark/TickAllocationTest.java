@@ -0,0 +1,98 @@
+package benchmark;
+
+import controller.GameEngine;
+import map.MapLoader;
+import model.Direction;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Allocation regression gate for the headless simulation tick.
+ * After a warm-up, 100k ticks on map1 must not allocate a single byte on the
+ * ticking thread; garbage from the tick shows up as GC stutter in the game.
+ * Engines are replaced when a game ends, outside the measured sections.
+ * The JVM allocates on the ticking thread when it asks C2 to compile a method, e.g. to
+ * resolve string constants of the inlined classes. The pom runs tests with synchronous
+ * compilation, so these compiles happen at the same tick on every run, and the warm-up
+ * is long enough to cover all of them.
+ */
+public class TickAllocationTest {
+
+    private static final int WARMUP_TICKS = 200_000;
+    private static final int MEASURED_TICKS = 100_000;
+    private static final int TICKS_PER_SECTION = 1_000;
+    private static final long SEED = 42L;
+
+    // Pacman turns every 64 ticks, cycling through these
+    private static final Direction[] TURNS = {
+            Direction.UP, Direction.RIGHT, Direction.DOWN, Direction.LEFT
+    };
+
+    private final MapLoader loader = new MapLoader();
+    private final char[][] charMap = BenchmarkMaps.load(BenchmarkMaps.MAP1);
+    private com.sun.management.ThreadMXBean threads;
+    private GameEngine engine;
+    private int ticks;
+
+    @Test
+    public void steadyStateTickDoesNotAllocate() {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean,
+                "Per-thread allocation counters not available");
+        threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported(), "Per-thread allocation counters not supported");
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        runTicks(WARMUP_TICKS);
+        long allocated = runTicks(MEASURED_TICKS);
+
+        assertEquals(0L, allocated, "Bytes allocated over " + MEASURED_TICKS + " ticks");
+    }
+
+    /**
+     * Run ticks in sections, starting a new game whenever one ends
+     * @param count Number of ticks to run
+     * @return Bytes allocated on this thread inside the sections
+     */
+    private long runTicks(int count) {
+        long allocated = 0;
+        int end = ticks + count;
+        while (ticks < end) {
+            if (engine == null || engine.isGameOver()) {
+                newGame();
+            }
+            int sectionEnd = Math.min(end, ticks + TICKS_PER_SECTION);
+            allocated += runSection(sectionEnd);
+        }
+        return allocated;
+    }
+
+    /**
+     * Run ticks up to the end of a section or game, whichever comes first.
+     * A method of its own, so the warm-up leaves it compiled and the measured run never
+     * waits on the JIT for its own loop.
+     * @param sectionEnd Tick to stop at
+     * @return Bytes allocated on this thread
+     */
+    private long runSection(int sectionEnd) {
+        long before = threads.getCurrentThreadAllocatedBytes();
+        while (ticks < sectionEnd && !engine.isGameOver()) {
+            if ((ticks & 63) == 0) {
+                engine.setPacmanDirection(TURNS[(ticks >> 6) & 3]);
+            }
+            engine.tick();
+            ticks++;
+        }
+        return threads.getCurrentThreadAllocatedBytes() - before;
+    }
+
+    private void newGame() {
+        engine = new GameEngine(loader.createGameMap(charMap), SEED + ticks);
+        loader.addPointsFromMap(engine, charMap);
+        engine.setGhostSpeedLevel(3);
+        engine.setPacmanSpeedLevel(3);
+    }
+}
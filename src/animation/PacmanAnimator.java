@@ -1,52 +1,32 @@
 package animation;
 
 import model.PacmanModel;
-import view.CharacterRenderer;
 
-// Animation class responsible for Pacman animation using Thread
-public class PacmanAnimator implements Runnable {
+// Animation class responsible for Pacman animation, advanced by the game engine tick loop
+public class PacmanAnimator {
     private PacmanModel pacman;
-    private CharacterRenderer renderer;
-    private Thread animationThread;
-    private volatile boolean running;
+    private int elapsedTime;
     private static final int ANIMATION_DELAY_MS = 200;
 
-    public PacmanAnimator(PacmanModel pacman, CharacterRenderer renderer) {
+    public PacmanAnimator(PacmanModel pacman) {
         this.pacman = pacman;
-        this.renderer = renderer;
-        this.running = false;
+        this.elapsedTime = 0;
     }
 
-    public void start() {
-        if (!running) {
-            running = true;
-            animationThread = new Thread(this);
-            animationThread.start();
+    /**
+     * Advance the animation clock by one engine tick
+     * @param elapsedMs Time covered by the tick in milliseconds
+     * @return true if the animation frame changed
+     */
+    public boolean update(int elapsedMs) {
+        elapsedTime += elapsedMs;
+        if (elapsedTime < ANIMATION_DELAY_MS) {
+            return false;
         }
-    }
-
-    public void stop() {
-        running = false;
-        if (animationThread != null) {
-            animationThread.interrupt();
-        }
-    }
-
-    @Override
-    public void run() {
-        while (running) {
-            try {
-                // Update the animation frame
-                pacman.nextFrame();
-                // Use the updated method name
-                renderer.updateImage();
+        elapsedTime -= ANIMATION_DELAY_MS;
 
-                // Sleep for the animation delay
-                Thread.sleep(ANIMATION_DELAY_MS);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                break;
-            }
-        }
+        // Update the animation frame
+        pacman.nextFrame();
+        return true;
     }
-}
\ No newline at end of file
+}
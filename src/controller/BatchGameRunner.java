@@ -0,0 +1,224 @@
+package controller;
+
+import map.MapLoader;
+import model.Direction;
+import model.LevelTopology;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Supplier;
+
+/**
+ * Plays many independent headless games in parallel on a work-stealing pool.
+ * Games share nothing mutable: each one gets its own engine and, unless
+ * {@link #setShareMap(boolean)} is enabled, its own map instance. Shared games
+ * read one LevelTopology and keep their eaten dots in a small per-game overlay.
+ * Every game is seeded from the batch seed by its index, so a batch is
+ * reproducible regardless of how the pool schedules it.
+ */
+public class BatchGameRunner {
+
+    private static final int DEFAULT_MAX_TICKS = 20_000;
+
+    private final char[][] charMap;
+    private final MapLoader mapLoader;
+    private boolean shareMap = true;
+    private int ghostSpeedLevel = 3;
+    private int pacmanSpeedLevel = 3;
+    private int maxTicks = DEFAULT_MAX_TICKS;
+    private Supplier<PacmanPolicy> policyFactory = RandomWalkPolicy::new;
+    private long seed = System.nanoTime();
+
+    /**
+     * Create a batch runner for a map
+     * @param charMap The character map every game is played on
+     */
+    public BatchGameRunner(char[][] charMap) {
+        if (charMap == null || charMap.length == 0 || charMap[0].length == 0) {
+            throw new IllegalArgumentException("Invalid map data: Map cannot be empty");
+        }
+        this.charMap = charMap;
+        this.mapLoader = new MapLoader();
+    }
+
+    /**
+     * Share one read-only level between all games instead of building a map and points per game
+     * @param shareMap true to share a single level topology
+     */
+    public void setShareMap(boolean shareMap) {
+        this.shareMap = shareMap;
+    }
+
+    /**
+     * Set the ghost speed level used by every game
+     * @param level Speed level (1-5)
+     */
+    public void setGhostSpeedLevel(int level) {
+        this.ghostSpeedLevel = level;
+    }
+
+    /**
+     * Set the Pacman speed level used by every game
+     * @param level Speed level (1-5)
+     */
+    public void setPacmanSpeedLevel(int level) {
+        this.pacmanSpeedLevel = level;
+    }
+
+    /**
+     * Set the tick limit after which a game is stopped
+     * @param maxTicks Maximum ticks per game
+     */
+    public void setMaxTicks(int maxTicks) {
+        if (maxTicks > 0) {
+            this.maxTicks = maxTicks;
+        }
+    }
+
+    /**
+     * Set the batch seed from which every game's seed is derived
+     * @param seed The batch seed
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Set the factory creating one Pacman policy per game
+     * @param policyFactory Policy factory
+     */
+    public void setPolicyFactory(Supplier<PacmanPolicy> policyFactory) {
+        this.policyFactory = policyFactory;
+    }
+
+    /**
+     * Run a batch on the common fork/join pool
+     * @param games Number of games to play
+     * @return The result table
+     */
+    public BatchResult run(int games) {
+        return run(games, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Run a batch on the given pool
+     * @param games Number of games to play
+     * @param pool The pool to run the games on
+     * @return The result table
+     */
+    public BatchResult run(int games, ForkJoinPool pool) {
+        BatchResult result = new BatchResult(games);
+        LevelTopology sharedLevel = shareMap ? mapLoader.createTopology(charMap) : null;
+
+        // Derive the game seeds up front so they only depend on the game index
+        SplittableRandom batchRandom = new SplittableRandom(seed);
+        long[] seeds = new long[games];
+        for (int i = 0; i < games; i++) {
+            seeds[i] = batchRandom.nextLong();
+        }
+
+        pool.invoke(new GameRangeTask(result, sharedLevel, seeds, 0, games));
+        return result;
+    }
+
+    /**
+     * Play a single game to the end or until the tick limit
+     * @param result The result table to record into
+     * @param game Index of the game
+     * @param sharedLevel The shared level, or null to build a private map and points
+     * @param gameSeed Seed for the game's engine
+     */
+    private void playGame(BatchResult result, int game, LevelTopology sharedLevel, long gameSeed) {
+        long start = System.nanoTime();
+
+        GameEngine engine;
+        if (sharedLevel != null) {
+            engine = new GameEngine(sharedLevel, gameSeed);
+        } else {
+            engine = new GameEngine(mapLoader.createGameMap(charMap), gameSeed);
+            mapLoader.addPointsFromMap(engine, charMap);
+        }
+        engine.setGhostSpeedLevel(ghostSpeedLevel);
+        engine.setPacmanSpeedLevel(pacmanSpeedLevel);
+
+        PacmanPolicy policy = policyFactory.get();
+        int ticks = 0;
+        while (ticks < maxTicks && !engine.isGameOver()) {
+            Direction direction = policy.chooseDirection(engine);
+            if (direction != Direction.NONE) {
+                engine.setPacmanDirection(direction);
+            }
+            engine.step();
+            ticks++;
+        }
+
+        result.record(game, engine.getScore(), GameEngine.STARTING_LIVES - engine.getLives(),
+                ticks, System.nanoTime() - start);
+    }
+
+    /**
+     * Splits a range of games in half until a single game is left
+     */
+    private class GameRangeTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final BatchResult result;
+        private final LevelTopology sharedLevel;
+        private final long[] seeds;
+        private final int from;
+        private final int to;
+
+        GameRangeTask(BatchResult result, LevelTopology sharedLevel, long[] seeds, int from, int to) {
+            this.result = result;
+            this.sharedLevel = sharedLevel;
+            this.seeds = seeds;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= 1) {
+                if (to > from) {
+                    playGame(result, from, sharedLevel, seeds[from]);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new GameRangeTask(result, sharedLevel, seeds, from, middle),
+                    new GameRangeTask(result, sharedLevel, seeds, middle, to));
+        }
+    }
+
+    /**
+     * Run a batch from the command line
+     * Usage: BatchGameRunner [games] [ghostSpeedLevel] [pacmanSpeedLevel] [seed]
+     */
+    public static void main(String[] args) {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        MapLoader loader = new MapLoader();
+        char[][] map = loader.loadMap("res/maps/map1.txt");
+
+        BatchGameRunner runner = new BatchGameRunner(map);
+        if (args.length > 1) {
+            runner.setGhostSpeedLevel(Integer.parseInt(args[1]));
+        }
+        if (args.length > 2) {
+            runner.setPacmanSpeedLevel(Integer.parseInt(args[2]));
+        }
+        if (args.length > 3) {
+            runner.setSeed(Long.parseLong(args[3]));
+        }
+
+        long start = System.nanoTime();
+        BatchResult result = runner.run(games);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.println("Games: " + result.getGameCount());
+        System.out.printf("Mean score: %.1f%n", result.getMeanScore());
+        System.out.printf("Mean ticks survived: %.1f%n", result.getMeanTicks());
+        System.out.printf("Throughput: %.0f ticks/s on %d threads%n",
+                result.getTotalTicks() / seconds, ForkJoinPool.commonPool().getParallelism());
+    }
+}
@@ -0,0 +1,109 @@
+package controller;
+
+/**
+ * Compact result table for a batch of headless games.
+ * Stores one row per game in parallel primitive arrays; each game writes only its own row.
+ */
+public class BatchResult {
+
+    private final int[] scores;
+    private final int[] livesLost;
+    private final long[] ticks;
+    private final long[] nanos;
+
+    /**
+     * Create an empty result table
+     * @param games Number of games in the batch
+     */
+    public BatchResult(int games) {
+        this.scores = new int[games];
+        this.livesLost = new int[games];
+        this.ticks = new long[games];
+        this.nanos = new long[games];
+    }
+
+    /**
+     * Record the result of one game
+     * @param game Game index
+     * @param score Final score
+     * @param lost Lives lost during the game
+     * @param ticksSurvived Number of ticks simulated
+     * @param wallNanos Wall-clock time spent on the game in nanoseconds
+     */
+    void record(int game, int score, int lost, long ticksSurvived, long wallNanos) {
+        scores[game] = score;
+        livesLost[game] = lost;
+        ticks[game] = ticksSurvived;
+        nanos[game] = wallNanos;
+    }
+
+    public int getGameCount() {
+        return scores.length;
+    }
+
+    public int getScore(int game) {
+        return scores[game];
+    }
+
+    public int getLivesLost(int game) {
+        return livesLost[game];
+    }
+
+    public long getTicks(int game) {
+        return ticks[game];
+    }
+
+    public long getNanos(int game) {
+        return nanos[game];
+    }
+
+    /**
+     * Get the average score over all games
+     * @return Mean score
+     */
+    public double getMeanScore() {
+        long total = 0;
+        for (int score : scores) {
+            total += score;
+        }
+        return scores.length == 0 ? 0 : (double) total / scores.length;
+    }
+
+    /**
+     * Get the average number of ticks survived over all games
+     * @return Mean ticks
+     */
+    public double getMeanTicks() {
+        long total = 0;
+        for (long tick : ticks) {
+            total += tick;
+        }
+        return ticks.length == 0 ? 0 : (double) total / ticks.length;
+    }
+
+    /**
+     * Get the total number of ticks simulated by the batch
+     * @return Sum of ticks over all games
+     */
+    public long getTotalTicks() {
+        long total = 0;
+        for (long tick : ticks) {
+            total += tick;
+        }
+        return total;
+    }
+
+    /**
+     * Format the table as text, one line per game
+     * @return The formatted table
+     */
+    public String toTable() {
+        StringBuilder table = new StringBuilder();
+        table.append(String.format("%6s %8s %6s %10s %10s%n", "game", "score", "lost", "ticks", "ms"));
+        for (int i = 0; i < scores.length; i++) {
+            table.append(String.format("%6d %8d %6d %10d %10.2f%n",
+                    i, scores[i], livesLost[i], ticks[i], nanos[i] / 1_000_000.0));
+        }
+        return table.toString();
+    }
+}
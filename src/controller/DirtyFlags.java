@@ -0,0 +1,26 @@
+package controller;
+
+/**
+ * Bit flags the game engine sets to tell the view what changed since the last refresh
+ */
+public final class DirtyFlags {
+    public static final int SCORE = 1;       // Score changed
+    public static final int LIVES = 1 << 1;  // Lives changed
+    public static final int ENTITIES = 1 << 2; // Pacman or ghost positions changed
+    public static final int ANIMATION = 1 << 3; // Animation frames changed
+    public static final int DOTS = 1 << 4;   // Dots were eaten
+
+    private DirtyFlags() {
+        // Constants only
+    }
+
+    /**
+     * Check if a flag is set
+     * @param flags The flag set
+     * @param flag The flag to test
+     * @return true if the flag is set
+     */
+    public static boolean isSet(int flags, int flag) {
+        return (flags & flag) != 0;
+    }
+}
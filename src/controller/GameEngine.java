@@ -5,94 +5,302 @@ import model.Point;
 import service.GhostManager;
 import service.MovementManager;
 import service.MovementService;
-import view.CharacterRenderer;
-import view.GameLayeredPane;
-import view.GhostRenderer;
-import view.PointRenderer;
 import animation.PacmanAnimator;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Game engine to orchestrate game logic
+ * Runs a single fixed-timestep loop that advances Pacman, the ghosts,
+ * animation and collisions in a fixed order every tick.
+ * The engine never touches Swing: with no listener attached it can be
+ * driven headless through {@link #step()} at full speed.
  */
-public class GameEngine {
+public class GameEngine implements Runnable {
+    // Fixed simulation step in milliseconds
+    public static final int TICK_MS = 16;
+    private static final long TICK_NANOS = TICK_MS * 1_000_000L;
+    // Maximum number of ticks replayed at once after the loop fell behind
+    private static final int MAX_CATCH_UP_TICKS = 5;
+    // Speed of newly added ghosts in cells per second
+    private static final double DEFAULT_GHOST_SPEED = 2.0;
+    // Lives Pacman starts the game with
+    public static final int STARTING_LIVES = 3;
+
     private GameMapWithWalls gameMap;
+    // Eaten edibles and destroyed walls of this game, over a private or shared level
+    private final GameOverlay overlay;
     private PacmanModel pacman;
-    private Blinky ghost;
-    private CharacterRenderer pacmanRenderer;
-    private GhostRenderer ghostRenderer;
+    private GhostStore ghosts;
+    // Which ghost is on which cell, kept in sync by the ghost store and ghost manager
+    private OccupancyIndex ghostCells;
     private PacmanAnimator pacmanAnimator;
     private MovementManager movementManager;
     private GhostManager ghostManager;
+    // Point objects for the view; built on first use for games on a shared level
     private List<Point> points;
-    private List<PointRenderer> pointRenderers;
+    // Point index per cell, so collection is one lookup at Pacman's cell; also holds the eaten bits
+    private final DotGrid dotGrid;
     private int score = 0;
-    private int lives = 3;
-    private boolean renderersInitialized = false;
+    private int lives = STARTING_LIVES;
+    private GameStateListener listener;
+    // What changed since the view last refreshed, see DirtyFlags
+    private final AtomicInteger dirtyFlags = new AtomicInteger();
+    // Latest published state for renderers, see GameSnapshot
+    private volatile GameSnapshot snapshot;
+    private boolean publishSnapshots = false;
+    private volatile boolean running;
+    private Thread loopThread;
+    private long tickCount = 0;
+    private final long seed;
+    private final SplittableRandom random;
 
     /**
-     * Create a new game engine
+     * Create a new game engine with a random seed
      * @param gameMap The game map
      */
     public GameEngine(GameMapWithWalls gameMap) {
-        this.gameMap = gameMap;
+        this(gameMap, System.nanoTime());
+    }
+
+    /**
+     * Create a new game engine whose randomness is fully determined by a seed
+     * @param gameMap The game map
+     * @param seed Seed for the engine's random stream
+     */
+    public GameEngine(GameMapWithWalls gameMap, long seed) {
+        this(new GameOverlay(gameMap, new DotGrid(gameMap.getRows(), gameMap.getColumns())),
+                new ArrayList<>(), seed);
+    }
+
+    /**
+     * Create a new game engine on a shared level.
+     * The level's map and edibles are only read; what this game eats or destroys is
+     * kept in its own overlay, so any number of engines can share one topology.
+     * @param topology The level
+     * @param seed Seed for the engine's random stream
+     */
+    public GameEngine(LevelTopology topology, long seed) {
+        this(new GameOverlay(topology), null, seed);
+    }
+
+    private GameEngine(GameOverlay overlay, List<Point> points, long seed) {
+        this.overlay = overlay;
+        this.gameMap = overlay.getMap();
+        this.dotGrid = overlay.getDots();
+        this.points = points;
+        this.seed = seed;
+        this.random = new SplittableRandom(seed);
 
         // Create Pacman in the center of the map
-        int centerRow = gameMap.getRows() / 2;
-        int centerColumn = gameMap.getColumns() / 2;
-        this.pacman = new PacmanModel(centerRow, centerColumn);
+        this.pacman = new PacmanModel(getPacmanStartRow(gameMap), getPacmanStartColumn(gameMap));
+
+        // Create the first ghost at the top-right corner
+        this.ghosts = new GhostStore();
+        this.ghostCells = new OccupancyIndex(gameMap.getRows(), gameMap.getColumns());
+        ghosts.attachOccupancy(ghostCells);
+        ghosts.add(getGhostHomeRow(gameMap), getGhostHomeColumn(gameMap), DEFAULT_GHOST_SPEED);
+
+        // Create the tick-driven movement and animation systems
+        this.movementManager = new MovementManager(pacman, gameMap);
+        this.ghostManager = new GhostManager(ghosts, gameMap, pacman, random.split());
+        if (overlay.getTopology() != null) {
+            ghostManager.setSharedDistanceFields(overlay.getTopology().getSharedFields());
+        }
+        this.pacmanAnimator = new PacmanAnimator(pacman);
+    }
+
+    /**
+     * Initialize movement systems and start the game loop
+     * @param listener Listener notified when the game state changes
+     */
+    public void initializeMovement(GameStateListener listener) {
+        this.listener = listener;
+        start();
+    }
 
-        // Create ghost at the top-right corner
-        this.ghost = new Blinky(1, gameMap.getColumns() - 2);
+    /**
+     * Start the game loop thread
+     */
+    public void start() {
+        if (!running) {
+            running = true;
+            loopThread = new Thread(this, "game-loop");
+            loopThread.start();
+        }
+    }
+
+    @Override
+    public void run() {
+        long nextTick = System.nanoTime();
+        while (running) {
+            // Run every tick that is due, but never more than the catch-up limit
+            int ticksRun = 0;
+            boolean changed = false;
+            while (System.nanoTime() - nextTick >= 0 && ticksRun < MAX_CATCH_UP_TICKS) {
+                changed |= tick();
+                nextTick += TICK_NANOS;
+                ticksRun++;
+            }
+
+            // Drop the backlog if the loop stalled for too long
+            if (ticksRun == MAX_CATCH_UP_TICKS) {
+                nextTick = System.nanoTime() + TICK_NANOS;
+            }
 
-        // Initialize points list
-        this.points = new ArrayList<>();
-        this.pointRenderers = new ArrayList<>();
+            // Refresh the UI at most once per loop pass
+            if (changed && listener != null) {
+                listener.onGameStateChanged();
+            }
+
+            try {
+                long sleepNanos = nextTick - System.nanoTime();
+                if (sleepNanos > 0) {
+                    Thread.sleep(sleepNanos / 1_000_000L, (int) (sleepNanos % 1_000_000L));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
     }
 
     /**
-     * Initialize renderers for game characters
-     * @param cellSize Cell size in pixels
+     * Advance the simulation by one fixed step.
+     * Order: Pacman movement, ghost movement, animation, point collection, ghost collisions.
+     * @return true if anything visible changed during the tick
      */
-    public void initializeRenderers(int cellSize) {
-        // Create renderers
-        pacmanRenderer = new CharacterRenderer(pacman, cellSize);
-        ghostRenderer = new GhostRenderer(ghost, cellSize);
+    public boolean tick() {
+        if (isGameOver()) {
+            return false;
+        }
+        tickCount++;
+        int flags = 0;
+        ghostCells.beginTick();
+        int pacmanFromCell = pacman.getCell(gameMap.getColumns());
+        int pacmanMotion = movementManager.update(TICK_MS);
+        int ghostMotion = ghostManager.update(TICK_MS);
+        if ((pacmanMotion | ghostMotion) != SubCellMotion.NOT_MOVED) {
+            flags |= DirtyFlags.ENTITIES;
+        }
+        if (pacmanAnimator.update(TICK_MS)) {
+            flags |= DirtyFlags.ANIMATION;
+        }
 
-        // Create and start animators
-        pacmanAnimator = new PacmanAnimator(pacman, pacmanRenderer);
-        pacmanAnimator.start();
+        // Cell-entry events drive point collection and collisions
+        if (((pacmanMotion | ghostMotion) & SubCellMotion.ENTERED_CELL) != 0) {
+            int scoreBefore = score;
+            int livesBefore = lives;
+            if ((pacmanMotion & SubCellMotion.ENTERED_CELL) != 0) {
+                checkPointCollection();
+            }
+            checkGhostCollision(pacmanFromCell);
+            if (score != scoreBefore) {
+                flags |= DirtyFlags.SCORE | DirtyFlags.DOTS;
+            }
+            if (lives != livesBefore) {
+                flags |= DirtyFlags.LIVES | DirtyFlags.ENTITIES;
+            }
+        }
 
-        // Mark as initialized
-        renderersInitialized = true;
+        if (flags != 0) {
+            // Publish before flagging, so a view that sees the flags also sees the new state
+            if (publishSnapshots) {
+                publishSnapshot(flags);
+            }
+            markDirty(flags);
+        }
+        return flags != 0;
     }
 
     /**
-     * Initialize point renderers
-     * @param cellSize Cell size in pixels
+     * Enable or disable publishing a snapshot after every changed tick.
+     * Enabling publishes the current state right away.
+     * Call before the loop starts or from the thread driving the engine.
+     * @param enabled true to publish snapshots
      */
-    public void initializePointRenderers(int cellSize) {
-        pointRenderers.clear();
-        for (Point point : points) {
-            PointRenderer renderer = new PointRenderer(point, cellSize);
-            pointRenderers.add(renderer);
+    public void setPublishSnapshots(boolean enabled) {
+        this.publishSnapshots = enabled;
+        if (enabled) {
+            publishSnapshot(DirtyFlags.DOTS);
         }
     }
 
     /**
-     * Initialize movement systems
-     * @param gamePane Game layered pane
+     * Get the latest published snapshot; safe to call from any thread
+     * @return The snapshot, or null if snapshots are not being published
      */
-    public void initializeMovement(GameLayeredPane gamePane) {
-        // Initialize Pacman movement
-        movementManager = new MovementManager(pacman, gameMap, gamePane);
-        movementManager.start();
+    public GameSnapshot getSnapshot() {
+        return snapshot;
+    }
 
-        // Initialize ghost movement
-        ghostManager = new GhostManager(ghost, gameMap, pacman, gamePane);
-        ghostManager.start();
+    /**
+     * Build an immutable snapshot of the current state and publish it
+     * @param flags What changed this tick; the dot bitmap is only copied when dots changed
+     */
+    private void publishSnapshot(int flags) {
+        GameSnapshot previous = snapshot;
+        long[] dots = previous == null || DirtyFlags.isSet(flags, DirtyFlags.DOTS)
+                ? dotGrid.copyEatenBits()
+                : previous.getEatenDotsBitmap();
+
+        snapshot = new GameSnapshot(tickCount, score, lives,
+                pacman.getRow(), pacman.getColumn(), pacman.getCurrentDirection(),
+                pacman.getCurrentFrameIndex(),
+                movementManager.getMoveDirection(), movementManager.getProgress(),
+                Arrays.copyOf(ghosts.rows(), ghosts.size()),
+                Arrays.copyOf(ghosts.columns(), ghosts.size()),
+                Arrays.copyOf(ghosts.directions(), ghosts.size()),
+                Arrays.copyOf(ghosts.progress(), ghosts.size()),
+                Arrays.copyOf(ghosts.states(), ghosts.size()),
+                dots);
+    }
+
+    /**
+     * Record changes for the view to pick up on its next refresh
+     * @param flags Changed parts, see DirtyFlags
+     */
+    private void markDirty(int flags) {
+        int current;
+        do {
+            current = dirtyFlags.get();
+        } while ((current & flags) != flags && !dirtyFlags.compareAndSet(current, current | flags));
+    }
+
+    /**
+     * Take and clear everything that changed since the last call.
+     * Called by the view once per refresh.
+     * @return The changed parts, see DirtyFlags
+     */
+    public int consumeDirtyFlags() {
+        return dirtyFlags.getAndSet(0);
+    }
+
+    /**
+     * Advance the simulation by one tick without sleeping.
+     * Used to drive the engine headless, e.g. from evaluation or regression jobs.
+     * @return true if anything changed during the tick
+     */
+    public boolean step() {
+        return tick();
+    }
+
+    /**
+     * Advance the simulation by a number of ticks without sleeping
+     * @param ticks Number of ticks to simulate
+     * @return Number of ticks actually simulated (stops early on game over)
+     */
+    public int step(int ticks) {
+        int simulated = 0;
+        while (simulated < ticks && !isGameOver()) {
+            tick();
+            simulated++;
+        }
+        return simulated;
     }
 
     /**
@@ -111,7 +319,8 @@ public class GameEngine {
      */
     public boolean movePacmanImmediate(Direction direction) {
         pacman.setDirection(direction);
-        return MovementService.moveEntity(pacman, direction, gameMap.getWalkableCells());
+        movementManager.reset();
+        return MovementService.moveEntity(pacman, direction, gameMap);
     }
 
     /**
@@ -120,42 +329,62 @@ public class GameEngine {
      * @param column Column position
      */
     public void addPoint(int row, int column) {
-        Point point = new Point(row, column);
-        points.add(point);
+        addPoint(row, column, DotGrid.DOT);
     }
 
     /**
-     * Check if Pacman has collected any points
+     * Add an edible to the game
+     * @param row Row position
+     * @param column Column position
+     * @param kind DotGrid.DOT, DotGrid.PELLET or DotGrid.BOOST
+     */
+    public void addPoint(int row, int column, byte kind) {
+        // The dot grid refuses new points on a shared level, whose layout can't change
+        List<Point> list = getPoints();
+        dotGrid.add(row, column, kind, list.size());
+        list.add(new Point(row, column));
+    }
+
+    /**
+     * Check if Pacman has collected a point on his cell
      */
     public void checkPointCollection() {
-        for (Point point : points) {
-            if (!point.isCollected() &&
-                    point.getRow() == pacman.getRow() &&
-                    point.getColumn() == pacman.getColumn()) {
-                // Collect the point
-                point.collect();
-                // Increase score
-                score += 10;
-                // Update UI
-                updatePointRenderers();
+        int i = dotGrid.eat(pacman.getRow(), pacman.getColumn());
+        if (i >= 0) {
+            // Collect the point; the eaten bit is already set in the dot grid
+            if (points != null) {
+                points.get(i).collect();
             }
+            // Increase score
+            score += 10;
         }
     }
 
     /**
-     * Check if Pacman collides with the ghost
+     * Check if Pacman collides with any ghost
      */
     public void checkGhostCollision() {
-        if (ghost.getRow() == pacman.getRow() && ghost.getColumn() == pacman.getColumn()) {
+        checkGhostCollision(pacman.getCell(gameMap.getColumns()));
+    }
+
+    /**
+     * Check if Pacman collides with any ghost, including a ghost he swapped cells with
+     * @param fromCell Pacman's cell index at the start of the tick
+     */
+    private void checkGhostCollision(int fromCell) {
+        int cell = pacman.getCell(gameMap.getColumns());
+        if (ghostCells.isOccupiedCell(cell)
+                || ghostCells.findSweptCells(fromCell, cell) != OccupancyIndex.NONE) {
             // Lose a life
             lives--;
 
             // Reset positions
             if (lives > 0) {
                 resetPositions();
-            } else {
+            } else if (listener != null) {
                 // Game over
                 // This would be handled by a game over screen or similar
+                // Headless runs stay silent so batch jobs don't contend on System.out
                 System.out.println("Game Over!");
             }
         }
@@ -166,110 +395,124 @@ public class GameEngine {
      */
     private void resetPositions() {
         // Reset Pacman to center
-        int centerRow = gameMap.getRows() / 2;
-        int centerColumn = gameMap.getColumns() / 2;
-        pacman.setPosition(centerRow, centerColumn);
+        pacman.setPosition(getPacmanStartRow(gameMap), getPacmanStartColumn(gameMap));
+        movementManager.reset();
 
-        // Reset ghost to starting position
-        ghost.setPosition(1, gameMap.getColumns() - 2);
+        // Reset ghosts to their starting positions
+        ghosts.resetPositions();
     }
 
     /**
-     * Update point renderers
+     * Stop the game loop thread
      */
-    public void updatePointRenderers() {
-        for (PointRenderer renderer : pointRenderers) {
-            renderer.updateImage();
+    public void stopAll() {
+        running = false;
+        if (loopThread != null) {
+            loopThread.interrupt();
         }
     }
 
     /**
-     * Update all renderers
+     * Get the row Pacman starts on, in the center of the map
+     * @param gameMap The map
+     * @return Start row
      */
-    public void updateRenderers() {
-        if (renderersInitialized) {
-            if (pacmanRenderer != null) {
-                pacmanRenderer.updatePosition();
-            }
-            if (ghostRenderer != null) {
-                ghostRenderer.updatePosition();
-                ghostRenderer.updateImage();
-            }
-        }
+    public static int getPacmanStartRow(GameMap gameMap) {
+        return gameMap.getRows() / 2;
     }
 
     /**
-     * Update renderer size
-     * @param cellSize New cell size in pixels
+     * Get the column Pacman starts on, in the center of the map
+     * @param gameMap The map
+     * @return Start column
      */
-    public void updateRendererSize(int cellSize) {
-        if (renderersInitialized) {
-            if (pacmanRenderer != null) {
-                pacmanRenderer.updateCellSize(cellSize);
-            }
-            if (ghostRenderer != null) {
-                ghostRenderer.updateCellSize(cellSize);
-            }
-            for (PointRenderer renderer : pointRenderers) {
-                renderer.updateCellSize(cellSize);
-            }
-        }
+    public static int getPacmanStartColumn(GameMap gameMap) {
+        return gameMap.getColumns() / 2;
     }
 
     /**
-     * Stop all game threads
+     * Get the row of the first ghost's home, where it starts and heads once eaten,
+     * one cell in from the top-right corner
+     * @param gameMap The map
+     * @return Home row
      */
-    public void stopAll() {
-        if (pacmanAnimator != null) {
-            pacmanAnimator.stop();
-        }
-        if (movementManager != null) {
-            movementManager.stop();
-        }
-        if (ghostManager != null) {
-            ghostManager.stop();
-        }
+    public static int getGhostHomeRow(GameMap gameMap) {
+        return 1;
+    }
+
+    /**
+     * Get the column of the first ghost's home
+     * @param gameMap The map
+     * @return Home column
+     */
+    public static int getGhostHomeColumn(GameMap gameMap) {
+        return gameMap.getColumns() - 2;
+    }
+
+    /**
+     * Add a ghost to the game
+     * @param row Starting row
+     * @param column Starting column
+     * @return Index of the new ghost
+     */
+    public int addGhost(int row, int column) {
+        double speed = ghosts.size() > 0 ? ghosts.getSpeed(0) : DEFAULT_GHOST_SPEED;
+        return ghosts.add(row, column, speed);
     }
 
     /**
-     * Set ghost's movement delay (higher = slower)
+     * Set every ghost's movement delay (higher = slower)
      * @param delay The movement delay in milliseconds
      */
     public void setGhostMoveDelay(int delay) {
-        if (ghost != null) {
-            ghost.setMoveDelay(delay);
+        if (delay >= 50) { // Prevent too fast movement
+            ghosts.setAllSpeeds(1000.0 / delay);
         }
     }
 
     /**
-     * Get ghost's movement delay
+     * Get the first ghost's movement delay
      * @return The movement delay in milliseconds
      */
     public int getGhostMoveDelay() {
-        if (ghost != null) {
-            return ghost.getMoveDelay();
+        if (ghosts.size() > 0) {
+            return (int) Math.round(1000.0 / ghosts.getSpeed(0));
         }
         return 0;
     }
 
+    /**
+     * Set every ghost's speed
+     * @param cellsPerSecond Speed in cells per second
+     */
+    public void setGhostSpeed(double cellsPerSecond) {
+        ghosts.setAllSpeeds(cellsPerSecond);
+    }
+
     /**
      * Set ghost's speed level
      * @param level Speed level (1-5, where 1 is slowest, 5 is fastest)
      */
     public void setGhostSpeedLevel(int level) {
-        if (ghost != null) {
-            // Map level 1-5 to delay values
-            int delay;
-            switch (level) {
-                case 1: delay = 800; break; // Very slow
-                case 2: delay = 600; break; // Slow
-                case 3: delay = 400; break; // Medium
-                case 4: delay = 250; break; // Fast
-                case 5: delay = 150; break; // Very fast
-                default: delay = 400; break; // Default medium speed
-            }
-            ghost.setMoveDelay(delay);
+        // Map level 1-5 to speeds in cells per second
+        double speed;
+        switch (level) {
+            case 1: speed = 1.25; break; // Very slow
+            case 2: speed = 1.67; break; // Slow
+            case 3: speed = 2.5; break;  // Medium
+            case 4: speed = 4.0; break;  // Fast
+            case 5: speed = 6.67; break; // Very fast
+            default: speed = 2.5; break; // Default medium speed
         }
+        ghosts.setAllSpeeds(speed);
+    }
+
+    /**
+     * Choose how ghosts find their way to their targets, e.g. a PathfindingService
+     * @param moveStrategy Strategy owned by this game; it is switched to the game's map
+     */
+    public void setGhostMoveStrategy(GhostMoveStrategy moveStrategy) {
+        ghostManager.setMoveStrategy(moveStrategy);
     }
 
     /**
@@ -277,9 +520,7 @@ public class GameEngine {
      * @param delay The movement delay in milliseconds
      */
     public void setPacmanMoveDelay(int delay) {
-        if (movementManager != null) {
-            movementManager.setMovementDelay(delay);
-        }
+        movementManager.setMovementDelay(delay);
     }
 
     /**
@@ -287,10 +528,15 @@ public class GameEngine {
      * @return The movement delay in milliseconds
      */
     public int getPacmanMoveDelay() {
-        if (movementManager != null) {
-            return movementManager.getMovementDelay();
-        }
-        return 0;
+        return movementManager.getMovementDelay();
+    }
+
+    /**
+     * Set Pacman's speed
+     * @param cellsPerSecond Speed in cells per second
+     */
+    public void setPacmanSpeed(double cellsPerSecond) {
+        movementManager.setSpeed(cellsPerSecond);
     }
 
     /**
@@ -298,19 +544,17 @@ public class GameEngine {
      * @param level Speed level (1-5, where 1 is slowest, 5 is fastest)
      */
     public void setPacmanSpeedLevel(int level) {
-        if (movementManager != null) {
-            // Map level 1-5 to delay values
-            int delay;
-            switch (level) {
-                case 1: delay = 300; break; // Very slow
-                case 2: delay = 200; break; // Slow
-                case 3: delay = 150; break; // Medium
-                case 4: delay = 100; break; // Fast
-                case 5: delay = 70; break;  // Very fast
-                default: delay = 200; break; // Default medium speed
-            }
-            movementManager.setMovementDelay(delay);
+        // Map level 1-5 to speeds in cells per second
+        double speed;
+        switch (level) {
+            case 1: speed = 3.33; break; // Very slow
+            case 2: speed = 5.0; break;  // Slow
+            case 3: speed = 6.67; break; // Medium
+            case 4: speed = 10.0; break; // Fast
+            case 5: speed = 14.3; break; // Very fast
+            default: speed = 5.0; break; // Default medium speed
         }
+        movementManager.setSpeed(speed);
     }
 
     /**
@@ -322,35 +566,36 @@ public class GameEngine {
     }
 
     /**
-     * Get the Pacman renderer
-     * @return The Pacman renderer
+     * Get all ghosts
+     * @return The ghost store
      */
-    public CharacterRenderer getPacmanRenderer() {
-        return pacmanRenderer;
+    public GhostStore getGhosts() {
+        return ghosts;
     }
 
     /**
-     * Get the ghost
-     * @return The ghost
+     * Get the seed this engine was created with
+     * @return The seed
      */
-    public Blinky getGhost() {
-        return ghost;
+    public long getSeed() {
+        return seed;
     }
 
     /**
-     * Get the ghost renderer
-     * @return The ghost renderer
+     * Get the engine's random stream.
+     * Only use it from the thread driving this engine.
+     * @return The random stream
      */
-    public GhostRenderer getGhostRenderer() {
-        return ghostRenderer;
+    public SplittableRandom getRandom() {
+        return random;
     }
 
     /**
-     * Get point renderers
-     * @return List of point renderers
+     * Split off an independent random stream, e.g. for a ghost or map generator
+     * @return A new random stream derived from the engine's seed
      */
-    public List<PointRenderer> getPointRenderers() {
-        return pointRenderers;
+    public SplittableRandom splitRandom() {
+        return random.split();
     }
 
     /**
@@ -370,10 +615,83 @@ public class GameEngine {
     }
 
     /**
-     * Check if renderers are initialized
-     * @return true if renderers are initialized
+     * Get the number of ticks simulated so far
+     * @return Tick count
+     */
+    public long getTickCount() {
+        return tickCount;
+    }
+
+    /**
+     * Get the number of points not yet collected
+     * @return Remaining points
+     */
+    public int getRemainingPoints() {
+        return dotGrid.getRemaining();
+    }
+
+    /**
+     * Get all points on the map
+     * @return List of points
+     */
+    public List<Point> getPoints() {
+        if (points == null) {
+            // Shared level: build the point objects from the layout and this game's eaten bits
+            int columns = gameMap.getColumns();
+            points = new ArrayList<>(dotGrid.getPointCount());
+            for (int i = 0; i < dotGrid.getPointCount(); i++) {
+                int cell = dotGrid.getPointCell(i);
+                Point point = new Point(cell / columns, cell % columns);
+                if (dotGrid.isEaten(i)) {
+                    point.collect();
+                }
+                points.add(point);
+            }
+        }
+        return points;
+    }
+
+    /**
+     * Destroy a wall in this game only; games sharing the level keep it
+     * @param row Row
+     * @param column Column
+     * @return true if there was a wall
+     */
+    public boolean destroyWall(int row, int column) {
+        if (!overlay.destroyWall(row, column)) {
+            return false;
+        }
+        // The first destroyed wall on a shared level gives this game its own map
+        if (overlay.getMap() != gameMap) {
+            gameMap = overlay.getMap();
+            movementManager.setGameMap(gameMap);
+        }
+        // Ghost distance fields are stale either way; strategies that can, patch around the cell
+        ghostManager.updateCell(gameMap, row, column);
+        return true;
+    }
+
+    /**
+     * Get this game's changes to its level
+     * @return The overlay
+     */
+    public GameOverlay getOverlay() {
+        return overlay;
+    }
+
+    /**
+     * Check if the game is over
+     * @return true if Pacman has no lives left
+     */
+    public boolean isGameOver() {
+        return lives <= 0;
+    }
+
+    /**
+     * Get the game map
+     * @return The game map
      */
-    public boolean areRenderersInitialized() {
-        return renderersInitialized;
+    public GameMapWithWalls getGameMap() {
+        return gameMap;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,169 @@
+package controller;
+
+import model.Direction;
+
+/**
+ * Immutable picture of the game state at the end of one tick.
+ * The engine publishes a new snapshot through a volatile reference after every
+ * changed tick; renderers read only from a snapshot, so they never block the
+ * simulation and never see a half-updated world.
+ * Arrays handed to the constructor are owned by the snapshot and never modified.
+ */
+public final class GameSnapshot {
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private final long tick;
+    private final int score;
+    private final int lives;
+
+    private final int pacmanRow;
+    private final int pacmanColumn;
+    private final Direction pacmanDirection;
+    private final int pacmanFrame;
+    private final Direction pacmanMoveDirection;
+    private final int pacmanProgress;
+
+    private final int[] ghostRows;
+    private final int[] ghostColumns;
+    private final byte[] ghostDirections;
+    private final byte[] ghostStates;
+    private final int[] ghostProgress;
+
+    // One bit per point index, set when the point has been eaten
+    private final long[] eatenDots;
+
+    GameSnapshot(long tick, int score, int lives,
+                 int pacmanRow, int pacmanColumn, Direction pacmanDirection, int pacmanFrame,
+                 Direction pacmanMoveDirection, int pacmanProgress,
+                 int[] ghostRows, int[] ghostColumns, byte[] ghostDirections, int[] ghostProgress,
+                 byte[] ghostStates, long[] eatenDots) {
+        this.tick = tick;
+        this.score = score;
+        this.lives = lives;
+        this.pacmanRow = pacmanRow;
+        this.pacmanColumn = pacmanColumn;
+        this.pacmanDirection = pacmanDirection;
+        this.pacmanFrame = pacmanFrame;
+        this.pacmanMoveDirection = pacmanMoveDirection;
+        this.pacmanProgress = pacmanProgress;
+        this.ghostRows = ghostRows;
+        this.ghostColumns = ghostColumns;
+        this.ghostDirections = ghostDirections;
+        this.ghostStates = ghostStates;
+        this.ghostProgress = ghostProgress;
+        this.eatenDots = eatenDots;
+    }
+
+    public long getTick() {
+        return tick;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public int getLives() {
+        return lives;
+    }
+
+    public int getPacmanRow() {
+        return pacmanRow;
+    }
+
+    public int getPacmanColumn() {
+        return pacmanColumn;
+    }
+
+    public Direction getPacmanDirection() {
+        return pacmanDirection;
+    }
+
+    public int getPacmanFrame() {
+        return pacmanFrame;
+    }
+
+    /**
+     * Get the direction of Pacman's step in progress
+     * @return Travel direction, NONE when standing on a cell centre
+     */
+    public Direction getPacmanMoveDirection() {
+        return pacmanMoveDirection;
+    }
+
+    /**
+     * Get Pacman's fixed-point progress towards the next cell, see SubCellMotion
+     * @return Progress
+     */
+    public int getPacmanProgress() {
+        return pacmanProgress;
+    }
+
+    public int getGhostCount() {
+        return ghostRows.length;
+    }
+
+    public int getGhostRow(int ghost) {
+        return ghostRows[ghost];
+    }
+
+    public int getGhostColumn(int ghost) {
+        return ghostColumns[ghost];
+    }
+
+    public Direction getGhostDirection(int ghost) {
+        return DIRECTIONS[ghostDirections[ghost]];
+    }
+
+    /**
+     * Get a ghost's fixed-point progress towards the next cell, see SubCellMotion
+     * @param ghost Ghost index
+     * @return Progress
+     */
+    public int getGhostProgress(int ghost) {
+        return ghostProgress[ghost];
+    }
+
+    /**
+     * Get a ghost's state as a Ghost.GhostState ordinal
+     * @param ghost Ghost index
+     * @return The state ordinal
+     */
+    public int getGhostState(int ghost) {
+        return ghostStates[ghost];
+    }
+
+    /**
+     * Get the eaten-dot bitmap so the next snapshot can share it when no dot changed
+     */
+    long[] getEatenDotsBitmap() {
+        return eatenDots;
+    }
+
+    /**
+     * Get the number of 64-point words in the eaten-dot bitmap
+     * @return Word count
+     */
+    public int getEatenDotsWordCount() {
+        return eatenDots.length;
+    }
+
+    /**
+     * Get 64 eaten-dot bits at once, so views can find changed dots a word at a time
+     * @param word Word index; bit i is point word * 64 + i
+     * @return The bits, set when eaten
+     */
+    public long getEatenDotsWord(int word) {
+        return eatenDots[word];
+    }
+
+    /**
+     * Check if a point had been eaten when this snapshot was taken
+     * @param pointIndex Index of the point in the engine's point list
+     * @return true if eaten
+     */
+    public boolean isDotEaten(int pointIndex) {
+        int word = pointIndex >>> 6;
+        return word < eatenDots.length && (eatenDots[word] & (1L << pointIndex)) != 0;
+    }
+}
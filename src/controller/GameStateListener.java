@@ -0,0 +1,13 @@
+package controller;
+
+/**
+ * Receives notifications from the game loop when the simulation changed.
+ * Keeps the engine free of any view classes so it can run headless.
+ */
+public interface GameStateListener {
+
+    /**
+     * Called by the game loop after one or more ticks changed the game state
+     */
+    void onGameStateChanged();
+}
@@ -0,0 +1,17 @@
+package controller;
+
+import model.Direction;
+
+/**
+ * Chooses Pacman's direction when the game runs without a keyboard,
+ * e.g. in headless batch runs
+ */
+public interface PacmanPolicy {
+
+    /**
+     * Choose the direction Pacman should take for the next tick
+     * @param engine The engine being played
+     * @return The direction to steer Pacman in, or NONE to keep the current one
+     */
+    Direction chooseDirection(GameEngine engine);
+}
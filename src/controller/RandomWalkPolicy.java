@@ -0,0 +1,54 @@
+package controller;
+
+import model.Direction;
+import model.GameMapWithWalls;
+import model.PacmanModel;
+
+/**
+ * Simple Pacman policy for headless runs:
+ * keeps going straight and picks a random open direction when blocked.
+ * Draws from the engine's seeded random stream, so seeded runs are reproducible.
+ */
+public class RandomWalkPolicy implements PacmanPolicy {
+
+    private static final Direction[] DIRECTIONS = {
+            Direction.UP, Direction.DOWN, Direction.LEFT, Direction.RIGHT
+    };
+
+    @Override
+    public Direction chooseDirection(GameEngine engine) {
+        PacmanModel pacman = engine.getPacman();
+        GameMapWithWalls gameMap = engine.getGameMap();
+        int row = pacman.getRow();
+        int column = pacman.getColumn();
+
+        // Keep going while the way ahead is open
+        Direction current = pacman.getCurrentDirection();
+        if (current != Direction.NONE && isOpen(gameMap, row, column, current)) {
+            return Direction.NONE;
+        }
+
+        // Pick a random open direction, starting at a random offset
+        int start = engine.getRandom().nextInt(DIRECTIONS.length);
+        for (int i = 0; i < DIRECTIONS.length; i++) {
+            Direction candidate = DIRECTIONS[(start + i) % DIRECTIONS.length];
+            if (isOpen(gameMap, row, column, candidate)) {
+                return candidate;
+            }
+        }
+        return Direction.NONE;
+    }
+
+    /**
+     * Check if the neighbouring cell in the given direction is walkable
+     */
+    private boolean isOpen(GameMapWithWalls gameMap, int row, int column, Direction direction) {
+        switch (direction) {
+            case UP: return gameMap.isWalkable(row - 1, column);
+            case DOWN: return gameMap.isWalkable(row + 1, column);
+            case LEFT: return gameMap.isWalkable(row, column - 1);
+            case RIGHT: return gameMap.isWalkable(row, column + 1);
+            default: return false;
+        }
+    }
+}
@@ -94,9 +94,6 @@ public class GameFrame extends JFrame {
         addKeyListener(new GameKeyListener(gameEngine, gamePane));
         setFocusable(true);
         requestFocus();
-
-        // Add a timer for game updates (for things not handled by the movement threads)
-        createGameTimer();
     }
 
     /**
@@ -116,22 +113,6 @@ public class GameFrame extends JFrame {
         });
     }
 
-    /**
-     * Create a timer for periodic game updates
-     */
-    private void createGameTimer() {
-        // Update game state 30 times per second
-        Timer gameTimer = new Timer(33, e -> {
-            // Check for collisions
-            gameEngine.checkGhostCollision();
-
-            // Update UI with any game state changes
-            gamePane.updateGameState();
-        });
-
-        gameTimer.start();
-    }
-
     /**
      * Sets Pacman's starting position based on the map
      */
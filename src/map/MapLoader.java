@@ -97,6 +97,58 @@ public class MapLoader {
         return gameMap;
     }
 
+    /**
+     * Creates a shareable level from a 2D char array: its walls, plus a dot on every 'o',
+     * numbered in the same order as addPointsFromMap adds them
+     * @param charMap The character map
+     * @return A read-only topology that any number of game engines can share
+     * @throws IllegalArgumentException If a dot can't be reached from Pacman's start,
+     *                                  so no game on the level could ever be cleared
+     */
+    public model.LevelTopology createTopology(char[][] charMap) {
+        model.GameMapWithWalls gameMap = createGameMap(charMap);
+        model.DotGrid dots = new model.DotGrid(gameMap.getRows(), gameMap.getColumns());
+        int pointIndex = 0;
+        for (int row = 0; row < charMap.length; row++) {
+            for (int col = 0; col < charMap[row].length; col++) {
+                if (charMap[row][col] == 'o') {
+                    dots.add(row, col, model.DotGrid.DOT, pointIndex++);
+                }
+            }
+        }
+
+        int unreachable = countUnreachableDots(gameMap, dots,
+                GameEngine.getPacmanStartRow(gameMap), GameEngine.getPacmanStartColumn(gameMap));
+        if (unreachable > 0) {
+            throw new IllegalArgumentException("Invalid map data: " + unreachable
+                    + " dots can't be reached from Pacman's start");
+        }
+        return new model.LevelTopology(gameMap, dots,
+                GameEngine.getGhostHomeRow(gameMap), GameEngine.getGhostHomeColumn(gameMap));
+    }
+
+    /**
+     * Count the dots that can't be reached from a start cell
+     * @param gameMap The map
+     * @param dots Edibles on the map
+     * @param row Start row
+     * @param column Start column
+     * @return Number of dots cut off from the start; all of them if the start is a wall
+     */
+    public int countUnreachableDots(model.GameMap gameMap, model.DotGrid dots, int row, int column) {
+        model.BitGridSearch search = new model.BitGridSearch(gameMap);
+        search.fill(row, column);
+        int columns = gameMap.getColumns();
+        int count = 0;
+        for (int pointIndex = 0; pointIndex < dots.getPointCount(); pointIndex++) {
+            int cell = dots.getPointCell(pointIndex);
+            if (!search.isReached(cell / columns, cell % columns)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
     /**
      * Add points to the game based on the map data
      * Points are added at positions marked with 'o'
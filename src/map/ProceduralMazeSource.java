@@ -0,0 +1,77 @@
+package map;
+
+import model.ChunkSource;
+import model.ChunkedGameMap;
+
+/**
+ * Generates a maze chunk by chunk for ChunkedGameMap, so levels of any size need no map file.
+ * The maze has a border wall, a pillar on every even row/column crossing and, from a seeded
+ * hash of the cell position, about one in eight of the remaining crossings between two
+ * pillars walled off. Each chunk row is built as one word, and the same seed always gives
+ * the same chunk.
+ */
+public class ProceduralMazeSource implements ChunkSource {
+
+    // Bits of the even columns in a word; chunks start on an even column
+    private static final long EVEN_COLUMNS = 0x5555555555555555L;
+
+    private final int rows;
+    private final int columns;
+    private final long seed;
+
+    /**
+     * Create a generator
+     * @param rows Number of map rows
+     * @param columns Number of map columns
+     * @param seed Seed of the random walls
+     */
+    public ProceduralMazeSource(int rows, int columns, long seed) {
+        this.rows = rows;
+        this.columns = columns;
+        this.seed = seed;
+    }
+
+    @Override
+    public void fill(int chunkRow, int chunkColumn, long[] words) {
+        int top = chunkRow * ChunkedGameMap.CHUNK_SIZE;
+        int left = chunkColumn * ChunkedGameMap.CHUNK_SIZE;
+
+        // Border columns inside this chunk
+        long border = 0L;
+        if (left == 0) {
+            border |= 1L;
+        }
+        int lastColumn = columns - 1 - left;
+        if (lastColumn >= 0 && lastColumn < ChunkedGameMap.CHUNK_SIZE) {
+            border |= 1L << lastColumn;
+        }
+
+        for (int r = 0; r < words.length; r++) {
+            int row = top + r;
+            if (row == 0 || row >= rows - 1) {
+                words[r] = 0L;
+                continue;
+            }
+            long walls = border;
+            if ((row & 1) == 0) {
+                walls |= EVEN_COLUMNS;
+            } else {
+                // Three independent hashes ANDed together set about one bit in eight
+                long random = mix(row, chunkColumn, 1) & mix(row, chunkColumn, 2) & mix(row, chunkColumn, 3);
+                walls |= random & EVEN_COLUMNS;
+            }
+            words[r] = ~walls;
+        }
+    }
+
+    /**
+     * Hash a chunk row position into 64 random bits (SplitMix64 finalizer)
+     */
+    private long mix(int row, int chunkColumn, int salt) {
+        long z = seed + ((long) row << 32 | (chunkColumn & 0xFFFFFFFFL)) * 0x9E3779B97F4A7C15L
+                + salt * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,221 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * Flood fill on a copy of a map's walkability bits, 64 cells per operation.
+ * Each row is padded to a power of two words. A fill keeps a stack of words whose reached
+ * bits grew; popping a word first spreads its reached bits over every walkable run in the
+ * word with one add (and one bit-reversed add for the other direction), then hands the
+ * result to the words above, below and beside it with masks. Open areas and long
+ * corridors are therefore crossed a word at a time instead of a cell at a time.
+ * Serves reachability checks and connected components; call load again after the map's
+ * walls change. All buffers are allocated up front, so fills don't allocate.
+ */
+public class BitGridSearch {
+
+    private final int rows;
+    private final int columns;
+    private final int rowShift;          // Rows are padded to a power of two words
+    private final int wordsPerRow;
+    private final long[] walkable;
+    private final long[] reached;
+
+    private final int[] stack;           // Words whose reached bits grew since they were last spread
+    private final boolean[] queued;
+    private final int[] touched;         // Words reached by the current fill
+    private final int[] touchStamps;     // Fill that last touched each word
+    private int touchedCount;
+    private int stamp;
+
+    /**
+     * Create a search over a map's current walls
+     * @param gameMap The map
+     */
+    public BitGridSearch(GameMap gameMap) {
+        this.rows = gameMap.getRows();
+        this.columns = gameMap.getColumns();
+        this.rowShift = 32 - Integer.numberOfLeadingZeros(((columns + 63) >>> 6) - 1);
+        this.wordsPerRow = 1 << rowShift;
+        int words = rows << rowShift;
+        this.walkable = new long[words];
+        this.reached = new long[words];
+        this.stack = new int[words];
+        this.queued = new boolean[words];
+        this.touched = new int[words];
+        this.touchStamps = new int[words];
+        load(gameMap);
+    }
+
+    /**
+     * Copy the walkability of a map, e.g. after its walls changed
+     * @param gameMap Map of the same size as the one this search was created for
+     */
+    public void load(GameMap gameMap) {
+        if (gameMap.getRows() != rows || gameMap.getColumns() != columns) {
+            throw new IllegalArgumentException("Map size changed: " + gameMap.getRows() + "x" + gameMap.getColumns());
+        }
+        for (int row = 0; row < rows; row++) {
+            for (int word = 0; word < wordsPerRow; word++) {
+                walkable[(row << rowShift) + word] = gameMap.getRowWord(row, word << 6);
+            }
+        }
+    }
+
+    /**
+     * Flood fill from a cell; query the result with isReached
+     * @param row Start row
+     * @param column Start column
+     * @return Number of cells reached, 0 if the start is a wall or off the map
+     */
+    public int fill(int row, int column) {
+        Arrays.fill(reached, 0L);
+        if (!spread(row, column)) {
+            return 0;
+        }
+        int count = 0;
+        for (int t = 0; t < touchedCount; t++) {
+            count += Long.bitCount(reached[touched[t]]);
+        }
+        return count;
+    }
+
+    /**
+     * Check if the last fill reached a cell
+     */
+    public boolean isReached(int row, int column) {
+        if (row < 0 || row >= rows || column < 0 || column >= columns) {
+            return false;
+        }
+        return (reached[(row << rowShift) + (column >>> 6)] >>> column & 1L) != 0;
+    }
+
+    /**
+     * Count the walkable cells the last fill didn't reach
+     * @return Number of cells cut off from the fill's start
+     */
+    public int countUnreached() {
+        int count = 0;
+        for (int word = 0; word < walkable.length; word++) {
+            count += Long.bitCount(walkable[word] & ~reached[word]);
+        }
+        return count;
+    }
+
+    /**
+     * Label the connected components of the walkable cells
+     * @param labels Component per cell index, at least rows * columns long; -1 for walls.
+     *               Components are numbered from 0 in the order of their first cell.
+     * @return Number of components
+     */
+    public int labelComponents(int[] labels) {
+        Arrays.fill(labels, 0, rows * columns, -1);
+        Arrays.fill(reached, 0L);
+        int components = 0;
+        for (int word = 0; word < walkable.length; word++) {
+            long unlabelled;
+            // Each fill marks its component reached, so the word is rechecked until it is done
+            while ((unlabelled = walkable[word] & ~reached[word]) != 0) {
+                int column = ((word & (wordsPerRow - 1)) << 6) + Long.numberOfTrailingZeros(unlabelled);
+                spread(word >>> rowShift, column);
+                for (int t = 0; t < touchedCount; t++) {
+                    label(touched[t], labels, components);
+                }
+                components++;
+            }
+        }
+        return components;
+    }
+
+    /**
+     * Reach every cell connected to a start cell, on top of the bits already reached
+     * @return false if the start is a wall, off the map or already reached
+     */
+    private boolean spread(int row, int column) {
+        touchedCount = 0;
+        stamp++;
+        if (row < 0 || row >= rows || column < 0 || column >= columns) {
+            return false;
+        }
+        int start = (row << rowShift) + (column >>> 6);
+        long startBit = 1L << column;
+        if ((walkable[start] & startBit) == 0 || (reached[start] & startBit) != 0) {
+            return false;
+        }
+
+        int top = offer(start, startBit, 0);
+        while (top > 0) {
+            int word = stack[--top];
+            queued[word] = false;
+            long bits = spreadRuns(reached[word], walkable[word]);
+            reached[word] = bits;
+
+            int wordInRow = word & (wordsPerRow - 1);
+            if (word >= wordsPerRow) {
+                top = offer(word - wordsPerRow, bits, top);
+            }
+            if (word + wordsPerRow < walkable.length) {
+                top = offer(word + wordsPerRow, bits, top);
+            }
+            if (wordInRow > 0) {
+                top = offer(word - 1, bits << 63, top);
+            }
+            if (wordInRow + 1 < wordsPerRow) {
+                top = offer(word + 1, bits >>> 63, top);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Add bits to a word's reached set, queueing the word if any of them are new and walkable
+     * @return New stack top
+     */
+    private int offer(int word, long bits, int top) {
+        long grown = bits & walkable[word] & ~reached[word];
+        if (grown == 0) {
+            return top;
+        }
+        if (touchStamps[word] != stamp) {
+            touchStamps[word] = stamp;
+            touched[touchedCount++] = word;
+        }
+        reached[word] |= grown;
+        if (!queued[word]) {
+            queued[word] = true;
+            stack[top++] = word;
+        }
+        return top;
+    }
+
+    /**
+     * Grow reached bits over the whole walkable runs they sit in.
+     * Adding the seeds to the run mask carries through each run above a seed; the same on
+     * the bit-reversed word covers the run below it.
+     * @param seeds Reached bits, all walkable
+     * @param open Walkable bits
+     * @return Every bit in a run holding a seed
+     */
+    static long spreadRuns(long seeds, long open) {
+        long up = ((open + seeds) ^ open | seeds) & open;
+        long reversedOpen = Long.reverse(open);
+        long reversedSeeds = Long.reverse(seeds);
+        long down = ((reversedOpen + reversedSeeds) ^ reversedOpen | reversedSeeds) & reversedOpen;
+        return up | Long.reverse(down);
+    }
+
+    /**
+     * Write a label for the cells of a word that were reached but not yet labelled
+     */
+    private void label(int word, int[] labels, int label) {
+        int first = (word >>> rowShift) * columns + ((word & (wordsPerRow - 1)) << 6);
+        long bits = reached[word];
+        while (bits != 0) {
+            int cell = first + Long.numberOfTrailingZeros(bits);
+            bits &= bits - 1;
+            if (labels[cell] == -1) {
+                labels[cell] = label;
+            }
+        }
+    }
+}
@@ -6,8 +6,10 @@ import java.util.List;
 
 /**
  * Blinky - A simple ghost that moves toward Pacman
+ * The ghost image is loaded on first use so the model can run headless
  */
 public class Blinky implements Movable, Collidable {
+    private static final int FRAME_COUNT = 1;
 
     private int row;
     private int column;
@@ -29,7 +31,6 @@ public class Blinky implements Movable, Collidable {
         this.speed = 1;          // Default speed value
         this.moveDelay = 500;    // Default delay in milliseconds
         this.currentFrame = 0;
-        loadAnimationFrames();
     }
 
     /**
@@ -58,16 +59,24 @@ public class Blinky implements Movable, Collidable {
      * Create a fallback image if the real image can't be loaded
      */
     private void createFallbackImage() {
-        // Create a simple red square as fallback
-        java.awt.image.BufferedImage img = new java.awt.image.BufferedImage(
-                20, 20, java.awt.image.BufferedImage.TYPE_INT_ARGB);
-        java.awt.Graphics2D g = img.createGraphics();
-        g.setColor(java.awt.Color.RED);
-        g.fillRect(0, 0, 20, 20);
-        g.dispose();
-
         animationFrames.clear();
-        animationFrames.add(new ImageIcon(img));
+        animationFrames.add(FallbackImage.create());
+    }
+
+    /**
+     * Holder for the fallback image so AWT image classes are only loaded when needed
+     */
+    private static class FallbackImage {
+        static ImageIcon create() {
+            // Create a simple red square as fallback
+            java.awt.image.BufferedImage img = new java.awt.image.BufferedImage(
+                    20, 20, java.awt.image.BufferedImage.TYPE_INT_ARGB);
+            java.awt.Graphics2D g = img.createGraphics();
+            g.setColor(java.awt.Color.RED);
+            g.fillRect(0, 0, 20, 20);
+            g.dispose();
+            return new ImageIcon(img);
+        }
     }
 
     /**
@@ -79,63 +88,41 @@ public class Blinky implements Movable, Collidable {
      */
     public Direction calculateNextMove(int pacmanRow, int pacmanColumn, GameMapWithWalls gameMap) {
         // Calculate direction to move towards Pacman
-
-        // Get all valid directions
-        List<Direction> validDirections = new ArrayList<>();
+        // Checks UP, DOWN, LEFT, RIGHT in order without building a list, so no allocation per move
+        Direction bestDirection = Direction.NONE;
+        int bestDistance = Integer.MAX_VALUE;
 
         // Check each direction if it's valid (not a wall)
-        if (row > 0 && gameMap.isWalkable(row - 1, column)) {
-            validDirections.add(Direction.UP);
-        }
-        if (row < gameMap.getRows() - 1 && gameMap.isWalkable(row + 1, column)) {
-            validDirections.add(Direction.DOWN);
-        }
-        if (column > 0 && gameMap.isWalkable(row, column - 1)) {
-            validDirections.add(Direction.LEFT);
-        }
-        if (column < gameMap.getColumns() - 1 && gameMap.isWalkable(row, column + 1)) {
-            validDirections.add(Direction.RIGHT);
-        }
-
-        // If no valid directions, don't move
-        if (validDirections.isEmpty()) {
-            return Direction.NONE;
+        int open = gameMap.getOpenDirections(row, column);
+        if ((open & GameMap.OPEN_UP) != 0) {
+            int distance = Math.abs(row - 1 - pacmanRow) + Math.abs(column - pacmanColumn);
+            if (distance < bestDistance) {
+                bestDistance = distance;
+                bestDirection = Direction.UP;
+            }
         }
-
-        // Choose best direction to move toward Pacman
-        Direction bestDirection = validDirections.get(0);
-        int bestDistance = Integer.MAX_VALUE;
-
-        for (Direction dir : validDirections) {
-            int newRow = row;
-            int newCol = column;
-
-            // Calculate new position if moving in this direction
-            switch (dir) {
-                case UP:
-                    newRow--;
-                    break;
-                case DOWN:
-                    newRow++;
-                    break;
-                case LEFT:
-                    newCol--;
-                    break;
-                case RIGHT:
-                    newCol++;
-                    break;
+        if ((open & GameMap.OPEN_DOWN) != 0) {
+            int distance = Math.abs(row + 1 - pacmanRow) + Math.abs(column - pacmanColumn);
+            if (distance < bestDistance) {
+                bestDistance = distance;
+                bestDirection = Direction.DOWN;
             }
-
-            // Calculate Manhattan distance to Pacman
-            int distance = Math.abs(newRow - pacmanRow) + Math.abs(newCol - pacmanColumn);
-
-            // If this is better than the current best, update it
+        }
+        if ((open & GameMap.OPEN_LEFT) != 0) {
+            int distance = Math.abs(row - pacmanRow) + Math.abs(column - 1 - pacmanColumn);
             if (distance < bestDistance) {
                 bestDistance = distance;
-                bestDirection = dir;
+                bestDirection = Direction.LEFT;
+            }
+        }
+        if ((open & GameMap.OPEN_RIGHT) != 0) {
+            int distance = Math.abs(row - pacmanRow) + Math.abs(column + 1 - pacmanColumn);
+            if (distance < bestDistance) {
+                bestDirection = Direction.RIGHT;
             }
         }
 
+        // NONE if no valid directions
         return bestDirection;
     }
 
@@ -143,16 +130,36 @@ public class Blinky implements Movable, Collidable {
      * Get the next animation frame
      */
     public void nextFrame() {
-        currentFrame = (currentFrame + 1) % animationFrames.size();
+        currentFrame = (currentFrame + 1) % FRAME_COUNT;
     }
 
     /**
      * Get current animation frame
      */
     public ImageIcon getCurrentFrame() {
+        if (animationFrames == null) {
+            loadAnimationFrames();
+        }
         return animationFrames.get(currentFrame);
     }
 
+    /**
+     * Get the index of the current animation frame
+     */
+    public int getCurrentFrameIndex() {
+        return currentFrame;
+    }
+
+    /**
+     * Get an animation frame by index
+     */
+    public ImageIcon getAnimationFrame(int index) {
+        if (animationFrames == null) {
+            loadAnimationFrames();
+        }
+        return animationFrames.get(index % animationFrames.size());
+    }
+
     /**
      * Get movement delay in milliseconds
      * @return Movement delay
@@ -0,0 +1,17 @@
+package model;
+
+/**
+ * Supplies the walkability of map chunks on demand, e.g. a procedural generator or a file reader.
+ * Evicted chunks are asked for again, so a source must give the same chunk every time.
+ */
+public interface ChunkSource {
+
+    /**
+     * Fill the walkability of one chunk
+     * @param chunkRow Chunk row; the chunk starts at cell row chunkRow * ChunkedGameMap.CHUNK_SIZE
+     * @param chunkColumn Chunk column; the chunk starts at cell column chunkColumn * ChunkedGameMap.CHUNK_SIZE
+     * @param words Zeroed words to fill, one per chunk row: bit c of words[r] set means the cell
+     *              r rows and c columns into the chunk is walkable
+     */
+    void fill(int chunkRow, int chunkColumn, long[] words);
+}
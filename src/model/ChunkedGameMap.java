@@ -0,0 +1,269 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * Map that keeps only part of its walkability in memory.
+ * The grid is split into 64x64 chunks of 64 longs each, one word per chunk row. Chunks are
+ * filled by a ChunkSource the first time they are touched and evicted again, least recently
+ * used first (clock approximation), once more than the memory budget's worth are loaded.
+ * Very large or generated levels therefore cost a small directory plus the chunks in use.
+ * It is a WalkableMap for lookups and moves through MovementService.moveEntity; the game
+ * engine still runs on a fully built GameMapWithWalls, so such levels aren't playable yet.
+ * Chunks changed with setWalkable move out of the slots into an overlay, since the source
+ * can't recreate them; the overlay isn't counted against the budget, so edits never make a
+ * lookup fail, and costs CHUNK_BYTES per edited chunk for as long as the map lives.
+ */
+public class ChunkedGameMap implements WalkableMap {
+
+    public static final int CHUNK_SHIFT = 6;
+    public static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    // Bytes of walkability held by one loaded chunk
+    public static final int CHUNK_BYTES = CHUNK_SIZE * Long.BYTES;
+
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    private static final int EMPTY = -1;
+
+    private final int rows;
+    private final int columns;
+    private final int chunkColumns;
+    private final ChunkSource source;
+
+    // Slot holding each chunk, EMPTY when not loaded, or EMPTY - 1 - i for the i-th edited chunk
+    private final int[] slotByChunk;
+    private final long[][] slotWords;    // Words per slot, allocated the first time the slot is used
+    private final int[] chunkBySlot;
+    private final boolean[] referenced;  // Clock bit, set on use and cleared as the hand passes
+    private int usedSlots;
+    private int hand;
+
+    // Slots given up by chunks that moved to the overlay, reused before evicting
+    private final int[] freeSlots;
+    private int freeSlotCount;
+
+    // Words of the chunks changed by setWalkable, never evicted
+    private long[][] editedWords = new long[0][];
+    private int editedChunks;
+
+    // Last chunk looked up, so runs of lookups in one chunk skip the directory
+    private int lastChunk = EMPTY;
+    private long[] lastWords;
+
+    private long loads;
+    private long evictions;
+
+    /**
+     * Create a chunked map
+     * @param rows Number of rows
+     * @param columns Number of columns
+     * @param source Fills chunks when they are first needed
+     * @param memoryBudgetBytes Most chunk memory to hold at once, at least CHUNK_BYTES
+     */
+    public ChunkedGameMap(int rows, int columns, ChunkSource source, long memoryBudgetBytes) {
+        if (rows <= 0 || columns <= 0) {
+            throw new IllegalArgumentException("Map must have at least one cell");
+        }
+        if (memoryBudgetBytes < CHUNK_BYTES) {
+            throw new IllegalArgumentException("Memory budget must hold at least one chunk: " + memoryBudgetBytes);
+        }
+        long chunkRows = (rows + CHUNK_MASK) >>> CHUNK_SHIFT;
+        long chunks = chunkRows * ((columns + CHUNK_MASK) >>> CHUNK_SHIFT);
+        if (chunks > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Map too large: " + rows + "x" + columns);
+        }
+
+        this.rows = rows;
+        this.columns = columns;
+        this.chunkColumns = (columns + CHUNK_MASK) >>> CHUNK_SHIFT;
+        this.source = source;
+        this.slotByChunk = new int[(int) chunks];
+        Arrays.fill(slotByChunk, EMPTY);
+
+        int maxSlots = (int) Math.min(chunks, memoryBudgetBytes / CHUNK_BYTES);
+        this.slotWords = new long[maxSlots][];
+        this.chunkBySlot = new int[maxSlots];
+        this.referenced = new boolean[maxSlots];
+        this.freeSlots = new int[maxSlots];
+    }
+
+    @Override
+    public boolean isWalkable(int row, int column) {
+        if (row < 0 || row >= rows || column < 0 || column >= columns) {
+            return false;
+        }
+        // Long shifts only use the low six bits, i.e. the column within the chunk
+        return (chunkWords(row, column)[row & CHUNK_MASK] >>> column & 1L) != 0;
+    }
+
+    /**
+     * Change a cell's walkability; the cell's chunk moves to the overlay and stays in memory
+     */
+    public void setWalkable(int row, int column, boolean walkable) {
+        if (row < 0 || row >= rows || column < 0 || column >= columns) {
+            return;
+        }
+        long[] words = chunkWords(row, column);
+        int chunk = chunkIndex(row, column);
+        if (slotByChunk[chunk] >= 0) {
+            words = moveToOverlay(chunk);
+        }
+        if (walkable) {
+            words[row & CHUNK_MASK] |= 1L << column;
+        } else {
+            words[row & CHUNK_MASK] &= ~(1L << column);
+        }
+    }
+
+    @Override
+    public int getRows() {
+        return rows;
+    }
+
+    @Override
+    public int getColumns() {
+        return columns;
+    }
+
+    /**
+     * Get the number of chunks currently in memory, edited ones included
+     */
+    public int getLoadedChunkCount() {
+        return usedSlots - freeSlotCount + editedChunks;
+    }
+
+    /**
+     * Get the number of chunks changed by setWalkable, held outside the memory budget
+     */
+    public int getEditedChunkCount() {
+        return editedChunks;
+    }
+
+    /**
+     * Get the most chunks the memory budget allows in memory at once
+     */
+    public int getMaxLoadedChunks() {
+        return slotWords.length;
+    }
+
+    /**
+     * Get the number of times a chunk was filled by the source, including reloads
+     */
+    public long getLoadCount() {
+        return loads;
+    }
+
+    /**
+     * Get the number of times a chunk was dropped to stay within the budget
+     */
+    public long getEvictionCount() {
+        return evictions;
+    }
+
+    private int chunkIndex(int row, int column) {
+        return (row >>> CHUNK_SHIFT) * chunkColumns + (column >>> CHUNK_SHIFT);
+    }
+
+    /**
+     * Get the words of the chunk holding a cell, loading it if needed
+     */
+    private long[] chunkWords(int row, int column) {
+        int chunk = chunkIndex(row, column);
+        if (chunk == lastChunk) {
+            return lastWords;
+        }
+        int slot = slotByChunk[chunk];
+        if (slot < EMPTY) {
+            lastWords = editedWords[EMPTY - 1 - slot];
+        } else {
+            if (slot == EMPTY) {
+                slot = load(chunk);
+            }
+            referenced[slot] = true;
+            lastWords = slotWords[slot];
+        }
+        lastChunk = chunk;
+        return lastWords;
+    }
+
+    /**
+     * Move a loaded chunk into the edit overlay, freeing its slot
+     * @return The chunk's words in the overlay
+     */
+    private long[] moveToOverlay(int chunk) {
+        int slot = slotByChunk[chunk];
+        if (editedChunks == editedWords.length) {
+            editedWords = Arrays.copyOf(editedWords, Math.max(8, editedChunks * 2));
+        }
+        // The slot keeps its array for the next load, so the overlay gets a copy
+        long[] words = slotWords[slot].clone();
+        editedWords[editedChunks] = words;
+        slotByChunk[chunk] = EMPTY - 1 - editedChunks;
+        editedChunks++;
+        referenced[slot] = false;
+        freeSlots[freeSlotCount++] = slot;
+        if (chunk == lastChunk) {
+            lastWords = words;
+        }
+        return words;
+    }
+
+    /**
+     * Fill a chunk from the source into a free or evicted slot
+     * @return The slot
+     */
+    private int load(int chunk) {
+        int slot;
+        if (freeSlotCount > 0) {
+            slot = freeSlots[--freeSlotCount];
+            Arrays.fill(slotWords[slot], 0L);
+        } else if (usedSlots < slotWords.length) {
+            slot = usedSlots++;
+            slotWords[slot] = new long[CHUNK_SIZE];
+        } else {
+            slot = evict();
+            Arrays.fill(slotWords[slot], 0L);
+        }
+
+        int chunkRow = chunk / chunkColumns;
+        int chunkColumn = chunk % chunkColumns;
+        long[] words = slotWords[slot];
+        source.fill(chunkRow, chunkColumn, words);
+
+        // Cells past the map edge are never walkable
+        int rowsInChunk = Math.min(CHUNK_SIZE, rows - (chunkRow << CHUNK_SHIFT));
+        int columnsInChunk = Math.min(CHUNK_SIZE, columns - (chunkColumn << CHUNK_SHIFT));
+        long columnMask = columnsInChunk == CHUNK_SIZE ? -1L : (1L << columnsInChunk) - 1;
+        for (int row = 0; row < CHUNK_SIZE; row++) {
+            words[row] = row < rowsInChunk ? words[row] & columnMask : 0L;
+        }
+
+        slotByChunk[chunk] = slot;
+        chunkBySlot[slot] = chunk;
+        loads++;
+        return slot;
+    }
+
+    /**
+     * Free the slot of a chunk that wasn't used since the clock hand last passed it
+     * @return The freed slot
+     */
+    private int evict() {
+        // Every slot holds a loaded chunk here; one sweep clears every reference bit at most
+        while (true) {
+            int slot = hand;
+            hand = hand + 1 == slotWords.length ? 0 : hand + 1;
+            if (referenced[slot]) {
+                referenced[slot] = false;
+                continue;
+            }
+            int chunk = chunkBySlot[slot];
+            slotByChunk[chunk] = EMPTY;
+            if (chunk == lastChunk) {
+                lastChunk = EMPTY;
+                lastWords = null;
+            }
+            evictions++;
+            return slot;
+        }
+    }
+}
@@ -0,0 +1,410 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * Cache of BFS distance fields, one per target cell.
+ * A field holds every cell's walking distance to its target as an unsigned short,
+ * so picking the way towards a target is four neighbour lookups instead of a
+ * wall-blind Manhattan guess. Maps with more cells than a short can count get int
+ * fields instead, so far cells never saturate to the same distance.
+ * Fields are built on first use, into an empty slot while there is one, and the least
+ * recently used one is rebuilt in place when the cache is full. A slot's array is
+ * allocated the first time the slot is used and reused from then on, so a warm cache
+ * never allocates.
+ * Targets that are walls or outside the map, such as the map corners, are moved
+ * to the nearest walkable cell.
+ * A cache can be frozen once its fields are built and then shared between games on the same
+ * map, e.g. by a LevelTopology; each game's own cache reads the shared fields first for as
+ * long as it measures on the shared map.
+ */
+public class DistanceFieldCache implements GhostMoveStrategy {
+
+    // Distance of cells the target can't be reached from
+    public static final int UNREACHABLE = Integer.MAX_VALUE;
+
+    // Largest map whose distances, at most one less than the cell count, fit below SHORT_UNREACHABLE
+    public static final int MAX_SHORT_CELLS = 0xFFFF;
+    private static final int SHORT_UNREACHABLE = 0xFFFF;
+
+    private GameMapWithWalls gameMap;
+    private int[] keys;              // Requested target cell per slot, -1 when empty
+    private final boolean wide;      // Fields are int[], the map has more than MAX_SHORT_CELLS cells
+    private short[][] fields;        // Field per slot, null until the slot is first used
+    private int[][] wideFields;
+    private long[] lastUse;
+    private int[] queue;             // BFS queue, shared by every build, null until the first
+    private long clock;
+    private long builds;
+    private boolean frozen;          // Read-only, shared between games
+    private DistanceFieldCache shared;
+
+    // Field found by the last lookUp, in this cache or the shared one
+    private short[] field;
+    private int[] wideField;
+
+    /**
+     * Create an empty cache
+     * @param gameMap The map the distances are measured on
+     * @param capacity Most fields to keep, e.g. corners, ghost house and Pacman's cell
+     */
+    public DistanceFieldCache(GameMapWithWalls gameMap, int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be at least 1: " + capacity);
+        }
+        this.gameMap = gameMap;
+        this.keys = new int[capacity];
+        this.wide = gameMap.getCellCount() > MAX_SHORT_CELLS;
+        this.fields = new short[capacity][];
+        this.wideFields = new int[capacity][];
+        this.lastUse = new long[capacity];
+        Arrays.fill(keys, -1);
+    }
+
+    /**
+     * Switch to another map, e.g. after walls changed; every field is rebuilt on next use
+     * @param gameMap The new map, same size as the old one
+     */
+    @Override
+    public void setGameMap(GameMapWithWalls gameMap) {
+        if (gameMap.getRows() != this.gameMap.getRows() || gameMap.getColumns() != this.gameMap.getColumns()) {
+            throw new IllegalArgumentException("Map size changed: " + gameMap.getRows() + "x" + gameMap.getColumns());
+        }
+        this.gameMap = gameMap;
+        invalidate();
+    }
+
+    /**
+     * Drop every field, e.g. after walls changed in place
+     */
+    public void invalidate() {
+        if (frozen) {
+            throw new IllegalStateException("Distance fields are shared between games");
+        }
+        Arrays.fill(keys, -1);
+    }
+
+    /**
+     * Keep at least this many fields from now on, e.g. one per ghost home besides the corners.
+     * New slots start empty and get their arrays on first use.
+     * @param capacity Most fields to keep; a smaller value than the current one is ignored
+     */
+    public void ensureCapacity(int capacity) {
+        if (frozen) {
+            throw new IllegalStateException("Distance fields are shared between games");
+        }
+        int old = keys.length;
+        if (capacity <= old) {
+            return;
+        }
+        keys = Arrays.copyOf(keys, capacity);
+        Arrays.fill(keys, old, capacity, -1);
+        fields = Arrays.copyOf(fields, capacity);
+        wideFields = Arrays.copyOf(wideFields, capacity);
+        lastUse = Arrays.copyOf(lastUse, capacity);
+    }
+
+    /**
+     * Get the most fields kept at once
+     */
+    public int getCapacity() {
+        return keys.length;
+    }
+
+    /**
+     * Get the bytes one field takes, for sizing the cache against a memory budget
+     */
+    public long getFieldBytes() {
+        return (long) gameMap.getCellCount() * (wide ? Integer.BYTES : Short.BYTES);
+    }
+
+    /**
+     * Build the field towards a target ahead of use, e.g. before freezing
+     * @param targetRow Target row; clamped into the map
+     * @param targetColumn Target column; clamped into the map
+     */
+    public void prepare(int targetRow, int targetColumn) {
+        lookUp(targetRow, targetColumn);
+    }
+
+    /**
+     * Stop building and evicting fields, so any number of games can read this cache at once.
+     * Looking up a target that has no field then throws IllegalStateException.
+     */
+    public void freeze() {
+        frozen = true;
+    }
+
+    /**
+     * Read fields from a frozen cache before building any, while measuring on its map
+     * @param shared Frozen cache on a map of the same size, or null to stop sharing
+     */
+    public void setSharedFields(DistanceFieldCache shared) {
+        if (shared != null && (!shared.frozen || shared.gameMap.getCellCount() != gameMap.getCellCount())) {
+            throw new IllegalArgumentException("Shared fields must be frozen and on a map of the same size");
+        }
+        this.shared = shared;
+    }
+
+    /**
+     * Make the field towards a target current, building it if needed
+     * @param targetRow Target row; clamped into the map
+     * @param targetColumn Target column; clamped into the map
+     */
+    private void lookUp(int targetRow, int targetColumn) {
+        int row = Math.max(0, Math.min(targetRow, gameMap.getRows() - 1));
+        int column = Math.max(0, Math.min(targetColumn, gameMap.getColumns() - 1));
+        int key = gameMap.getCellIndex(row, column);
+
+        // The shared fields only hold while this game's walls are the shared ones
+        if (shared != null && shared.gameMap == gameMap) {
+            int slot = shared.findSlot(key);
+            if (slot >= 0) {
+                field = shared.fields[slot];
+                wideField = shared.wideFields[slot];
+                return;
+            }
+        }
+        if (frozen) {
+            int slot = findSlot(key);
+            if (slot < 0) {
+                throw new IllegalStateException("No shared distance field towards " + row + "," + column);
+            }
+            field = fields[slot];
+            wideField = wideFields[slot];
+            return;
+        }
+
+        int victim = -1;
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] == key) {
+                lastUse[slot] = ++clock;
+                field = fields[slot];
+                wideField = wideFields[slot];
+                return;
+            }
+            // An empty slot beats any live one; among live ones the least recently used loses
+            if (victim < 0 || keys[victim] != -1 && (keys[slot] == -1 || lastUse[slot] < lastUse[victim])) {
+                victim = slot;
+            }
+        }
+
+        // Miss: build into the victim slot in place
+        int target = gameMap.nearestWalkableCell(row, column);
+        build(victim, target >= 0 ? target : key);
+        keys[victim] = key;
+        lastUse[victim] = ++clock;
+        builds++;
+        field = fields[victim];
+        wideField = wideFields[victim];
+    }
+
+    /**
+     * Find the slot holding a target's field without touching anything
+     * @return Slot index, -1 if no slot holds it
+     */
+    private int findSlot(int key) {
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Get the walking distance from a cell to a target
+     * @return Number of steps, or UNREACHABLE
+     */
+    public int getDistance(int row, int column, int targetRow, int targetColumn) {
+        if (row < 0 || row >= gameMap.getRows() || column < 0 || column >= gameMap.getColumns()) {
+            return UNREACHABLE;
+        }
+        lookUp(targetRow, targetColumn);
+        return distance(gameMap.getCellIndex(row, column));
+    }
+
+    /**
+     * Pick the exit that leads closest to a target
+     * @return Direction ordinal, ties going to UP, DOWN, LEFT, RIGHT in that order;
+     *         NONE if no exit is allowed or the target can't be reached through any of them
+     */
+    @Override
+    public int nextDirection(int cell, int exits, int targetRow, int targetColumn) {
+        lookUp(targetRow, targetColumn);
+        int best = GameMap.NONE;
+        int bestDistance = UNREACHABLE;
+        for (int direction = GameMap.UP; direction <= GameMap.RIGHT; direction++) {
+            if ((exits & (1 << direction)) == 0) {
+                continue;
+            }
+            int distance = distance(cell + gameMap.getCellDelta(direction));
+            if (distance < bestDistance) {
+                bestDistance = distance;
+                best = direction;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Look the target up once, then pick each mover's exit in one branch-free loop.
+     * Closed exits read the mover's own cell and are masked to unreachable; the ordinal in
+     * the low bits breaks ties as in nextDirection.
+     */
+    @Override
+    public void nextDirections(int[] movers, int[] cells, int[] exits, int[] directions,
+                               int from, int to, int targetRow, int targetColumn) {
+        lookUp(targetRow, targetColumn);
+        if (wide) {
+            nextDirectionsWide(cells, exits, directions, from, to);
+        } else {
+            nextDirectionsShort(cells, exits, directions, from, to);
+        }
+    }
+
+    private void nextDirectionsShort(int[] cells, int[] exits, int[] directions, int from, int to) {
+        short[] distances = field;
+        int up = gameMap.getCellDelta(GameMap.UP);
+        int down = gameMap.getCellDelta(GameMap.DOWN);
+        int left = gameMap.getCellDelta(GameMap.LEFT);
+        int right = gameMap.getCellDelta(GameMap.RIGHT);
+        for (int k = from; k < to; k++) {
+            int cell = cells[k];
+            int open = exits[k];
+            // All ones where the exit is open
+            int upOpen = -(open & 1);
+            int downOpen = -(open >>> 1 & 1);
+            int leftOpen = -(open >>> 2 & 1);
+            int rightOpen = -(open >>> 3 & 1);
+            int upValue = distances[cell + (up & upOpen)] & 0xFFFF | SHORT_UNREACHABLE & ~upOpen;
+            int downValue = distances[cell + (down & downOpen)] & 0xFFFF | SHORT_UNREACHABLE & ~downOpen;
+            int leftValue = distances[cell + (left & leftOpen)] & 0xFFFF | SHORT_UNREACHABLE & ~leftOpen;
+            int rightValue = distances[cell + (right & rightOpen)] & 0xFFFF | SHORT_UNREACHABLE & ~rightOpen;
+
+            int best = Math.min(Math.min(upValue << 2 | GameMap.UP, downValue << 2 | GameMap.DOWN),
+                    Math.min(leftValue << 2 | GameMap.LEFT, rightValue << 2 | GameMap.RIGHT));
+            directions[k] = best >> 2 == SHORT_UNREACHABLE ? GameMap.NONE : best & 3;
+        }
+    }
+
+    private void nextDirectionsWide(int[] cells, int[] exits, int[] directions, int from, int to) {
+        int[] distances = wideField;
+        int up = gameMap.getCellDelta(GameMap.UP);
+        int down = gameMap.getCellDelta(GameMap.DOWN);
+        int left = gameMap.getCellDelta(GameMap.LEFT);
+        int right = gameMap.getCellDelta(GameMap.RIGHT);
+        for (int k = from; k < to; k++) {
+            int cell = cells[k];
+            int open = exits[k];
+            int upOpen = -(open & 1);
+            int downOpen = -(open >>> 1 & 1);
+            int leftOpen = -(open >>> 2 & 1);
+            int rightOpen = -(open >>> 3 & 1);
+            int upValue = distances[cell + (up & upOpen)] & upOpen | UNREACHABLE & ~upOpen;
+            int downValue = distances[cell + (down & downOpen)] & downOpen | UNREACHABLE & ~downOpen;
+            int leftValue = distances[cell + (left & leftOpen)] & leftOpen | UNREACHABLE & ~leftOpen;
+            int rightValue = distances[cell + (right & rightOpen)] & rightOpen | UNREACHABLE & ~rightOpen;
+
+            long best = Math.min(Math.min((long) upValue << 2 | GameMap.UP, (long) downValue << 2 | GameMap.DOWN),
+                    Math.min((long) leftValue << 2 | GameMap.LEFT, (long) rightValue << 2 | GameMap.RIGHT));
+            directions[k] = (int) (best >> 2) == UNREACHABLE ? GameMap.NONE : (int) best & 3;
+        }
+    }
+
+    /**
+     * Check if fields are stored as int[] rather than short[]
+     * @return true for maps with more than MAX_SHORT_CELLS cells
+     */
+    public boolean isWide() {
+        return wide;
+    }
+
+    /**
+     * Get the number of fields built so far, including rebuilds
+     */
+    public long getBuildCount() {
+        return builds;
+    }
+
+    /**
+     * Read a cell's distance from the current field
+     * @return Number of steps, or UNREACHABLE
+     */
+    private int distance(int cell) {
+        if (wide) {
+            return wideField[cell];
+        }
+        int distance = field[cell] & 0xFFFF;
+        return distance == SHORT_UNREACHABLE ? UNREACHABLE : distance;
+    }
+
+    /**
+     * Breadth-first search outwards from the target over the exit masks, into a slot
+     */
+    private void build(int slot, int target) {
+        int cells = gameMap.getCellCount();
+        if (queue == null) {
+            queue = new int[cells];
+        }
+        if (wide) {
+            if (wideFields[slot] == null) {
+                wideFields[slot] = new int[cells];
+            }
+            buildWide(wideFields[slot], target);
+        } else {
+            if (fields[slot] == null) {
+                fields[slot] = new short[cells];
+            }
+            buildShort(fields[slot], target);
+        }
+    }
+
+    /**
+     * Build a short field; no distance on a map of at most MAX_SHORT_CELLS cells reaches
+     * SHORT_UNREACHABLE
+     */
+    private void buildShort(short[] field, int target) {
+        Arrays.fill(field, (short) SHORT_UNREACHABLE);
+        int head = 0;
+        int tail = 0;
+        field[target] = 0;
+        queue[tail++] = target;
+        while (head < tail) {
+            int cell = queue[head++];
+            short next = (short) ((field[cell] & 0xFFFF) + 1);
+            int exits = gameMap.getExitMask(cell);
+            while (exits != 0) {
+                int direction = Integer.numberOfTrailingZeros(exits);
+                exits &= exits - 1;
+                int neighbour = cell + gameMap.getCellDelta(direction);
+                if (field[neighbour] == (short) SHORT_UNREACHABLE) {
+                    field[neighbour] = next;
+                    queue[tail++] = neighbour;
+                }
+            }
+        }
+    }
+
+    private void buildWide(int[] field, int target) {
+        Arrays.fill(field, UNREACHABLE);
+        int head = 0;
+        int tail = 0;
+        field[target] = 0;
+        queue[tail++] = target;
+        while (head < tail) {
+            int cell = queue[head++];
+            int next = field[cell] + 1;
+            int exits = gameMap.getExitMask(cell);
+            while (exits != 0) {
+                int direction = Integer.numberOfTrailingZeros(exits);
+                exits &= exits - 1;
+                int neighbour = cell + gameMap.getCellDelta(direction);
+                if (field[neighbour] == UNREACHABLE) {
+                    field[neighbour] = next;
+                    queue[tail++] = neighbour;
+                }
+            }
+        }
+    }
+}
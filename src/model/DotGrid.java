@@ -0,0 +1,212 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * Occupancy grid for everything Pacman can eat.
+ * One byte per cell holds the kind of edible on it, and a parallel array maps the
+ * cell to its point index, so collecting at a cell is a single lookup instead of
+ * a scan over every point.
+ * The layout (kinds and point indices) can be frozen and then shared between games, see
+ * freezeLayout and DotGrid(DotGrid); what has been eaten is kept per grid as one bit per
+ * point index.
+ */
+public class DotGrid {
+
+    // Edible kinds stored per cell
+    public static final byte EMPTY = 0;
+    public static final byte DOT = 1;
+    public static final byte PELLET = 2;
+    public static final byte BOOST = 3;
+
+    private final int rows;
+    private final int columns;
+    private final byte[] kinds;
+    private final int[] pointIndices;
+    private int[] pointCells;        // Cell per point index
+    private int pointCount;          // Highest point index + 1
+    private int placed;              // Cells holding an edible
+    private boolean shared;          // Layout is frozen and may be used by other grids too
+    private long[] eaten;            // One bit per point index
+    private int remaining;
+
+    /**
+     * Create an empty grid
+     * @param rows Number of rows
+     * @param columns Number of columns
+     */
+    public DotGrid(int rows, int columns) {
+        this.rows = rows;
+        this.columns = columns;
+        this.kinds = new byte[rows * columns];
+        this.pointIndices = new int[rows * columns];
+        this.pointCells = new int[0];
+        this.eaten = new long[0];
+        Arrays.fill(pointIndices, -1);
+    }
+
+    /**
+     * Create a grid with the same edibles as another, none of them eaten.
+     * A frozen layout is shared, so the new grid doesn't accept new edibles either; any other
+     * layout is copied. The other grid is only read, so many threads may copy one frozen grid.
+     * @param layout Grid to take the edibles from
+     */
+    public DotGrid(DotGrid layout) {
+        this.rows = layout.rows;
+        this.columns = layout.columns;
+        this.shared = layout.shared;
+        this.kinds = shared ? layout.kinds : layout.kinds.clone();
+        this.pointIndices = shared ? layout.pointIndices : layout.pointIndices.clone();
+        this.pointCells = shared ? layout.pointCells : Arrays.copyOf(layout.pointCells, layout.pointCount);
+        this.pointCount = layout.pointCount;
+        this.placed = layout.placed;
+        this.eaten = new long[(pointCount + 63) >>> 6];
+        this.remaining = placed;
+
+        // Point indices that no longer hold their cell, replaced or never placed, count as eaten
+        for (int i = 0; i < pointCount; i++) {
+            if (pointIndices[pointCells[i]] != i) {
+                eaten[i >>> 6] |= 1L << i;
+            }
+        }
+    }
+
+    /**
+     * Stop accepting new edibles, so grids copied from this one share its layout.
+     * Call before handing the grid to other threads.
+     */
+    public void freezeLayout() {
+        shared = true;
+    }
+
+    /**
+     * Place an edible on a cell; a cell holds one edible, so this replaces any previous one.
+     * A replaced edible that wasn't eaten yet is gone: its point index reads as eaten, and the
+     * remaining count is unchanged. Positions outside the grid are ignored.
+     * @param row Row
+     * @param column Column
+     * @param kind DOT, PELLET or BOOST
+     * @param pointIndex Index of the matching point in the game's point list
+     */
+    public void add(int row, int column, byte kind, int pointIndex) {
+        if (row < 0 || row >= rows || column < 0 || column >= columns) {
+            return;
+        }
+        if (kind == EMPTY) {
+            throw new IllegalArgumentException("Kind must not be EMPTY");
+        }
+        if (shared) {
+            throw new IllegalStateException("Layout is shared with another grid");
+        }
+        int cell = row * columns + column;
+        if (kinds[cell] == EMPTY) {
+            placed++;
+            remaining++;
+        } else {
+            int replaced = pointIndices[cell];
+            if (isEaten(replaced)) {
+                remaining++;
+            } else if (replaced != pointIndex) {
+                eaten[replaced >>> 6] |= 1L << replaced;
+            }
+        }
+        kinds[cell] = kind;
+        pointIndices[cell] = pointIndex;
+
+        // Grow the per-point arrays to cover the new index
+        if (pointIndex >= pointCount) {
+            int oldCount = pointCells.length;
+            if (pointIndex >= oldCount) {
+                pointCells = Arrays.copyOf(pointCells, Math.max(pointIndex + 1, oldCount * 2));
+            }
+            pointCount = pointIndex + 1;
+            int words = (pointCount + 63) >>> 6;
+            if (words > eaten.length) {
+                eaten = Arrays.copyOf(eaten, words);
+            }
+        }
+        pointCells[pointIndex] = cell;
+        eaten[pointIndex >>> 6] &= ~(1L << pointIndex);
+    }
+
+    /**
+     * Eat whatever is on a cell
+     * @param row Row
+     * @param column Column
+     * @return Point index of the eaten edible, or -1 if the cell was empty
+     */
+    public int eat(int row, int column) {
+        if (row < 0 || row >= rows || column < 0 || column >= columns) {
+            return -1;
+        }
+        int cell = row * columns + column;
+        if (kinds[cell] == EMPTY) {
+            return -1;
+        }
+        int pointIndex = pointIndices[cell];
+        long bit = 1L << pointIndex;
+        if ((eaten[pointIndex >>> 6] & bit) != 0) {
+            return -1;
+        }
+        eaten[pointIndex >>> 6] |= bit;
+        remaining--;
+        return pointIndex;
+    }
+
+    /**
+     * Get the kind of edible on a cell
+     * @return DOT, PELLET, BOOST or EMPTY
+     */
+    public byte getKind(int row, int column) {
+        if (row < 0 || row >= rows || column < 0 || column >= columns) {
+            return EMPTY;
+        }
+        int cell = row * columns + column;
+        if (kinds[cell] == EMPTY || isEaten(pointIndices[cell])) {
+            return EMPTY;
+        }
+        return kinds[cell];
+    }
+
+    /**
+     * Check if a point has been eaten
+     * @param pointIndex Point index
+     * @return true if eaten
+     */
+    public boolean isEaten(int pointIndex) {
+        return (eaten[pointIndex >>> 6] & (1L << pointIndex)) != 0;
+    }
+
+    /**
+     * Copy the eaten bits, e.g. for a snapshot
+     * @return Bit i set when point i has been eaten
+     */
+    public long[] copyEatenBits() {
+        return eaten.clone();
+    }
+
+    /**
+     * Get the number of point indices in use
+     * @return Highest point index + 1
+     */
+    public int getPointCount() {
+        return pointCount;
+    }
+
+    /**
+     * Get the cell of a point
+     * @param pointIndex Point index
+     * @return Cell index, row * columns + column
+     */
+    public int getPointCell(int pointIndex) {
+        return pointCells[pointIndex];
+    }
+
+    /**
+     * Get the number of edibles not yet eaten
+     * @return Remaining count
+     */
+    public int getRemaining() {
+        return remaining;
+    }
+}
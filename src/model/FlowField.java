@@ -0,0 +1,275 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * Walking distance from every cell to one moving target, normally Pacman, shared by every
+ * ghost chasing it. Picking the way towards the target is four neighbour reads.
+ * When the target steps to a neighbouring cell no cell's distance can grow by more than one,
+ * so the update first raises every distance by one in O(1), through a bias added on read,
+ * then runs a breadth-first search from the new cell that only enters cells whose distance
+ * drops. Cells on the far side of the move are never touched. Any other move, and any wall
+ * change, rebuilds the field in full. The distances are the only array a field owns; the
+ * BFS queue is scratch, needed only during an update, so one per thread serves every field
+ * updated on it. Nothing is allocated once the thread's queue has grown to the map's size.
+ */
+public class FlowField implements GhostMoveStrategy {
+
+    // Distance of cells the target can't be reached from
+    public static final int UNREACHABLE = Integer.MAX_VALUE;
+
+    // Rebuild in full before the bias gets anywhere near overflowing the stored values
+    private static final int MAX_BIAS = 1 << 24;
+
+    private static final ThreadLocal<int[]> QUEUES = ThreadLocal.withInitial(() -> new int[0]);
+
+    private GameMapWithWalls gameMap;
+    private final int[] stored;   // Distance minus bias, UNREACHABLE if cut off
+    private int bias;
+    private int target = -1;      // Cell the field leads to, -1 before the first update
+    private boolean stale = true; // Walls changed since the last full build
+
+    private long fullBuilds;
+    private long incrementalUpdates;
+    private long cellsUpdated;
+
+    /**
+     * Create a field; it leads nowhere until the first setTarget
+     * @param gameMap The map the distances are measured on
+     */
+    public FlowField(GameMapWithWalls gameMap) {
+        this.gameMap = gameMap;
+        this.stored = new int[gameMap.getCellCount()];
+    }
+
+    @Override
+    public void setGameMap(GameMapWithWalls gameMap) {
+        if (gameMap.getCellCount() != stored.length) {
+            throw new IllegalArgumentException("Map size changed: " + gameMap.getRows() + "x" + gameMap.getColumns());
+        }
+        this.gameMap = gameMap;
+        stale = true;
+    }
+
+    /**
+     * Move the target, updating the field; cheap to call every tick since an unchanged
+     * target costs nothing
+     * @param row Target row; a wall or a position outside the map is moved to the nearest walkable cell
+     * @param column Target column
+     */
+    public void setTarget(int row, int column) {
+        boolean onMap = row >= 0 && row < gameMap.getRows() && column >= 0 && column < gameMap.getColumns();
+        if (onMap && !stale && gameMap.getCellIndex(row, column) == target) {
+            return;
+        }
+        int cell = onMap && gameMap.isWalkable(row, column)
+                ? gameMap.getCellIndex(row, column)
+                : gameMap.nearestWalkableCell(row, column);
+        if (cell < 0 || cell == target && !stale) {
+            return;
+        }
+        if (!stale && bias < MAX_BIAS && isStep(target, cell)) {
+            stepTarget(cell);
+        } else {
+            build(cell);
+        }
+        target = cell;
+    }
+
+    /**
+     * Get the cell the field leads to
+     * @return Cell index, -1 before the first setTarget
+     */
+    public int getTarget() {
+        return target;
+    }
+
+    /**
+     * Get a cell's walking distance to the target
+     * @param cell Cell index
+     * @return Number of steps, or UNREACHABLE
+     */
+    public int getDistance(int cell) {
+        int value = stored[cell];
+        return value == UNREACHABLE ? UNREACHABLE : value + bias;
+    }
+
+    /**
+     * Pick the exit that leads closest to the field's target
+     * @param cell Cell index of the mover
+     * @param exits Mask of allowed exits, indexed by Direction ordinal
+     * @return Direction ordinal, ties going to UP, DOWN, LEFT, RIGHT in that order;
+     *         NONE if no exit is allowed or the target can't be reached through any of them
+     */
+    public int nextDirection(int cell, int exits) {
+        int best = GameMap.NONE;
+        int bestValue = UNREACHABLE;
+        for (int direction = GameMap.UP; direction <= GameMap.RIGHT; direction++) {
+            if ((exits & (1 << direction)) == 0) {
+                continue;
+            }
+            // The bias is the same for every cell, so stored values compare like distances
+            int value = stored[cell + gameMap.getCellDelta(direction)];
+            if (value < bestValue) {
+                bestValue = value;
+                best = direction;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Pick the exit leading closest to the target for a batch of movers in one pass.
+     * The loop has no data-dependent branches: a closed exit reads the mover's own cell,
+     * always in range, and is masked to UNREACHABLE; each exit's distance and ordinal are
+     * packed into one long, so the pick is three minimums, which compile to conditional moves.
+     * Picks match nextDirection(cell, exits).
+     * @param cells Cell index per mover
+     * @param exits Mask of allowed exits per mover, indexed by Direction ordinal
+     * @param directions Receives the direction ordinal per mover, NONE as for nextDirection
+     * @param count Number of movers
+     */
+    public void nextDirections(int[] cells, int[] exits, int[] directions, int count) {
+        int[] distances = stored;
+        int up = gameMap.getCellDelta(GameMap.UP);
+        int down = gameMap.getCellDelta(GameMap.DOWN);
+        int left = gameMap.getCellDelta(GameMap.LEFT);
+        int right = gameMap.getCellDelta(GameMap.RIGHT);
+        for (int k = 0; k < count; k++) {
+            int cell = cells[k];
+            int open = exits[k];
+            // All ones where the exit is open
+            int upOpen = -(open & 1);
+            int downOpen = -(open >>> 1 & 1);
+            int leftOpen = -(open >>> 2 & 1);
+            int rightOpen = -(open >>> 3 & 1);
+            int upValue = distances[cell + (up & upOpen)] & upOpen | UNREACHABLE & ~upOpen;
+            int downValue = distances[cell + (down & downOpen)] & downOpen | UNREACHABLE & ~downOpen;
+            int leftValue = distances[cell + (left & leftOpen)] & leftOpen | UNREACHABLE & ~leftOpen;
+            int rightValue = distances[cell + (right & rightOpen)] & rightOpen | UNREACHABLE & ~rightOpen;
+
+            // The ordinal in the low bits breaks ties towards the lower one, as in nextDirection
+            long best = Math.min(Math.min((long) upValue << 2 | GameMap.UP, (long) downValue << 2 | GameMap.DOWN),
+                    Math.min((long) leftValue << 2 | GameMap.LEFT, (long) rightValue << 2 | GameMap.RIGHT));
+            directions[k] = (int) (best >> 2) == UNREACHABLE ? GameMap.NONE : (int) best & 3;
+        }
+    }
+
+    /**
+     * Move the target there first, then pick the exit leading to it
+     */
+    @Override
+    public int nextDirection(int cell, int exits, int targetRow, int targetColumn) {
+        setTarget(targetRow, targetColumn);
+        return nextDirection(cell, exits);
+    }
+
+    /**
+     * Get the number of times the field was built from scratch
+     */
+    public long getFullBuildCount() {
+        return fullBuilds;
+    }
+
+    /**
+     * Get the number of one-step target moves handled without a full build
+     */
+    public long getIncrementalUpdateCount() {
+        return incrementalUpdates;
+    }
+
+    /**
+     * Get the number of cell distances written by incremental updates
+     */
+    public long getCellsUpdated() {
+        return cellsUpdated;
+    }
+
+    /**
+     * Check if two cells are joined by an open side
+     */
+    private boolean isStep(int from, int to) {
+        int exits = gameMap.getExitMask(from);
+        while (exits != 0) {
+            int direction = Integer.numberOfTrailingZeros(exits);
+            exits &= exits - 1;
+            if (from + gameMap.getCellDelta(direction) == to) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Handle a target move to a neighbouring cell.
+     * Going through the old cell, every cell is at most one step further than before; the
+     * search from the new cell then lowers exactly the cells that are closer through it.
+     * It runs in distance order, so a cell's first lowered value is final, and a cell that
+     * isn't lowered already holds its distance, so the search never needs to pass through it.
+     */
+    private void stepTarget(int cell) {
+        int[] queue = queue();
+        bias++;
+        int head = 0;
+        int tail = 0;
+        stored[cell] = -bias;
+        queue[tail++] = cell;
+        while (head < tail) {
+            int current = queue[head++];
+            int next = stored[current] + 1;
+            int exits = gameMap.getExitMask(current);
+            while (exits != 0) {
+                int direction = Integer.numberOfTrailingZeros(exits);
+                exits &= exits - 1;
+                int neighbour = current + gameMap.getCellDelta(direction);
+                if (next < stored[neighbour]) {
+                    stored[neighbour] = next;
+                    queue[tail++] = neighbour;
+                }
+            }
+        }
+        incrementalUpdates++;
+        cellsUpdated += tail;
+    }
+
+    /**
+     * Breadth-first search outwards from the target over the exit masks
+     */
+    private void build(int cell) {
+        int[] queue = queue();
+        Arrays.fill(stored, UNREACHABLE);
+        bias = 0;
+        int head = 0;
+        int tail = 0;
+        stored[cell] = 0;
+        queue[tail++] = cell;
+        while (head < tail) {
+            int current = queue[head++];
+            int next = stored[current] + 1;
+            int exits = gameMap.getExitMask(current);
+            while (exits != 0) {
+                int direction = Integer.numberOfTrailingZeros(exits);
+                exits &= exits - 1;
+                int neighbour = current + gameMap.getCellDelta(direction);
+                if (stored[neighbour] == UNREACHABLE) {
+                    stored[neighbour] = next;
+                    queue[tail++] = neighbour;
+                }
+            }
+        }
+        stale = false;
+        fullBuilds++;
+    }
+
+    /**
+     * Get this thread's BFS queue, grown to hold every cell of the map
+     */
+    private int[] queue() {
+        int[] queue = QUEUES.get();
+        if (queue.length < stored.length) {
+            queue = new int[stored.length];
+            QUEUES.set(queue);
+        }
+        return queue;
+    }
+}
@@ -1,38 +1,276 @@
 package model;
 
+import java.util.Arrays;
+
 // Class responsible for the game map state
-public class GameMap {
-    private boolean[][] walkableCells;
+// Walkability is a flat row-major bitset: cell index = row * columns + column, one bit per cell
+public class GameMap implements WalkableMap {
+    // Direction bits returned by getOpenDirections, indexed by Direction ordinal
+    public static final int OPEN_UP = 1 << 0;
+    public static final int OPEN_DOWN = 1 << 1;
+    public static final int OPEN_LEFT = 1 << 2;
+    public static final int OPEN_RIGHT = 1 << 3;
+
+    // Direction ordinals for the int-coded hot paths, matching Direction.values();
+    // a direction's reverse is its ordinal ^ 1
+    public static final int UP = 0;
+    public static final int DOWN = 1;
+    public static final int LEFT = 2;
+    public static final int RIGHT = 3;
+    public static final int NONE = 4;
+
+    private long[] walkableBits;
+    private boolean frozen;     // Shared between games, so setWalkable is refused
     private int rows;
     private int columns;
+    // Cell index offset of a one-cell step, indexed by Direction ordinal
+    private final int[] cellDeltas;
 
     public GameMap(int rows, int columns) {
         this.rows = rows;
         this.columns = columns;
-        this.walkableCells = new boolean[rows][columns];
+        int cells = rows * columns;
+        this.walkableBits = new long[(cells + 63) >>> 6];
+        this.cellDeltas = new int[] {-columns, columns, -1, 1, 0};
 
-        // Initialize all cells as walkable for now
-        for (int i = 0; i < rows; i++) {
-            for (int j = 0; j < columns; j++) {
-                walkableCells[i][j] = true;
-            }
+        // Initialize all cells as walkable for now, leaving the bits past the last cell clear
+        Arrays.fill(walkableBits, -1L);
+        if ((cells & 63) != 0) {
+            walkableBits[walkableBits.length - 1] = (1L << (cells & 63)) - 1;
         }
     }
 
+    /**
+     * Create a copy of another map; the copy can be changed even if the other map is frozen
+     * @param other Map to copy
+     */
+    protected GameMap(GameMap other) {
+        this.rows = other.rows;
+        this.columns = other.columns;
+        this.walkableBits = other.walkableBits.clone();
+        this.cellDeltas = other.cellDeltas;
+    }
+
     public boolean isWalkable(int row, int column) {
         if (row < 0 || row >= rows || column < 0 || column >= columns) {
             return false;
         }
-        return walkableCells[row][column];
+        return isWalkableCell(row * columns + column);
     }
 
     public void setWalkable(int row, int column, boolean walkable) {
+        if (frozen) {
+            throw new IllegalStateException("Map is shared between games; change a copy instead");
+        }
         if (row >= 0 && row < rows && column >= 0 && column < columns) {
-            walkableCells[row][column] = walkable;
+            int cell = row * columns + column;
+            if (walkable) {
+                walkableBits[cell >>> 6] |= 1L << cell;
+            } else {
+                walkableBits[cell >>> 6] &= ~(1L << cell);
+            }
         }
     }
 
+    /**
+     * Refuse every later change, e.g. before the map is shared between games
+     */
+    public void freeze() {
+        frozen = true;
+    }
+
+    /**
+     * Check if the map refuses changes
+     * @return true once freeze was called
+     */
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    /**
+     * Check a cell by index, without bounds checks
+     * @param cell Cell index from getCellIndex
+     * @return true if the cell is walkable
+     */
+    public boolean isWalkableCell(int cell) {
+        return (walkableBits[cell >>> 6] & (1L << cell)) != 0;
+    }
+
+    /**
+     * Get the index of a cell
+     * @param row Row
+     * @param column Column
+     * @return Row-major cell index
+     */
+    public int getCellIndex(int row, int column) {
+        return row * columns + column;
+    }
+
+    public int getCellRow(int cell) {
+        return cell / columns;
+    }
+
+    public int getCellColumn(int cell) {
+        return cell % columns;
+    }
+
+    public int getCellCount() {
+        return rows * columns;
+    }
+
+    /**
+     * Get the cell index offset of a one-cell step
+     * @param direction Direction ordinal
+     * @return Offset to add to a cell index; only meaningful when the step stays on the map
+     */
+    public int getCellDelta(int direction) {
+        return cellDeltas[direction];
+    }
+
+    /**
+     * Get the open neighbours of a cell by index, without bounds checks
+     * @param cell Cell index from getCellIndex
+     * @return Mask of OPEN_UP, OPEN_DOWN, OPEN_LEFT and OPEN_RIGHT
+     */
+    public int getCellOpenDirections(int cell) {
+        return getOpenDirections(cell / columns, cell % columns);
+    }
+
+    /**
+     * Get the open neighbours of a cell.
+     * The left and right neighbours come from a single word read.
+     * @param row Row
+     * @param column Column
+     * @return Mask of OPEN_UP, OPEN_DOWN, OPEN_LEFT and OPEN_RIGHT; 0 outside the map
+     */
+    public int getOpenDirections(int row, int column) {
+        if (row < 0 || row >= rows || column < 0 || column >= columns) {
+            return 0;
+        }
+        int cell = row * columns + column;
+        int open = 0;
+        if (row > 0 && isWalkableCell(cell - columns)) {
+            open |= OPEN_UP;
+        }
+        if (row < rows - 1 && isWalkableCell(cell + columns)) {
+            open |= OPEN_DOWN;
+        }
+
+        // Bits 0..2 are the left neighbour, the cell itself and the right neighbour
+        long horizontal = column > 0 ? bitsFrom(cell - 1) : bitsFrom(cell) << 1;
+        if (column > 0 && (horizontal & 1L) != 0) {
+            open |= OPEN_LEFT;
+        }
+        if (column < columns - 1 && (horizontal & 4L) != 0) {
+            open |= OPEN_RIGHT;
+        }
+        return open;
+    }
+
+    /**
+     * Get the walkability of up to 64 cells of a row in one word
+     * @param row Row
+     * @param column First column
+     * @return Bit i set if cell (row, column + i) is walkable; cells past the row end are 0
+     */
+    public long getRowWord(int row, int column) {
+        if (row < 0 || row >= rows || column < 0 || column >= columns) {
+            return 0L;
+        }
+        long word = bitsFrom(row * columns + column);
+        int remaining = columns - column;
+        if (remaining < 64) {
+            word &= (1L << remaining) - 1;
+        }
+        return word;
+    }
+
+    /**
+     * Find the next walkable cell in a row
+     * @param row Row
+     * @param fromColumn First column to check
+     * @return Column of the next walkable cell, or -1 if there is none
+     */
+    public int nextWalkable(int row, int fromColumn) {
+        for (int column = Math.max(fromColumn, 0); column < columns; column += 64) {
+            long word = getRowWord(row, column);
+            if (word != 0) {
+                return column + Long.numberOfTrailingZeros(word);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Find the next wall in a row
+     * @param row Row
+     * @param fromColumn First column to check
+     * @return Column of the next non-walkable cell, or -1 if there is none
+     */
+    public int nextWall(int row, int fromColumn) {
+        for (int column = Math.max(fromColumn, 0); column < columns; column += 64) {
+            long walls = ~getRowWord(row, column);
+            int remaining = columns - column;
+            if (remaining < 64) {
+                walls &= (1L << remaining) - 1;
+            }
+            if (walls != 0) {
+                return column + Long.numberOfTrailingZeros(walls);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Count the walkable cells in a row
+     * @param row Row
+     * @return Number of walkable cells
+     */
+    public int countWalkable(int row) {
+        int count = 0;
+        for (int column = 0; column < columns; column += 64) {
+            count += Long.bitCount(getRowWord(row, column));
+        }
+        return count;
+    }
+
+    /**
+     * Find the walkable cell nearest to a position, searching square rings outwards,
+     * e.g. to turn a target in a wall or outside the map into one that can be walked to
+     * @param row Row, may be outside the map
+     * @param column Column, may be outside the map
+     * @return Cell index, or -1 if no cell is walkable
+     */
+    public int nearestWalkableCell(int row, int column) {
+        int clampedRow = Math.max(0, Math.min(row, rows - 1));
+        int clampedColumn = Math.max(0, Math.min(column, columns - 1));
+        int maxRadius = Math.max(rows, columns);
+        for (int radius = 0; radius < maxRadius; radius++) {
+            for (int r = clampedRow - radius; r <= clampedRow + radius; r++) {
+                // Only the ring's edge: full rows at the top and bottom, end cells in between
+                int step = r == clampedRow - radius || r == clampedRow + radius ? 1 : Math.max(2 * radius, 1);
+                for (int c = clampedColumn - radius; c <= clampedColumn + radius; c += step) {
+                    if (isWalkable(r, c)) {
+                        return r * columns + c;
+                    }
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Build a 2D copy of the walkability grid.
+     * Allocates a new array on every call; hot code should use isWalkable or the cell-index API.
+     * @return walkable[row][column]
+     */
     public boolean[][] getWalkableCells() {
+        boolean[][] walkableCells = new boolean[rows][columns];
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < columns; j++) {
+                walkableCells[i][j] = isWalkableCell(i * columns + j);
+            }
+        }
         return walkableCells;
     }
 
@@ -43,4 +281,17 @@ public class GameMap {
     public int getColumns() {
         return columns;
     }
-}
\ No newline at end of file
+
+    /**
+     * Read 64 bits of the bitset starting at a cell; bits past the map end are 0
+     */
+    private long bitsFrom(int cell) {
+        int word = cell >>> 6;
+        int shift = cell & 63;
+        long bits = walkableBits[word] >>> shift;
+        if (shift != 0 && word + 1 < walkableBits.length) {
+            bits |= walkableBits[word + 1] << (64 - shift);
+        }
+        return bits;
+    }
+}
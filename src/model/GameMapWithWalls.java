@@ -2,35 +2,138 @@ package model;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.SplittableRandom;
 
 /**
  * Extension of GameMap to include walls
  * Follows Open/Closed Principle by extending GameMap functionality
  */
 public class GameMapWithWalls extends GameMap {
-    private List<Wall> walls;
+    // Allowed exits indexed by (exit mask << 3 | direction ordinal): the mask without the
+    // reverse of the current direction, unless reversing is the only way out
+    private static final byte[] FORWARD_EXITS = buildForwardExits();
+
+    // Run-length wall segments built from the bitset, null when walls changed since the last build
+    private WallSegments wallSegments;
+
+    // Exit mask per cell, kept up to date as walls change; see GameMap.getOpenDirections
+    private byte[] exitMasks;
 
     public GameMapWithWalls(int rows, int columns) {
         super(rows, columns);
-        this.walls = new ArrayList<>();
+        this.exitMasks = new byte[getCellCount()];
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                updateExitMask(row, column);
+            }
+        }
+    }
+
+    /**
+     * Create a copy of another map, e.g. before changing a shared one
+     * @param other Map to copy
+     */
+    public GameMapWithWalls(GameMapWithWalls other) {
+        super(other);
+        this.exitMasks = other.exitMasks.clone();
+        this.wallSegments = other.wallSegments;
+    }
+
+    /**
+     * Build the forward exit table for every mask and direction
+     */
+    private static byte[] buildForwardExits() {
+        // Reverse direction bit per Direction ordinal: UP, DOWN, LEFT, RIGHT, NONE
+        int[] reverseBit = {OPEN_DOWN, OPEN_UP, OPEN_RIGHT, OPEN_LEFT, 0};
+        byte[] table = new byte[16 << 3];
+        for (int mask = 0; mask < 16; mask++) {
+            for (int direction = 0; direction < reverseBit.length; direction++) {
+                int forward = mask & ~reverseBit[direction];
+                table[(mask << 3) | direction] = (byte) (forward != 0 ? forward : mask);
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Get the exits an entity may take without reversing
+     * @param exitMask Exit mask of the cell, see GameMap.getOpenDirections
+     * @param direction Ordinal of the current direction, NONE allows every exit
+     * @return Mask of allowed exits; includes the reverse only when it is the only exit
+     */
+    public static int getForwardExits(int exitMask, int direction) {
+        return FORWARD_EXITS[(exitMask << 3) | direction];
+    }
+
+    /**
+     * Get the precomputed exit mask of a cell
+     * @param cell Cell index from getCellIndex
+     * @return Mask of OPEN_UP, OPEN_DOWN, OPEN_LEFT and OPEN_RIGHT
+     */
+    public int getExitMask(int cell) {
+        return exitMasks[cell];
+    }
+
+    /**
+     * Get the open neighbours of a cell from the precomputed exit masks
+     */
+    @Override
+    public int getOpenDirections(int row, int column) {
+        if (row < 0 || row >= getRows() || column < 0 || column >= getColumns()) {
+            return 0;
+        }
+        return exitMasks[getCellIndex(row, column)];
+    }
+
+    @Override
+    public int getCellOpenDirections(int cell) {
+        return exitMasks[cell];
+    }
+
+    /**
+     * Set a cell's walkability and refresh the exit masks of its neighbours
+     */
+    @Override
+    public void setWalkable(int row, int column, boolean walkable) {
+        super.setWalkable(row, column, walkable);
+        wallSegments = null;
+        if (exitMasks != null) {
+            updateExitMask(row - 1, column);
+            updateExitMask(row + 1, column);
+            updateExitMask(row, column - 1);
+            updateExitMask(row, column + 1);
+        }
+    }
+
+    /**
+     * Recompute one cell's exit mask from the walkability bitset
+     */
+    private void updateExitMask(int row, int column) {
+        if (row >= 0 && row < getRows() && column >= 0 && column < getColumns()) {
+            exitMasks[getCellIndex(row, column)] = (byte) super.getOpenDirections(row, column);
+        }
     }
 
     /**
      * Adds a wall at the specified position
      */
     public void addWall(int row, int column) {
-        // Create wall object
-        Wall wall = new Wall(row, column);
-        walls.add(wall);
-
-        // Mark cell as not walkable
+        // Walls live in the walkability bitset; segments are derived from it on demand
         setWalkable(row, column, false);
     }
 
     /**
-     * Generate walls for a basic maze pattern
+     * Generate walls for a basic maze pattern with a random seed
      */
     public void generateBasicWalls() {
+        generateBasicWalls(new SplittableRandom());
+    }
+
+    /**
+     * Generate walls for a basic maze pattern
+     * @param random Random stream for the random walls; the same seed gives the same maze
+     */
+    public void generateBasicWalls(SplittableRandom random) {
         int rows = getRows();
         int columns = getColumns();
 
@@ -65,8 +168,8 @@ public class GameMapWithWalls extends GameMap {
         // Add some random walls
         int numRandomWalls = (rows + columns) / 4;
         for (int k = 0; k < numRandomWalls; k++) {
-            int i = (int) (Math.random() * (rows - 4)) + 2;  // Avoid borders
-            int j = (int) (Math.random() * (columns - 4)) + 2;
+            int i = random.nextInt(rows - 4) + 2;  // Avoid borders
+            int j = random.nextInt(columns - 4) + 2;
 
             // Don't place walls near Pacman's starting position (center)
             if (Math.abs(i - rows / 2) > 2 || Math.abs(j - columns / 2) > 2) {
@@ -74,26 +177,36 @@ public class GameMapWithWalls extends GameMap {
             }
         }
     }
+
     /**
-     * Checks if a position is walkable
-     * @param row The row to check
-     * @param col The column to check
-     * @return true if the position is walkable, false otherwise
+     * Get the walls as horizontal run-length segments.
+     * The segments are rebuilt from the bitset after walls change and shared until then,
+     * so repeated calls don't copy anything.
+     * @return Read-only wall segments
      */
-    public boolean isWalkable(int row, int col) {
-        // Check bounds
-        if (row < 0 || row >= getRows() || col < 0 || col >= getColumns()) {
-            return false;
+    public WallSegments getWallSegments() {
+        WallSegments segments = wallSegments;
+        if (segments == null) {
+            segments = new WallSegments(this);
+            wallSegments = segments;
         }
-
-        // Check walkable status from parent class
-        return getWalkableCells()[row][col];
+        return segments;
     }
 
     /**
-     * Get all walls
+     * Build a Wall object for every wall cell.
+     * Allocates one object per cell on every call; hot code should use getWallSegments.
+     * @return New list of walls, row by row
      */
     public List<Wall> getWalls() {
-        return new ArrayList<>(walls); // Return a copy to prevent modification
+        WallSegments segments = getWallSegments();
+        List<Wall> walls = new ArrayList<>(segments.getCellCount());
+        for (int i = 0; i < segments.size(); i++) {
+            int end = segments.getColumn(i) + segments.getLength(i);
+            for (int column = segments.getColumn(i); column < end; column++) {
+                walls.add(new Wall(segments.getRow(i), column));
+            }
+        }
+        return walls;
     }
 }
\ No newline at end of file
@@ -0,0 +1,113 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * Per-game state layered over a level: which edibles were eaten, including boosts,
+ * and which walls were destroyed.
+ * Eaten edibles are one bit per point on top of the shared layout. Walls stay shared
+ * until the first one is destroyed; the map is then copied for this game alone.
+ */
+public class GameOverlay {
+
+    private final LevelTopology topology;
+    private final GameMapWithWalls sharedMap;
+    private final DotGrid dots;
+    private GameMapWithWalls map;
+    private int[] destroyedWalls = new int[0];
+    private int destroyedCount;
+
+    /**
+     * Create an overlay over a shared level, with nothing eaten or destroyed
+     * @param topology The level
+     */
+    public GameOverlay(LevelTopology topology) {
+        this.topology = topology;
+        this.sharedMap = topology.getMap();
+        this.map = sharedMap;
+        this.dots = new DotGrid(topology.getDots());
+    }
+
+    /**
+     * Create an overlay for a game that owns its map and edibles outright
+     * @param map The game's own map, changed in place when walls are destroyed
+     * @param dots The game's own edibles
+     */
+    public GameOverlay(GameMapWithWalls map, DotGrid dots) {
+        this.topology = null;
+        this.sharedMap = null;
+        this.map = map;
+        this.dots = dots;
+    }
+
+    /**
+     * Get the map as this game sees it; change walls through destroyWall only
+     * @return The shared map, which is frozen, or this game's copy once a wall was destroyed
+     */
+    public GameMapWithWalls getMap() {
+        return map;
+    }
+
+    /**
+     * Get the level this overlay sits on
+     * @return The shared level, or null for a game that owns its map
+     */
+    public LevelTopology getTopology() {
+        return topology;
+    }
+
+    /**
+     * Get this game's edibles
+     * @return Edibles with this game's eaten bits
+     */
+    public DotGrid getDots() {
+        return dots;
+    }
+
+    /**
+     * Check if this game still reads the shared map
+     * @return true until the first wall is destroyed
+     */
+    public boolean isMapShared() {
+        return map == sharedMap;
+    }
+
+    /**
+     * Destroy a wall for this game only
+     * @param row Row
+     * @param column Column
+     * @return true if there was a wall; getMap() may then return a new map
+     */
+    public boolean destroyWall(int row, int column) {
+        if (row < 0 || row >= map.getRows() || column < 0 || column >= map.getColumns()
+                || map.isWalkable(row, column)) {
+            return false;
+        }
+        if (map == sharedMap) {
+            map = new GameMapWithWalls(sharedMap);
+        }
+        map.setWalkable(row, column, true);
+
+        if (destroyedCount == destroyedWalls.length) {
+            destroyedWalls = Arrays.copyOf(destroyedWalls, Math.max(4, destroyedCount * 2));
+        }
+        destroyedWalls[destroyedCount++] = map.getCellIndex(row, column);
+        return true;
+    }
+
+    /**
+     * Get the number of walls this game destroyed
+     */
+    public int getDestroyedWallCount() {
+        return destroyedCount;
+    }
+
+    /**
+     * Get a destroyed wall
+     * @param i Index, 0 to getDestroyedWallCount() - 1
+     * @return Cell index of the wall
+     */
+    public int getDestroyedWall(int i) {
+        return destroyedWalls[i];
+    }
+}
@@ -6,6 +6,7 @@ import javax.swing.ImageIcon;
 /**
  * Abstract Ghost class that implements behavior for all ghost types
  * Ghosts will continuously move and chase the player
+ * Animation frames are loaded on first use so ghosts can run headless
  */
 public abstract class Ghost implements Movable, Collidable {
 
@@ -27,6 +28,15 @@ public abstract class Ghost implements Movable, Collidable {
     // Movement state
     protected GhostState state;
 
+    // Random stream for frightened movement, normally handed in by the game engine
+    protected SplittableRandom random;
+
+    // Directions matching the exit mask bits, cached so Direction.values() isn't copied per move
+    private static final Direction[] MOVES = {Direction.UP, Direction.DOWN, Direction.LEFT, Direction.RIGHT};
+
+    // Reused for every move decision so choosing a direction does not allocate
+    private final List<Direction> possibleDirections = new ArrayList<>(4);
+
     /**
      * Basic states for ghost behavior
      */
@@ -49,16 +59,23 @@ public abstract class Ghost implements Movable, Collidable {
         this.speed = 1;
         this.currentFrame = 0;
         this.state = GhostState.SCATTER; // Start in scatter mode
-
-        // Initialize animation frames
-        loadAnimationFrames();
+        this.random = new SplittableRandom();
     }
 
     /**
-     * Load animation images - to be implemented by subclasses
+     * Load animation images into animationFrames - to be implemented by subclasses
      */
     protected abstract void loadAnimationFrames();
 
+    /**
+     * Get the number of animation frames, without loading any images
+     * Subclasses with more than one frame should override
+     * @return Frame count
+     */
+    protected int getFrameCount() {
+        return 1;
+    }
+
     /**
      * Calculate next direction based on AI logic
      * @param gameMap The game map with walls
@@ -70,20 +87,21 @@ public abstract class Ghost implements Movable, Collidable {
         // Update target
         updateTarget(pacmanRow, pacmanColumn);
 
-        // Get available directions (excluding walls)
-        List<Direction> possibleDirections = getAvailableDirections(gameMap);
-
-        // Don't reverse direction unless it's the only option
-        removeSelfReversalDirection(possibleDirections);
+        // Get available directions (excluding walls) from the precomputed exit mask;
+        // don't reverse direction unless it's the only option
+        int exits = GameMapWithWalls.getForwardExits(
+                gameMap.getOpenDirections(row, column), currentDirection.ordinal());
 
-        // If no direction available (trapped), allow reversal
-        if (possibleDirections.isEmpty()) {
-            possibleDirections = getAvailableDirections(gameMap);
+        // If no options, don't move
+        if (exits == 0) {
+            return Direction.NONE;
         }
 
-        // If still no options, don't move
-        if (possibleDirections.isEmpty()) {
-            return Direction.NONE;
+        possibleDirections.clear();
+        for (Direction dir : MOVES) {
+            if ((exits & (1 << dir.ordinal())) != 0) {
+                possibleDirections.add(dir);
+            }
         }
 
         // Choose best direction based on state
@@ -154,72 +172,6 @@ public abstract class Ghost implements Movable, Collidable {
         return 13; // Example value
     }
 
-    /**
-     * Get all available directions from current position
-     * @param gameMap The game map
-     * @return List of possible directions
-     */
-    private List<Direction> getAvailableDirections(GameMapWithWalls gameMap) {
-        List<Direction> availableDirections = new ArrayList<>();
-
-        // Check each direction
-        if (isValidMove(row - 1, column, gameMap)) {
-            availableDirections.add(Direction.UP);
-        }
-        if (isValidMove(row + 1, column, gameMap)) {
-            availableDirections.add(Direction.DOWN);
-        }
-        if (isValidMove(row, column - 1, gameMap)) {
-            availableDirections.add(Direction.LEFT);
-        }
-        if (isValidMove(row, column + 1, gameMap)) {
-            availableDirections.add(Direction.RIGHT);
-        }
-
-        return availableDirections;
-    }
-
-    /**
-     * Check if a move to the given position is valid
-     * @param newRow Row to check
-     * @param newColumn Column to check
-     * @param gameMap Game map with walls
-     * @return true if move is valid
-     */
-    private boolean isValidMove(int newRow, int newColumn, GameMapWithWalls gameMap) {
-        // Check if position is within bounds and walkable
-        if (newRow < 0 || newRow >= gameMap.getRows() ||
-                newColumn < 0 || newColumn >= gameMap.getColumns()) {
-            return false;
-        }
-
-        return gameMap.isWalkable(newRow, newColumn);
-    }
-
-    /**
-     * Remove the direction that would cause reversing
-     * @param directions List of available directions
-     */
-    private void removeSelfReversalDirection(List<Direction> directions) {
-        Direction oppositeDirection = getOppositeDirection(currentDirection);
-        directions.remove(oppositeDirection);
-    }
-
-    /**
-     * Get the opposite direction
-     * @param dir Current direction
-     * @return Opposite direction
-     */
-    private Direction getOppositeDirection(Direction dir) {
-        switch (dir) {
-            case UP: return Direction.DOWN;
-            case DOWN: return Direction.UP;
-            case LEFT: return Direction.RIGHT;
-            case RIGHT: return Direction.LEFT;
-            default: return Direction.NONE;
-        }
-    }
-
     /**
      * Get best direction towards target using a simple distance heuristic
      * @param availableDirections Available directions to choose from
@@ -236,7 +188,8 @@ public abstract class Ghost implements Movable, Collidable {
         Direction bestDirection = availableDirections.get(0);
         double minDistance = Double.MAX_VALUE;
 
-        for (Direction dir : availableDirections) {
+        for (int i = 0; i < availableDirections.size(); i++) {
+            Direction dir = availableDirections.get(i);
             // Calculate new position if moving in this direction
             int newRow = row;
             int newCol = column;
@@ -284,10 +237,18 @@ public abstract class Ghost implements Movable, Collidable {
         }
 
         // Choose random direction
-        int randomIndex = (int) (Math.random() * availableDirections.size());
+        int randomIndex = random.nextInt(availableDirections.size());
         return availableDirections.get(randomIndex);
     }
 
+    /**
+     * Set the random stream used for frightened movement
+     * @param random Random stream owned by this ghost
+     */
+    public void setRandom(SplittableRandom random) {
+        this.random = random;
+    }
+
     /**
      * Change ghost state
      * @param newState New state
@@ -318,7 +279,7 @@ public abstract class Ghost implements Movable, Collidable {
      * Get next animation frame
      */
     public void nextFrame() {
-        currentFrame = (currentFrame + 1) % animationFrames.size();
+        currentFrame = (currentFrame + 1) % getFrameCount();
     }
 
     // Interface method implementations
@@ -379,7 +340,7 @@ public abstract class Ghost implements Movable, Collidable {
      * @return The current frame image
      */
     public ImageIcon getCurrentFrame() {
-        return animationFrames.get(currentFrame);
+        return getAnimationFrames().get(currentFrame);
     }
 
     /**
@@ -387,6 +348,9 @@ public abstract class Ghost implements Movable, Collidable {
      * @return List of animation frames
      */
     public List<ImageIcon> getAnimationFrames() {
+        if (animationFrames == null) {
+            loadAnimationFrames();
+        }
         return animationFrames;
     }
 
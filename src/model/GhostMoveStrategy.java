@@ -0,0 +1,65 @@
+package model;
+
+/**
+ * Picks the way out of a cell towards a target, for ghosts and other AI movers.
+ * Implementations keep their own buffers, so one instance serves one game at a time.
+ */
+public interface GhostMoveStrategy {
+
+    /**
+     * Pick the next direction towards a target
+     * @param cell Cell index of the mover
+     * @param exits Mask of allowed exits, indexed by Direction ordinal
+     * @param targetRow Target row; may be a wall or outside the map
+     * @param targetColumn Target column; may be a wall or outside the map
+     * @return Direction ordinal, NONE if no allowed exit leads anywhere useful
+     */
+    int nextDirection(int cell, int exits, int targetRow, int targetColumn);
+
+    /**
+     * Pick the next direction for a known mover, so strategies can remember its path between
+     * calls; others answer as for any mover
+     * @param mover Index of the mover, e.g. the ghost's index in its store
+     * @return Direction ordinal, NONE if no allowed exit leads anywhere useful
+     */
+    default int nextDirection(int mover, int cell, int exits, int targetRow, int targetColumn) {
+        return nextDirection(cell, exits, targetRow, targetColumn);
+    }
+
+    /**
+     * Pick the next direction for a run of movers sharing one target, e.g. all ghosts heading
+     * for the same corner, so strategies can look the target up once for the whole run;
+     * others answer mover by mover
+     * @param movers Index of each mover
+     * @param cells Cell index of each mover
+     * @param exits Mask of allowed exits of each mover
+     * @param directions Receives each mover's direction ordinal, NONE as for nextDirection
+     * @param from First entry of the run
+     * @param to End of the run, exclusive
+     * @param targetRow Target row shared by the run
+     * @param targetColumn Target column shared by the run
+     */
+    default void nextDirections(int[] movers, int[] cells, int[] exits, int[] directions,
+                                int from, int to, int targetRow, int targetColumn) {
+        for (int k = from; k < to; k++) {
+            directions[k] = nextDirection(movers[k], cells[k], exits[k], targetRow, targetColumn);
+        }
+    }
+
+    /**
+     * Switch to another map of the same size, or note that the current map's walls changed
+     * @param gameMap The map to search from now on
+     */
+    void setGameMap(GameMapWithWalls gameMap);
+
+    /**
+     * Switch to a map that differs from the current one in a single cell, e.g. after a wall
+     * was destroyed. Strategies that can't patch what they cached start over.
+     * @param gameMap The map with the change
+     * @param row Row of the changed cell
+     * @param column Column of the changed cell
+     */
+    default void updateCell(GameMapWithWalls gameMap, int row, int column) {
+        setGameMap(gameMap);
+    }
+}
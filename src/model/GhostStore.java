@@ -0,0 +1,246 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * Structure-of-arrays store for all ghosts in a game.
+ * Every ghost is an index into parallel primitive arrays instead of an object,
+ * so thousands of ghosts cost a few dozen bytes each and ghost logic can walk
+ * them in tight loops.
+ */
+public class GhostStore {
+
+    private static final int INITIAL_CAPACITY = 4;
+
+    private int count;
+    private int[] rows;
+    private int[] columns;
+    private byte[] directions;   // Direction ordinals
+    private byte[] states;       // Ghost.GhostState ordinals
+    private int[] speeds;        // Fixed-point cells per second, see SubCellMotion
+    private int[] progress;      // Fixed-point distance travelled towards the next cell
+    private int[] targetRows;
+    private int[] targetColumns;
+    private int[] homeRows;      // Start position, also used as the ghost house
+    private int[] homeColumns;
+    private OccupancyIndex occupancy; // Optional cell index kept in sync with positions
+
+    public GhostStore() {
+        this(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Create a store with room for a number of ghosts
+     * @param capacity Initial capacity
+     */
+    public GhostStore(int capacity) {
+        int size = Math.max(capacity, 1);
+        rows = new int[size];
+        columns = new int[size];
+        directions = new byte[size];
+        states = new byte[size];
+        speeds = new int[size];
+        progress = new int[size];
+        targetRows = new int[size];
+        targetColumns = new int[size];
+        homeRows = new int[size];
+        homeColumns = new int[size];
+    }
+
+    /**
+     * Add a ghost
+     * @param row Starting row
+     * @param column Starting column
+     * @param cellsPerSecond Speed in cells per second
+     * @return Index of the new ghost
+     */
+    public int add(int row, int column, double cellsPerSecond) {
+        if (count == rows.length) {
+            grow();
+        }
+        int ghost = count++;
+        rows[ghost] = row;
+        columns[ghost] = column;
+        homeRows[ghost] = row;
+        homeColumns[ghost] = column;
+        directions[ghost] = (byte) Direction.NONE.ordinal();
+        states[ghost] = (byte) Ghost.GhostState.CHASE.ordinal();
+        speeds[ghost] = SubCellMotion.toFixed(cellsPerSecond);
+        progress[ghost] = 0;
+        targetRows[ghost] = row;
+        targetColumns[ghost] = column;
+        if (occupancy != null) {
+            occupancy.add(ghost, row, column);
+        }
+        return ghost;
+    }
+
+    /**
+     * Keep an occupancy index in sync with the ghost positions, ghost index as id.
+     * Code that moves ghosts through the raw arrays must report steps to the index itself.
+     * @param occupancy The index; existing ghosts are added to it
+     */
+    public void attachOccupancy(OccupancyIndex occupancy) {
+        this.occupancy = occupancy;
+        for (int ghost = 0; ghost < count; ghost++) {
+            occupancy.add(ghost, rows[ghost], columns[ghost]);
+        }
+    }
+
+    /**
+     * Get the attached occupancy index
+     * @return The index, or null if none is attached
+     */
+    public OccupancyIndex getOccupancy() {
+        return occupancy;
+    }
+
+    /**
+     * Double the capacity of every array
+     */
+    private void grow() {
+        int size = rows.length * 2;
+        rows = Arrays.copyOf(rows, size);
+        columns = Arrays.copyOf(columns, size);
+        directions = Arrays.copyOf(directions, size);
+        states = Arrays.copyOf(states, size);
+        speeds = Arrays.copyOf(speeds, size);
+        progress = Arrays.copyOf(progress, size);
+        targetRows = Arrays.copyOf(targetRows, size);
+        targetColumns = Arrays.copyOf(targetColumns, size);
+        homeRows = Arrays.copyOf(homeRows, size);
+        homeColumns = Arrays.copyOf(homeColumns, size);
+    }
+
+    /**
+     * Put every ghost back at its home position
+     */
+    public void resetPositions() {
+        System.arraycopy(homeRows, 0, rows, 0, count);
+        System.arraycopy(homeColumns, 0, columns, 0, count);
+        Arrays.fill(directions, 0, count, (byte) Direction.NONE.ordinal());
+        Arrays.fill(progress, 0, count, 0);
+        if (occupancy != null) {
+            for (int ghost = 0; ghost < count; ghost++) {
+                occupancy.place(ghost, rows[ghost], columns[ghost]);
+            }
+        }
+    }
+
+    /**
+     * Set the speed of every ghost
+     * @param cellsPerSecond Speed in cells per second
+     */
+    public void setAllSpeeds(double cellsPerSecond) {
+        Arrays.fill(speeds, 0, count, SubCellMotion.toFixed(cellsPerSecond));
+    }
+
+    /**
+     * Set the state of every ghost
+     * @param state The new state
+     */
+    public void setAllStates(Ghost.GhostState state) {
+        Arrays.fill(states, 0, count, (byte) state.ordinal());
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public int getRow(int ghost) {
+        return rows[ghost];
+    }
+
+    public int getColumn(int ghost) {
+        return columns[ghost];
+    }
+
+    public void setPosition(int ghost, int row, int column) {
+        rows[ghost] = row;
+        columns[ghost] = column;
+        if (occupancy != null) {
+            occupancy.place(ghost, row, column);
+        }
+    }
+
+    public Direction getDirection(int ghost) {
+        return Direction.values()[directions[ghost]];
+    }
+
+    public Ghost.GhostState getState(int ghost) {
+        return Ghost.GhostState.values()[states[ghost]];
+    }
+
+    public void setState(int ghost, Ghost.GhostState state) {
+        states[ghost] = (byte) state.ordinal();
+    }
+
+    /**
+     * Get a ghost's speed
+     * @param ghost Ghost index
+     * @return Speed in cells per second
+     */
+    public double getSpeed(int ghost) {
+        return SubCellMotion.toCellsPerSecond(speeds[ghost]);
+    }
+
+    /**
+     * Set a ghost's speed
+     * @param ghost Ghost index
+     * @param cellsPerSecond Speed in cells per second
+     */
+    public void setSpeed(int ghost, double cellsPerSecond) {
+        speeds[ghost] = SubCellMotion.toFixed(cellsPerSecond);
+    }
+
+    /**
+     * Get a ghost's fixed-point progress towards the next cell
+     * @param ghost Ghost index
+     * @return Progress, 0 when standing on a cell centre
+     */
+    public int getProgress(int ghost) {
+        return progress[ghost];
+    }
+
+    public int getHomeRow(int ghost) {
+        return homeRows[ghost];
+    }
+
+    public int getHomeColumn(int ghost) {
+        return homeColumns[ghost];
+    }
+
+    // Raw arrays for tight loops in the ghost logic; valid up to size()
+
+    public int[] rows() {
+        return rows;
+    }
+
+    public int[] columns() {
+        return columns;
+    }
+
+    public byte[] directions() {
+        return directions;
+    }
+
+    public byte[] states() {
+        return states;
+    }
+
+    public int[] speeds() {
+        return speeds;
+    }
+
+    public int[] progress() {
+        return progress;
+    }
+
+    public int[] targetRows() {
+        return targetRows;
+    }
+
+    public int[] targetColumns() {
+        return targetColumns;
+    }
+}
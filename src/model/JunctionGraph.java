@@ -0,0 +1,535 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * A map's corridors collapsed into a weighted graph, for path queries on maze-like maps.
+ * Junctions and dead ends (walkable cells without exactly two exits) become nodes; every
+ * corridor between two of them becomes one edge, weighted by its length in steps. Each
+ * corridor cell knows its edge, its offset from the edge's first end and which way each
+ * end lies, so a query starts from any cell and a search only visits junctions.
+ * A corridor that closes on itself without a junction gets one of its cells as a node.
+ * Queries are A* over the junctions (Manhattan heuristic, which never overestimates a
+ * corridor's length) with a binary heap of packed longs, ties going to the first step UP,
+ * DOWN, LEFT, RIGHT in that order, like the distance field cache. Dead ends other than the
+ * target's are never entered, since no path passes through them.
+ * After one cell changes, updateCell removes the nodes and edges around it and traces the
+ * freed corridors again; the rest of the graph is kept.
+ */
+public class JunctionGraph implements GhostMoveStrategy {
+
+    private static final int EMPTY = -1;
+
+    // Heap entries: estimated total distance, then first step, then node, so the heap pops
+    // ties by first step
+    private static final int STEP_SHIFT = 32;
+    private static final int DISTANCE_SHIFT = 35;
+    private static final long NODE_MASK = 0xFFFFFFFFL;
+
+    private GameMapWithWalls gameMap;
+
+    // Per cell: node id or EMPTY; edge id and offset from the edge's first end for corridor
+    // cells; and the way to the first end in the low two bits, to the second end above them
+    private final int[] cellNodes;
+    private final int[] cellEdges;
+    private final int[] cellOffsets;
+    private final byte[] cellLinks;
+
+    // Per node: its cell, row and column, and its edge per Direction ordinal, EMPTY where
+    // there is none
+    private int[] nodeCells = new int[16];
+    private int[] nodeRows = new int[16];
+    private int[] nodeColumns = new int[16];
+    private int[] nodeEdges = new int[64];
+    private int[] freeNodes = new int[16];
+    private int freeNodeCount;
+    private int nodeLimit;          // Node ids in use are below this
+    private int nodeCount;
+
+    // Per edge: node and way into the edge at both ends (first end at 2 * edge), and length
+    private int[] edgeNodes = new int[32];
+    private int[] edgeDirections = new int[32];
+    private int[] edgeLengths = new int[16];
+    private int[] freeEdges = new int[16];
+    private int freeEdgeCount;
+    private int edgeLimit;
+    private int edgeCount;
+
+    // Query state, stamped per query instead of cleared
+    private long[] nodeKeys = new long[16];
+    private int[] nodeDistances = new int[16];
+    private int[] nodeStamps = new int[16];
+    private long[] heap = new long[72];
+    private int heapSize;
+    private int stamp;
+    private int queryRow;
+    private int queryColumn;
+    private long settled;
+
+    // Cells to re-examine after an update
+    private final int[] dirty;
+    private int dirtyCount;
+
+    /**
+     * Build the graph of a map
+     * @param gameMap The map
+     */
+    public JunctionGraph(GameMapWithWalls gameMap) {
+        int cells = gameMap.getCellCount();
+        this.cellNodes = new int[cells];
+        this.cellEdges = new int[cells];
+        this.cellOffsets = new int[cells];
+        this.cellLinks = new byte[cells];
+        // An update frees each corridor cell once, plus the five changed cells and the two
+        // ends of each of the at most twenty edges around them
+        this.dirty = new int[cells + 48];
+        this.gameMap = gameMap;
+        build();
+    }
+
+    /**
+     * Switch to another map, or note that walls changed anywhere; rebuilds the whole graph
+     * @param gameMap The new map, same size as the old one
+     */
+    @Override
+    public void setGameMap(GameMapWithWalls gameMap) {
+        checkSize(gameMap);
+        this.gameMap = gameMap;
+        build();
+    }
+
+    /**
+     * Patch the graph around one cell whose walkability changed
+     * @param gameMap The map with the change, same as the current one everywhere else
+     */
+    @Override
+    public void updateCell(GameMapWithWalls gameMap, int row, int column) {
+        checkSize(gameMap);
+        this.gameMap = gameMap;
+        int cell = gameMap.getCellIndex(row, column);
+        dirtyCount = 0;
+        markChanged(cell);
+        if (row > 0) {
+            markChanged(cell - gameMap.getColumns());
+        }
+        if (row + 1 < gameMap.getRows()) {
+            markChanged(cell + gameMap.getColumns());
+        }
+        if (column > 0) {
+            markChanged(cell - 1);
+        }
+        if (column + 1 < gameMap.getColumns()) {
+            markChanged(cell + 1);
+        }
+
+        // Every freed cell is a corridor cell again unless its exits make it a node
+        for (int i = 0; i < dirtyCount; i++) {
+            int freed = dirty[i];
+            if (cellNodes[freed] == EMPTY && cellEdges[freed] == EMPTY && isNodeCell(freed)) {
+                addNode(freed);
+            }
+        }
+        for (int i = 0; i < dirtyCount; i++) {
+            traceFrom(dirty[i]);
+        }
+        closeLoops();
+    }
+
+    /**
+     * Get the number of nodes, junctions and dead ends
+     */
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * Get the number of edges, corridors between nodes
+     */
+    public int getEdgeCount() {
+        return edgeCount;
+    }
+
+    /**
+     * Get the node at a cell
+     * @param cell Cell index
+     * @return Node id, -1 for walls and corridor cells
+     */
+    public int getNode(int cell) {
+        return cellNodes[cell];
+    }
+
+    /**
+     * Get the edge a corridor cell lies on
+     * @param cell Cell index
+     * @return Edge id, -1 for walls and node cells
+     */
+    public int getEdge(int cell) {
+        return cellEdges[cell];
+    }
+
+    /**
+     * Get a corridor cell's distance along its edge from the edge's first end
+     * @param cell Cell index of a corridor cell
+     * @return Steps from the first end, between 1 and the edge's length - 1
+     */
+    public int getEdgeOffset(int cell) {
+        return cellOffsets[cell];
+    }
+
+    /**
+     * Get an edge's length
+     * @param edge Edge id
+     * @return Steps from one end node to the other
+     */
+    public int getEdgeLength(int edge) {
+        return edgeLengths[edge];
+    }
+
+    /**
+     * Get the number of nodes settled over all queries so far
+     */
+    public long getSettledCount() {
+        return settled;
+    }
+
+    /**
+     * Find the first step of a shortest path to a target
+     * @return Direction ordinal, ties going to UP, DOWN, LEFT, RIGHT in that order;
+     *         NONE if no exit is allowed or the target can't be reached through any of them
+     */
+    @Override
+    public int nextDirection(int cell, int exits, int targetRow, int targetColumn) {
+        int target = gameMap.nearestWalkableCell(targetRow, targetColumn);
+        if (exits == 0 || target < 0) {
+            return GameMap.NONE;
+        }
+        if (target == cell) {
+            // Every neighbour is one step away
+            return Integer.numberOfTrailingZeros(exits);
+        }
+        if (++stamp == Integer.MAX_VALUE) {
+            Arrays.fill(nodeStamps, 0);
+            stamp = 1;
+        }
+        heapSize = 0;
+        queryRow = gameMap.getCellRow(target);
+        queryColumn = gameMap.getCellColumn(target);
+
+        // Where the target sits: a node, or an edge and the offset from its first end
+        int targetNode = cellNodes[target];
+        int targetEdge = cellEdges[target];
+        int targetOffset = cellOffsets[target];
+        int firstEnd = targetEdge == EMPTY ? EMPTY : edgeNodes[2 * targetEdge];
+        int secondEnd = targetEdge == EMPTY ? EMPTY : edgeNodes[2 * targetEdge + 1];
+        int targetLength = targetEdge == EMPTY ? 0 : edgeLengths[targetEdge];
+        long best = Long.MAX_VALUE;
+
+        // Seed the search through each allowed exit: one step to the neighbour, then the
+        // shortest way on from there, which may turn straight back as a distance field's
+        // would. A corridor neighbour seeds both its ends, and leads straight to a target
+        // on the same corridor.
+        while (exits != 0) {
+            int direction = Integer.numberOfTrailingZeros(exits);
+            exits &= exits - 1;
+            int next = cell + gameMap.getCellDelta(direction);
+            int node = cellNodes[next];
+            int edge = cellEdges[next];
+            if (next == target) {
+                best = Math.min(best, key(1, direction, 0));
+            } else if (node != EMPTY) {
+                offer(node, 1, direction);
+            } else if (edge != EMPTY) {
+                int offset = cellOffsets[next];
+                offer(edgeNodes[2 * edge], 1 + offset, direction);
+                offer(edgeNodes[2 * edge + 1], 1 + edgeLengths[edge] - offset, direction);
+                if (edge == targetEdge) {
+                    best = Math.min(best, key(1 + Math.abs(offset - targetOffset), direction, 0));
+                }
+            }
+        }
+
+        while (heapSize > 0) {
+            long entry = pop();
+            int current = (int) (entry & NODE_MASK);
+            if (entry != nodeKeys[current]) {
+                continue;  // Stale: a shorter way to the node was pushed after this one
+            }
+            if ((entry & ~NODE_MASK) >= best) {
+                break;     // No way on from here can beat the best one found
+            }
+            settled++;
+            int distance = nodeDistances[current];
+            int step = (int) (entry >>> STEP_SHIFT) & 7;
+
+            // The target, or one end of the target's corridor
+            if (current == targetNode) {
+                best = Math.min(best, key(distance, step, 0));
+            }
+            if (current == firstEnd) {
+                best = Math.min(best, key(distance + targetOffset, step, 0));
+            }
+            if (current == secondEnd) {
+                best = Math.min(best, key(distance + targetLength - targetOffset, step, 0));
+            }
+
+            for (int direction = 0; direction < GameMap.NONE; direction++) {
+                int edge = nodeEdges[4 * current + direction];
+                if (edge == EMPTY) {
+                    continue;
+                }
+                int next = edgeNodes[2 * edge + (endAt(edge, current, direction) ^ 1)];
+                if (Integer.bitCount(gameMap.getExitMask(nodeCells[next])) == 1
+                        && next != targetNode && next != firstEnd && next != secondEnd) {
+                    continue;  // A dead end away from the target leads nowhere
+                }
+                offer(next, distance + edgeLengths[edge], step);
+            }
+        }
+        return best == Long.MAX_VALUE ? GameMap.NONE : (int) (best >>> STEP_SHIFT) & 7;
+    }
+
+    private static long key(int distance, int step, int node) {
+        return (long) distance << DISTANCE_SHIFT | (long) step << STEP_SHIFT | node;
+    }
+
+    /**
+     * Push a node if this way to it beats the best one this query has seen
+     */
+    private void offer(int node, int distance, int step) {
+        // The heuristic is fixed per node, so a node's entries still order by distance
+        int estimate = Math.abs(nodeRows[node] - queryRow) + Math.abs(nodeColumns[node] - queryColumn);
+        long entry = key(distance + estimate, step, node);
+        if (nodeStamps[node] == stamp && entry >= nodeKeys[node]) {
+            return;
+        }
+        nodeStamps[node] = stamp;
+        nodeKeys[node] = entry;
+        nodeDistances[node] = distance;
+        int i = heapSize++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (heap[parent] <= entry) {
+                break;
+            }
+            heap[i] = heap[parent];
+            i = parent;
+        }
+        heap[i] = entry;
+    }
+
+    private long pop() {
+        long top = heap[0];
+        long last = heap[--heapSize];
+        int i = 0;
+        int half = heapSize >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            if (child + 1 < heapSize && heap[child + 1] < heap[child]) {
+                child++;
+            }
+            if (heap[child] >= last) {
+                break;
+            }
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = last;
+        return top;
+    }
+
+    /**
+     * Get which end of an edge a node's exit is; a corridor looping back to the same node
+     * has it at both ends, told apart by the way into the edge
+     * @return 0 for the first end, 1 for the second
+     */
+    private int endAt(int edge, int node, int direction) {
+        return edgeNodes[2 * edge] == node && edgeDirections[2 * edge] == direction ? 0 : 1;
+    }
+
+    private void checkSize(GameMapWithWalls gameMap) {
+        if (gameMap.getCellCount() != cellNodes.length) {
+            throw new IllegalArgumentException("Map size changed: " + gameMap.getRows() + "x" + gameMap.getColumns());
+        }
+    }
+
+    /**
+     * Collapse the whole map: make every node, trace every corridor from them, then give
+     * each corridor loop left over a node of its own
+     */
+    private void build() {
+        Arrays.fill(cellNodes, EMPTY);
+        Arrays.fill(cellEdges, EMPTY);
+        nodeLimit = 0;
+        nodeCount = 0;
+        freeNodeCount = 0;
+        edgeLimit = 0;
+        edgeCount = 0;
+        freeEdgeCount = 0;
+        for (int cell = 0; cell < cellNodes.length; cell++) {
+            if (isNodeCell(cell)) {
+                addNode(cell);
+            }
+        }
+        for (int node = 0; node < nodeLimit; node++) {
+            traceFrom(nodeCells[node]);
+        }
+        dirtyCount = 0;
+        for (int cell = 0; cell < cellNodes.length; cell++) {
+            if (gameMap.isWalkableCell(cell) && cellNodes[cell] == EMPTY && cellEdges[cell] == EMPTY) {
+                dirty[dirtyCount++] = cell;
+            }
+        }
+        closeLoops();
+    }
+
+    private boolean isNodeCell(int cell) {
+        return gameMap.isWalkableCell(cell) && Integer.bitCount(gameMap.getExitMask(cell)) != 2;
+    }
+
+    /**
+     * Free a cell next to a change: drop its node or the edge it lies on
+     */
+    private void markChanged(int cell) {
+        int node = cellNodes[cell];
+        if (node != EMPTY) {
+            for (int direction = 0; direction < GameMap.NONE; direction++) {
+                int edge = nodeEdges[4 * node + direction];
+                if (edge != EMPTY) {
+                    removeEdge(edge);
+                }
+            }
+            cellNodes[cell] = EMPTY;
+            freeNodes[freeNodeCount++] = node;
+            nodeCount--;
+        } else if (cellEdges[cell] != EMPTY) {
+            removeEdge(cellEdges[cell]);
+        }
+        dirty[dirtyCount++] = cell;
+    }
+
+    /**
+     * Drop an edge, freeing its corridor cells and queueing its end nodes for tracing
+     */
+    private void removeEdge(int edge) {
+        int first = edgeNodes[2 * edge];
+        int second = edgeNodes[2 * edge + 1];
+        // Walk the corridor by the stored links, since the map may have changed under it
+        int cell = nodeCells[first] + gameMap.getCellDelta(edgeDirections[2 * edge]);
+        for (int offset = 1; offset < edgeLengths[edge]; offset++) {
+            cellEdges[cell] = EMPTY;
+            dirty[dirtyCount++] = cell;
+            cell += gameMap.getCellDelta(cellLinks[cell] >>> 2);
+        }
+        nodeEdges[4 * first + edgeDirections[2 * edge]] = EMPTY;
+        nodeEdges[4 * second + edgeDirections[2 * edge + 1]] = EMPTY;
+        dirty[dirtyCount++] = nodeCells[first];
+        dirty[dirtyCount++] = nodeCells[second];
+        freeEdges[freeEdgeCount++] = edge;
+        edgeCount--;
+    }
+
+    private void addNode(int cell) {
+        int node;
+        if (freeNodeCount > 0) {
+            node = freeNodes[--freeNodeCount];
+        } else {
+            node = nodeLimit++;
+            if (node == nodeCells.length) {
+                int capacity = node * 2;
+                nodeCells = Arrays.copyOf(nodeCells, capacity);
+                nodeEdges = Arrays.copyOf(nodeEdges, 4 * capacity);
+                freeNodes = Arrays.copyOf(freeNodes, capacity);
+                nodeRows = Arrays.copyOf(nodeRows, capacity);
+                nodeColumns = Arrays.copyOf(nodeColumns, capacity);
+                nodeKeys = Arrays.copyOf(nodeKeys, capacity);
+                nodeDistances = Arrays.copyOf(nodeDistances, capacity);
+                nodeStamps = Arrays.copyOf(nodeStamps, capacity);
+                // One heap entry per relaxed edge end, plus two seeds per exit
+                heap = Arrays.copyOf(heap, 4 * capacity + 8);
+            }
+        }
+        nodeCells[node] = cell;
+        nodeRows[node] = gameMap.getCellRow(cell);
+        nodeColumns[node] = gameMap.getCellColumn(cell);
+        Arrays.fill(nodeEdges, 4 * node, 4 * node + 4, EMPTY);
+        cellNodes[cell] = node;
+        nodeCount++;
+    }
+
+    /**
+     * Trace every corridor leaving a node cell that has no edge yet
+     */
+    private void traceFrom(int cell) {
+        int node = cellNodes[cell];
+        if (node == EMPTY) {
+            return;
+        }
+        int exits = gameMap.getExitMask(cell);
+        while (exits != 0) {
+            int direction = Integer.numberOfTrailingZeros(exits);
+            exits &= exits - 1;
+            if (nodeEdges[4 * node + direction] == EMPTY) {
+                traceEdge(node, direction);
+            }
+        }
+    }
+
+    /**
+     * Follow a corridor from a node to the node at its other end
+     */
+    private void traceEdge(int node, int direction) {
+        int edge = allocateEdge();
+        int heading = direction;
+        int cell = nodeCells[node] + gameMap.getCellDelta(direction);
+        int length = 1;
+        while (cellNodes[cell] == EMPTY) {
+            // Two exits: the way back and the way on
+            int back = heading ^ 1;
+            heading = Integer.numberOfTrailingZeros(gameMap.getExitMask(cell) & ~(1 << back));
+            cellEdges[cell] = edge;
+            cellOffsets[cell] = length;
+            cellLinks[cell] = (byte) (back | heading << 2);
+            cell += gameMap.getCellDelta(heading);
+            length++;
+        }
+        int end = cellNodes[cell];
+        edgeNodes[2 * edge] = node;
+        edgeDirections[2 * edge] = direction;
+        edgeNodes[2 * edge + 1] = end;
+        edgeDirections[2 * edge + 1] = heading ^ 1;
+        edgeLengths[edge] = length;
+        nodeEdges[4 * node + direction] = edge;
+        nodeEdges[4 * end + (heading ^ 1)] = edge;
+    }
+
+    private int allocateEdge() {
+        edgeCount++;
+        if (freeEdgeCount > 0) {
+            return freeEdges[--freeEdgeCount];
+        }
+        int edge = edgeLimit++;
+        if (edge == edgeLengths.length) {
+            int capacity = edge * 2;
+            edgeNodes = Arrays.copyOf(edgeNodes, 2 * capacity);
+            edgeDirections = Arrays.copyOf(edgeDirections, 2 * capacity);
+            edgeLengths = Arrays.copyOf(edgeLengths, capacity);
+            freeEdges = Arrays.copyOf(freeEdges, capacity);
+        }
+        return edge;
+    }
+
+    /**
+     * Give every dirty corridor cell still without an edge a node; only corridors that
+     * close on themselves are left over after tracing from the nodes
+     */
+    private void closeLoops() {
+        for (int i = 0; i < dirtyCount; i++) {
+            int cell = dirty[i];
+            if (gameMap.isWalkableCell(cell) && cellNodes[cell] == EMPTY && cellEdges[cell] == EMPTY) {
+                addNode(cell);
+                traceFrom(cell);
+            }
+        }
+        dirtyCount = 0;
+    }
+}
@@ -0,0 +1,82 @@
+package model;
+
+/**
+ * Read-only description of a level that any number of games can share:
+ * the walls with their exit masks and wall segments, where every edible sits, and the
+ * distance fields towards the four corners scattering ghosts head for and towards the
+ * ghost home eaten ghosts head for.
+ * Nothing reachable from a topology is changed after it is built; each game keeps
+ * what it changes in its own GameOverlay, so the level itself is stored once however
+ * many games run on it. A game still holds two arrays with one entry per cell: the
+ * distances of the chase field following its Pacman, and its ghost occupancy index.
+ * It only builds distance fields of its own once its walls differ from the level's.
+ */
+public final class LevelTopology {
+
+    // Scatter corners and the ghost home, one field each
+    private static final int SHARED_FIELDS = 5;
+
+    private final GameMapWithWalls map;
+    private final DotGrid dots;
+    private final DistanceFieldCache sharedFields;
+
+    /**
+     * Build a topology from a map and an edible layout.
+     * The map and the layout are copied, so neither can change underneath the games, and the
+     * copied layout is frozen here, before any game shares it.
+     * @param map Map with the level's walls
+     * @param dots Edibles of the level, point indices as in DotGrid.add
+     * @param ghostHomeRow Row of the ghost home
+     * @param ghostHomeColumn Column of the ghost home
+     */
+    public LevelTopology(GameMapWithWalls map, DotGrid dots, int ghostHomeRow, int ghostHomeColumn) {
+        this.map = new GameMapWithWalls(map);
+        this.dots = new DotGrid(dots);
+        this.dots.freezeLayout();
+        // Build the wall segments once so games never race to build them
+        this.map.getWallSegments();
+        this.map.freeze();
+
+        int lastRow = this.map.getRows() - 1;
+        int lastColumn = this.map.getColumns() - 1;
+        this.sharedFields = new DistanceFieldCache(this.map, SHARED_FIELDS);
+        sharedFields.prepare(0, 0);
+        sharedFields.prepare(0, lastColumn);
+        sharedFields.prepare(lastRow, 0);
+        sharedFields.prepare(lastRow, lastColumn);
+        sharedFields.prepare(ghostHomeRow, ghostHomeColumn);
+        sharedFields.freeze();
+    }
+
+    /**
+     * Get the shared map
+     * @return The level's map, frozen: setWalkable throws, so changes go to a copy
+     */
+    public GameMapWithWalls getMap() {
+        return map;
+    }
+
+    /**
+     * Get the distance fields towards the map corners and the ghost home, measured on the shared map
+     * @return Frozen cache; see DistanceFieldCache.setSharedFields
+     */
+    public DistanceFieldCache getSharedFields() {
+        return sharedFields;
+    }
+
+    /**
+     * Get the shared edible layout; nothing is ever eaten on it
+     * @return The level's edibles
+     */
+    public DotGrid getDots() {
+        return dots;
+    }
+
+    public int getRows() {
+        return map.getRows();
+    }
+
+    public int getColumns() {
+        return map.getColumns();
+    }
+}
@@ -0,0 +1,281 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * Grid-bucketed index of which entities occupy which cell.
+ * Entities are small integer ids (e.g. ghost or list indices); each cell holds the
+ * head of a doubly linked list of the ids on it, so "who is in this cell" and
+ * "who is next to it" are O(1) and moving an entity is O(1).
+ * Steps taken since beginTick() are remembered, so two entities that swap cells
+ * in the same tick can be caught by a swept check.
+ */
+public class OccupancyIndex {
+
+    public static final int NONE = -1;
+
+    private static final int INITIAL_CAPACITY = 4;
+
+    private final int rows;
+    private final int columns;
+    private final int[] heads;       // First id per cell, NONE when empty
+    private int[] next;              // Next id in the same cell
+    private int[] previous;          // Previous id in the same cell
+    private int[] cells;             // Cell per id, NONE when not indexed
+    private int[] fromCells;         // Cell the id stepped from
+    private int[] stepTicks;         // Tick of that step
+    private int tick = 1;            // 0 in stepTicks means no step
+
+    /**
+     * Create an empty index for a map
+     * @param rows Number of rows
+     * @param columns Number of columns
+     */
+    public OccupancyIndex(int rows, int columns) {
+        this.rows = rows;
+        this.columns = columns;
+        this.heads = new int[rows * columns];
+        Arrays.fill(heads, NONE);
+        this.next = new int[INITIAL_CAPACITY];
+        this.previous = new int[INITIAL_CAPACITY];
+        this.cells = new int[INITIAL_CAPACITY];
+        this.fromCells = new int[INITIAL_CAPACITY];
+        this.stepTicks = new int[INITIAL_CAPACITY];
+        Arrays.fill(cells, NONE);
+    }
+
+    /**
+     * Start a new tick; steps from earlier ticks no longer count for swept checks
+     */
+    public void beginTick() {
+        tick++;
+    }
+
+    /**
+     * Add an entity, or teleport it if it is already indexed
+     * @param id Entity id, 0 or greater
+     * @param row Row
+     * @param column Column
+     */
+    public void add(int id, int row, int column) {
+        if (id < 0) {
+            throw new IllegalArgumentException("Id must not be negative: " + id);
+        }
+        if (id >= cells.length) {
+            grow(id + 1);
+        }
+        place(id, row, column);
+    }
+
+    /**
+     * Remove an entity from the index
+     * @param id Entity id
+     */
+    public void remove(int id) {
+        if (id < cells.length) {
+            unlink(id);
+            stepTicks[id] = 0;
+        }
+    }
+
+    /**
+     * Put an entity on a cell without recording a step, e.g. after a reset
+     * @param id Entity id added before
+     * @param row Row
+     * @param column Column
+     */
+    public void place(int id, int row, int column) {
+        unlink(id);
+        stepTicks[id] = 0;
+        link(id, cellAt(row, column));
+    }
+
+    /**
+     * Move an entity to a neighbouring cell, remembering where it came from this tick
+     * @param id Entity id added before
+     * @param row New row
+     * @param column New column
+     */
+    public void move(int id, int row, int column) {
+        moveCell(id, cellAt(row, column));
+    }
+
+    /**
+     * Move an entity to a neighbouring cell by index, remembering where it came from this tick
+     * @param id Entity id added before
+     * @param cell New cell index, row * columns + column
+     */
+    public void moveCell(int id, int cell) {
+        int from = cells[id];
+        if (cell == from) {
+            return;
+        }
+        unlink(id);
+        fromCells[id] = from;
+        stepTicks[id] = tick;
+        link(id, cell);
+    }
+
+    /**
+     * Get the first entity on a cell
+     * @param row Row
+     * @param column Column
+     * @return Entity id, or NONE if the cell is empty or outside the map
+     */
+    public int firstAt(int row, int column) {
+        int cell = cellAt(row, column);
+        return cell == NONE ? NONE : heads[cell];
+    }
+
+    /**
+     * Get the first entity on a cell by index, without bounds checks
+     * @param cell Cell index, row * columns + column
+     * @return Entity id, or NONE if the cell is empty
+     */
+    public int firstAtCell(int cell) {
+        return heads[cell];
+    }
+
+    /**
+     * Get the next entity on the same cell, to walk a cell without allocating
+     * @param id Entity id from firstAt or nextInCell
+     * @return Next entity id, or NONE
+     */
+    public int nextInCell(int id) {
+        return next[id];
+    }
+
+    public boolean isOccupied(int row, int column) {
+        return firstAt(row, column) != NONE;
+    }
+
+    public boolean isOccupiedCell(int cell) {
+        return heads[cell] != NONE;
+    }
+
+    /**
+     * Get the first entity on one of the four neighbouring cells
+     * @param row Row
+     * @param column Column
+     * @return Entity id, or NONE if no neighbour is occupied
+     */
+    public int findAdjacent(int row, int column) {
+        int id = firstAt(row - 1, column);
+        if (id == NONE) {
+            id = firstAt(row + 1, column);
+        }
+        if (id == NONE) {
+            id = firstAt(row, column - 1);
+        }
+        if (id == NONE) {
+            id = firstAt(row, column + 1);
+        }
+        return id;
+    }
+
+    /**
+     * Swept check for an entity that stepped from one cell to another this tick:
+     * finds an entity that stepped the opposite way, so the two passed through each other
+     * @param fromRow Row the mover left
+     * @param fromColumn Column the mover left
+     * @param toRow Row the mover entered
+     * @param toColumn Column the mover entered
+     * @return Entity id, or NONE if nothing swapped cells with the mover
+     */
+    public int findSwept(int fromRow, int fromColumn, int toRow, int toColumn) {
+        return findSweptCells(cellAt(fromRow, fromColumn), cellAt(toRow, toColumn));
+    }
+
+    /**
+     * Swept check by cell index, see findSwept
+     * @param from Cell index the mover left, or NONE
+     * @param to Cell index the mover entered, or NONE
+     * @return Entity id, or NONE if nothing swapped cells with the mover
+     */
+    public int findSweptCells(int from, int to) {
+        if (from == NONE || to == NONE || from == to) {
+            return NONE;
+        }
+        for (int id = heads[from]; id != NONE; id = next[id]) {
+            if (stepTicks[id] == tick && fromCells[id] == to) {
+                return id;
+            }
+        }
+        return NONE;
+    }
+
+    /**
+     * Find a collision for an indexed entity: another entity on its cell, or one it
+     * swapped cells with this tick
+     * @param id Entity id
+     * @return Other entity id, or NONE
+     */
+    public int findCollision(int id) {
+        int cell = cells[id];
+        if (cell == NONE) {
+            return NONE;
+        }
+        for (int other = heads[cell]; other != NONE; other = next[other]) {
+            if (other != id) {
+                return other;
+            }
+        }
+        if (stepTicks[id] == tick) {
+            int from = fromCells[id];
+            for (int other = from == NONE ? NONE : heads[from]; other != NONE; other = next[other]) {
+                if (stepTicks[other] == tick && fromCells[other] == cell) {
+                    return other;
+                }
+            }
+        }
+        return NONE;
+    }
+
+    private int cellAt(int row, int column) {
+        if (row < 0 || row >= rows || column < 0 || column >= columns) {
+            return NONE;
+        }
+        return row * columns + column;
+    }
+
+    private void link(int id, int cell) {
+        cells[id] = cell;
+        previous[id] = NONE;
+        next[id] = NONE;
+        if (cell != NONE) {
+            int head = heads[cell];
+            next[id] = head;
+            if (head != NONE) {
+                previous[head] = id;
+            }
+            heads[cell] = id;
+        }
+    }
+
+    private void unlink(int id) {
+        int cell = cells[id];
+        if (cell == NONE) {
+            return;
+        }
+        if (previous[id] != NONE) {
+            next[previous[id]] = next[id];
+        } else {
+            heads[cell] = next[id];
+        }
+        if (next[id] != NONE) {
+            previous[next[id]] = previous[id];
+        }
+        cells[id] = NONE;
+    }
+
+    private void grow(int minCapacity) {
+        int size = Math.max(minCapacity, cells.length * 2);
+        int oldSize = cells.length;
+        next = Arrays.copyOf(next, size);
+        previous = Arrays.copyOf(previous, size);
+        cells = Arrays.copyOf(cells, size);
+        fromCells = Arrays.copyOf(fromCells, size);
+        stepTicks = Arrays.copyOf(stepTicks, size);
+        Arrays.fill(cells, oldSize, size, NONE);
+    }
+}
@@ -5,7 +5,10 @@ import java.util.List;
 import javax.swing.ImageIcon;
 
 // Pacman model implements both Movable and Collidable
+// Animation images are loaded on first use so the model can run headless
 public class PacmanModel implements Movable, Collidable {
+    private static final int FRAME_COUNT = 3;
+
     private int row;
     private int column;
     private Direction currentDirection;
@@ -19,7 +22,6 @@ public class PacmanModel implements Movable, Collidable {
         this.currentDirection = Direction.NONE;
         this.speed = 1;
         this.currentFrame = 0;
-        loadAnimationFrames();
     }
 
     private void loadAnimationFrames() {
@@ -27,7 +29,7 @@ public class PacmanModel implements Movable, Collidable {
 
         // Load the three animation frames
         try {
-            for (int i = 1; i <= 3; i++) {
+            for (int i = 1; i <= FRAME_COUNT; i++) {
                 String path = "res/pacman/pacman" + i + ".png";
                 ImageIcon icon = new ImageIcon(path);
                 animationFrames.add(icon);
@@ -89,14 +91,25 @@ public class PacmanModel implements Movable, Collidable {
     }
 
     public ImageIcon getCurrentFrame() {
-        return animationFrames.get(currentFrame);
+        List<ImageIcon> frames = getAnimationFrames();
+        if (currentFrame >= frames.size()) {
+            return null;
+        }
+        return frames.get(currentFrame);
     }
 
     public void nextFrame() {
-        currentFrame = (currentFrame + 1) % animationFrames.size();
+        currentFrame = (currentFrame + 1) % FRAME_COUNT;
+    }
+
+    public int getCurrentFrameIndex() {
+        return currentFrame;
     }
 
     public List<ImageIcon> getAnimationFrames() {
+        if (animationFrames == null) {
+            loadAnimationFrames();
+        }
         return animationFrames;
     }
 }
\ No newline at end of file
@@ -5,4 +5,13 @@ public interface Positionable {
     int getRow();
     int getColumn();
     void setPosition(int row, int column);
+
+    /**
+     * Get the packed cell index of the position, see GameMap.getCellIndex
+     * @param columns Number of map columns
+     * @return row * columns + column
+     */
+    default int getCell(int columns) {
+        return getRow() * columns + getColumn();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,71 @@
+package model;
+
+/**
+ * Fixed-point helpers for sub-cell movement.
+ * An entity sits on a cell and carries a progress value in 16.16 fixed point
+ * towards the neighbouring cell in its direction of travel; speeds are cells per
+ * second in the same format, so entities with different speeds share one tick loop.
+ */
+public final class SubCellMotion {
+    public static final int SHIFT = 16;
+    public static final int ONE = 1 << SHIFT;          // One whole cell
+
+    // Fastest allowed speed, matching the old 50 ms minimum move delay
+    public static final double MAX_CELLS_PER_SECOND = 20.0;
+
+    // Motion events returned by the movement systems, combined as bits
+    public static final int NOT_MOVED = 0;
+    public static final int MOVED = 1;                 // Progress advanced within a cell
+    public static final int ENTERED_CELL = 1 << 1;     // Crossed into a new cell
+
+    private SubCellMotion() {
+        // Constants and helpers only
+    }
+
+    /**
+     * Convert a speed to fixed point, clamped to the allowed range
+     * @param cellsPerSecond Speed in cells per second
+     * @return Speed in 16.16 fixed-point cells per second
+     */
+    public static int toFixed(double cellsPerSecond) {
+        double clamped = Math.max(0.0, Math.min(cellsPerSecond, MAX_CELLS_PER_SECOND));
+        return (int) Math.round(clamped * ONE);
+    }
+
+    /**
+     * Convert a fixed-point speed back to cells per second
+     * @param fixedSpeed Speed in 16.16 fixed-point cells per second
+     * @return Speed in cells per second
+     */
+    public static double toCellsPerSecond(int fixedSpeed) {
+        return (double) fixedSpeed / ONE;
+    }
+
+    /**
+     * Convert an old-style move delay into a speed
+     * @param delayMs Milliseconds per cell
+     * @return Speed in 16.16 fixed-point cells per second
+     */
+    public static int delayToFixed(int delayMs) {
+        return toFixed(1000.0 / delayMs);
+    }
+
+    /**
+     * Convert a speed into the equivalent move delay
+     * @param fixedSpeed Speed in 16.16 fixed-point cells per second
+     * @return Milliseconds per cell, or 0 for a standing entity
+     */
+    public static int fixedToDelay(int fixedSpeed) {
+        return fixedSpeed == 0 ? 0 : (int) Math.round(1000.0 * ONE / fixedSpeed);
+    }
+
+    /**
+     * Get the distance covered in some time
+     * @param fixedSpeed Speed in 16.16 fixed-point cells per second
+     * @param elapsedMs Elapsed time in milliseconds
+     * @return Distance in 16.16 fixed-point cells
+     */
+    public static int advance(int fixedSpeed, int elapsedMs) {
+        return (int) ((long) fixedSpeed * elapsedMs / 1000);
+    }
+}
@@ -0,0 +1,12 @@
+package model;
+
+// Interface for the walkability contract shared by every map representation
+public interface WalkableMap {
+    /**
+     * Check if a cell can be walked on
+     * @return false for walls and for cells outside the map
+     */
+    boolean isWalkable(int row, int column);
+    int getRows();
+    int getColumns();
+}
@@ -0,0 +1,145 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * Horizontal run-length encoding of a map's walls.
+ * Each segment is a run of consecutive wall cells on one row, stored as parallel
+ * int arrays ordered by row and then column, so a whole maze is a few arrays instead
+ * of one object per wall cell. Segments are read through index-based getters; nothing
+ * is copied and the arrays are never handed out.
+ */
+public class WallSegments {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final int rows;
+    private final int[] rowStarts;   // First segment per row; rowStarts[rows] is the segment count
+    private int[] segmentRows;
+    private int[] segmentColumns;
+    private int[] lengths;
+    private int count;
+    private int cellCount;
+
+    /**
+     * Build the segments from a map's walkability bitset; every non-walkable cell is a wall
+     * @param gameMap The game map
+     */
+    public WallSegments(GameMap gameMap) {
+        this.rows = gameMap.getRows();
+        this.rowStarts = new int[rows + 1];
+        this.segmentRows = new int[INITIAL_CAPACITY];
+        this.segmentColumns = new int[INITIAL_CAPACITY];
+        this.lengths = new int[INITIAL_CAPACITY];
+
+        int columns = gameMap.getColumns();
+        for (int row = 0; row < rows; row++) {
+            rowStarts[row] = count;
+            int start = gameMap.nextWall(row, 0);
+            while (start >= 0) {
+                int end = gameMap.nextWalkable(row, start);
+                if (end < 0) {
+                    end = columns;
+                }
+                append(row, start, end - start);
+                start = end < columns ? gameMap.nextWall(row, end) : -1;
+            }
+        }
+        rowStarts[rows] = count;
+    }
+
+    /**
+     * Get the number of segments
+     * @return Segment count
+     */
+    public int size() {
+        return count;
+    }
+
+    public int getRow(int segment) {
+        return segmentRows[segment];
+    }
+
+    /**
+     * Get the first column of a segment
+     * @param segment Segment index, 0 to size() - 1
+     * @return Column of the leftmost wall cell
+     */
+    public int getColumn(int segment) {
+        return segmentColumns[segment];
+    }
+
+    /**
+     * Get the number of wall cells in a segment
+     * @param segment Segment index, 0 to size() - 1
+     * @return Length in cells, at least 1
+     */
+    public int getLength(int segment) {
+        return lengths[segment];
+    }
+
+    /**
+     * Get the first segment of a row; the row's segments run up to getRowEnd(row)
+     * @param row Row
+     * @return Segment index
+     */
+    public int getRowStart(int row) {
+        return rowStarts[row];
+    }
+
+    /**
+     * Get the segment after the last one of a row
+     * @param row Row
+     * @return Segment index, exclusive
+     */
+    public int getRowEnd(int row) {
+        return rowStarts[row + 1];
+    }
+
+    /**
+     * Get the total number of wall cells over all segments
+     * @return Wall cell count
+     */
+    public int getCellCount() {
+        return cellCount;
+    }
+
+    /**
+     * Check if a cell is covered by a segment, by binary search over its row
+     * @param row Row
+     * @param column Column
+     * @return true if the cell is a wall; false outside the map
+     */
+    public boolean contains(int row, int column) {
+        if (row < 0 || row >= rows) {
+            return false;
+        }
+        int low = rowStarts[row];
+        int high = rowStarts[row + 1] - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (segmentColumns[middle] > column) {
+                high = middle - 1;
+            } else if (segmentColumns[middle] + lengths[middle] <= column) {
+                low = middle + 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void append(int row, int column, int length) {
+        if (count == lengths.length) {
+            int size = count * 2;
+            segmentRows = Arrays.copyOf(segmentRows, size);
+            segmentColumns = Arrays.copyOf(segmentColumns, size);
+            lengths = Arrays.copyOf(lengths, size);
+        }
+        segmentRows[count] = row;
+        segmentColumns[count] = column;
+        lengths[count] = length;
+        count++;
+        cellCount += length;
+    }
+}
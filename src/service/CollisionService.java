@@ -1,6 +1,8 @@
 package service;
 
 import model.Collidable;
+import model.OccupancyIndex;
+import model.WallSegments;
 
 import java.util.List;
 
@@ -49,4 +51,69 @@ public class CollisionService {
         }
         return false;
     }
-}
\ No newline at end of file
+
+    /**
+     * Predict if moving to a position would hit a wall, by binary search over the row's segments
+     * @param row Target row position
+     * @param column Target column position
+     * @param walls Wall segments of the map
+     * @return true if the cell is a wall
+     */
+    public static boolean wouldCollide(int row, int column, WallSegments walls) {
+        return walls.contains(row, column);
+    }
+
+    /**
+     * Check for collisions using an occupancy index over the objects, in O(1).
+     * Catches objects on the same cell and objects that swapped cells with it this tick.
+     * @param id Index of the object in objects and in the occupancy index
+     * @param objects Objects covered by the index, by id
+     * @param index Occupancy index of the objects
+     * @return true if a collision was detected and handled
+     */
+    public static boolean checkCollisions(int id, List<? extends Collidable> objects, OccupancyIndex index) {
+        int other = index.findCollision(id);
+        if (other == OccupancyIndex.NONE) {
+            return false;
+        }
+
+        // Handle collision
+        Collidable object = objects.get(id);
+        Collidable hit = objects.get(other);
+        object.onCollision(hit);
+        hit.onCollision(object);
+        return true;
+    }
+
+    /**
+     * Predict if moving to a position would cause a collision, in O(1)
+     * @param row Target row position
+     * @param column Target column position
+     * @param index Occupancy index of the obstacles
+     * @return true if the cell is occupied
+     */
+    public static boolean wouldCollide(int row, int column, OccupancyIndex index) {
+        return index.isOccupied(row, column);
+    }
+
+    /**
+     * Predict if moving to a cell would cause a collision, by packed cell index
+     * @param cell Target cell index, see GameMap.getCellIndex
+     * @param index Occupancy index of the obstacles
+     * @return true if the cell is occupied
+     */
+    public static boolean wouldCollideCell(int cell, OccupancyIndex index) {
+        return index.isOccupiedCell(cell);
+    }
+
+    /**
+     * Check if any indexed object is on a neighbouring cell
+     * @param row Row position
+     * @param column Column position
+     * @param index Occupancy index of the objects
+     * @return true if a neighbouring cell is occupied
+     */
+    public static boolean isAdjacent(int row, int column, OccupancyIndex index) {
+        return index.findAdjacent(row, column) != OccupancyIndex.NONE;
+    }
+}
@@ -1,102 +1,392 @@
 package service;
 
-import model.Blinky;
-import model.Direction;
+import model.DistanceFieldCache;
+import model.FlowField;
+import model.GameMap;
 import model.GameMapWithWalls;
+import model.Ghost;
+import model.GhostMoveStrategy;
+import model.GhostStore;
+import model.OccupancyIndex;
 import model.PacmanModel;
-import view.GameLayeredPane;
+import model.SubCellMotion;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
 
 /**
  * Simple service for managing ghost movement
+ * Driven by the game engine tick loop; walks every ghost in the store in one tight loop.
+ * Ghosts advance in fixed-point sub-cell steps and pick a new direction each time
+ * they enter a cell; those decisions are batched, so a tick decides every ghost that needs
+ * it in a few passes over primitive arrays instead of one call chain per ghost.
+ * Chasing ghosts share one flow field towards Pacman, updated as Pacman moves; other
+ * targets go through a pluggable move strategy (cached BFS distance fields unless set
+ * otherwise), one call per target.
  */
-public class GhostManager implements Runnable {
+public class GhostManager {
+
+    private static final int CHASE = Ghost.GhostState.CHASE.ordinal();
+    private static final int SCATTER = Ghost.GhostState.SCATTER.ordinal();
+    private static final int FRIGHTENED = Ghost.GhostState.FRIGHTENED.ordinal();
+
+    // Fields kept at once: four corners and the ghost homes, more for more distinct homes
+    private static final int DISTANCE_FIELDS = 8;
+    private static final int CORNERS = 4;
+    // Most memory the default strategy's fields may take when growing past DISTANCE_FIELDS
+    private static final long DISTANCE_FIELD_BUDGET = 64L << 20;
 
-    private final Blinky ghost;
-    private final GameMapWithWalls gameMap;
+    private final GhostStore ghosts;
+    private GameMapWithWalls gameMap;
     private final PacmanModel pacman;
-    private final GameLayeredPane gamePane;
+    private final SplittableRandom random;
+    private GhostMoveStrategy moveStrategy;
+    private final DistanceFieldCache distanceFields; // Default move strategy
+    private final FlowField chaseField;
 
-    private volatile boolean running;
-    private Thread movementThread;
+    // Ghosts waiting for a direction this tick, with their cells, allowed exits and picks
+    private int[] pendingGhosts;
+    private int[] pendingCells;
+    private int[] pendingExits;
+    private int[] pendingDirections;
+    // The same grouped by state, swapped with the above; target cell << 32 | pending position
+    private int[] groupedGhosts;
+    private int[] groupedCells;
+    private int[] groupedExits;
+    private long[] targetKeys;
+    private int sizedFor;      // Ghost count the distance field capacity was last set for
 
     /**
      * Create a new ghost manager
-     * @param ghost The ghost to manage
+     * @param ghosts The ghosts to manage
      * @param gameMap The game map
      * @param pacman The pacman model
-     * @param gamePane The game pane
+     * @param random Random stream for frightened ghosts
      */
-    public GhostManager(Blinky ghost, GameMapWithWalls gameMap, PacmanModel pacman, GameLayeredPane gamePane) {
-        this.ghost = ghost;
+    public GhostManager(GhostStore ghosts, GameMapWithWalls gameMap, PacmanModel pacman,
+                        SplittableRandom random) {
+        this.ghosts = ghosts;
         this.gameMap = gameMap;
         this.pacman = pacman;
-        this.gamePane = gamePane;
-        this.running = false;
+        this.random = random;
+        this.distanceFields = new DistanceFieldCache(gameMap, DISTANCE_FIELDS);
+        this.moveStrategy = distanceFields;
+        this.chaseField = new FlowField(gameMap);
+        this.pendingGhosts = new int[0];
+        growPending(ghosts.size());
     }
 
     /**
-     * Start the ghost movement thread
+     * Switch to another map of the same size, e.g. after the game got its own copy.
+     * Also call this after walls changed in place, so the move strategy drops what it cached.
+     * @param gameMap The new map
      */
-    public void start() {
-        if (!running) {
-            running = true;
-            movementThread = new Thread(this);
-            movementThread.start();
-        }
+    public void setGameMap(GameMapWithWalls gameMap) {
+        this.gameMap = gameMap;
+        moveStrategy.setGameMap(gameMap);
+        chaseField.setGameMap(gameMap);
     }
 
     /**
-     * Stop the ghost movement thread
+     * Switch to a map that differs from the current one in a single cell, e.g. after a wall
+     * was destroyed, letting the move strategy patch what it cached instead of starting over
+     * @param gameMap The map with the change
+     * @param row Row of the changed cell
+     * @param column Column of the changed cell
      */
-    public void stop() {
-        running = false;
-        if (movementThread != null) {
-            movementThread.interrupt();
-        }
+    public void updateCell(GameMapWithWalls gameMap, int row, int column) {
+        this.gameMap = gameMap;
+        moveStrategy.updateCell(gameMap, row, column);
+        chaseField.setGameMap(gameMap);
+    }
+
+    /**
+     * Replace the strategy scattering and eaten ghosts steer by
+     * @param moveStrategy Strategy, switched to this manager's map
+     */
+    public void setMoveStrategy(GhostMoveStrategy moveStrategy) {
+        moveStrategy.setGameMap(gameMap);
+        this.moveStrategy = moveStrategy;
+    }
+
+    /**
+     * Read distance fields shared between games, e.g. a level's corner and home fields, before
+     * building any of the default strategy's own
+     * @param sharedFields Frozen fields on this manager's map, or null to stop sharing
+     */
+    public void setSharedDistanceFields(DistanceFieldCache sharedFields) {
+        distanceFields.setSharedFields(sharedFields);
     }
 
-    @Override
-    public void run() {
-        while (running) {
-            try {
-                // Calculate direction toward Pacman
-                Direction nextDirection = ghost.calculateNextMove(
-                        pacman.getRow(),
-                        pacman.getColumn(),
-                        gameMap
-                );
-
-                // Set ghost direction
-                ghost.setDirection(nextDirection);
-
-                // Move ghost
-                if (nextDirection != Direction.NONE) {
-                    MovementService.moveEntity(
-                            ghost,
-                            nextDirection,
-                            gameMap.getWalkableCells()
-                    );
-
-                    // Update animation
-                    ghost.nextFrame();
+    /**
+     * Get the flow field chasing ghosts share
+     * @return The field towards Pacman
+     */
+    public FlowField getChaseField() {
+        return chaseField;
+    }
+
+    /**
+     * Get the strategy scattering and eaten ghosts steer by
+     * @return The strategy
+     */
+    public GhostMoveStrategy getMoveStrategy() {
+        return moveStrategy;
+    }
+
+    /**
+     * Advance every ghost by one engine tick.
+     * Ghosts that need a direction, standing ones before they move and the rest as they
+     * enter a cell, are collected and decided together; see decidePending.
+     * @param elapsedMs Time covered by the tick in milliseconds
+     * @return Motion event bits over all ghosts, see SubCellMotion
+     */
+    public int update(int elapsedMs) {
+        int count = ghosts.size();
+        int[] rows = ghosts.rows();
+        int[] columns = ghosts.columns();
+        byte[] directions = ghosts.directions();
+        int[] speeds = ghosts.speeds();
+        int[] progress = ghosts.progress();
+
+        OccupancyIndex occupancy = ghosts.getOccupancy();
+        if (pendingGhosts.length < count) {
+            growPending(count);
+        }
+        if (sizedFor != count) {
+            sizeDistanceFields(count);
+        }
+
+        int mapColumns = gameMap.getColumns();
+        int events = SubCellMotion.NOT_MOVED;
+
+        // A standing ghost picks a direction from its cell centre before it moves
+        int pending = 0;
+        for (int i = 0; i < count; i++) {
+            if (directions[i] == GameMap.NONE) {
+                pendingGhosts[pending++] = i;
+            }
+        }
+        if (pending > 0) {
+            decidePending(pending);
+        }
+
+        pending = 0;
+        for (int i = 0; i < count; i++) {
+            if (directions[i] == GameMap.NONE) {
+                continue;
+            }
+
+            events |= SubCellMotion.MOVED;
+            progress[i] += SubCellMotion.advance(speeds[i], elapsedMs);
+            if (progress[i] < SubCellMotion.ONE) {
+                continue;
+            }
+
+            // Crossed into the next cell; the packed index feeds the occupancy index and exit masks
+            progress[i] -= SubCellMotion.ONE;
+            int direction = directions[i];
+            rows[i] += MovementService.getRowDelta(direction);
+            columns[i] += MovementService.getColumnDelta(direction);
+            events |= SubCellMotion.ENTERED_CELL;
+            if (occupancy != null) {
+                occupancy.moveCell(i, rows[i] * mapColumns + columns[i]);
+            }
+            pendingGhosts[pending++] = i;
+        }
+
+        // Choose the way out of each new cell, or stop on its centre
+        if (pending > 0) {
+            decidePending(pending);
+            for (int k = 0; k < pending; k++) {
+                int i = pendingGhosts[k];
+                if (directions[i] == GameMap.NONE) {
+                    progress[i] = 0;
                 }
+            }
+        }
+        return events;
+    }
+
+    /**
+     * Pick directions for the pending ghosts in a few passes over primitive arrays.
+     * Targets come from each ghost's state; the ghosts are then regrouped: chasers first,
+     * then the other targeted ghosts sorted by target, then frightened and stuck ones in
+     * their old order, so their random draws don't change. The shared chase field picks for
+     * every chaser in one branch-free loop, the move strategy once per run of a shared target,
+     * e.g. a corner or a home; a last pass adds the random picks and the fallbacks.
+     * Never reverses unless it is the only way out.
+     * @param pending Number of ghosts in pendingGhosts, regrouped on return
+     */
+    private void decidePending(int pending) {
+        int[] rows = ghosts.rows();
+        int[] columns = ghosts.columns();
+        byte[] directions = ghosts.directions();
+        byte[] states = ghosts.states();
+        int[] targetRows = ghosts.targetRows();
+        int[] targetColumns = ghosts.targetColumns();
+        int mapColumns = gameMap.getColumns();
+        int pacmanRow = pacman.getRow();
+        int pacmanColumn = pacman.getColumn();
+
+        // Targets by state; scatter corners go by ghost index
+        int lastRow = gameMap.getRows() - 1;
+        int lastColumn = gameMap.getColumns() - 1;
+        int chasers = 0;
+        int targeted = 0;
+        for (int k = 0; k < pending; k++) {
+            int i = pendingGhosts[k];
+            int state = states[i];
+            int cell = rows[i] * mapColumns + columns[i];
+            int open = GameMapWithWalls.getForwardExits(gameMap.getExitMask(cell), directions[i]);
+            pendingCells[k] = cell;
+            pendingExits[k] = open;
+            if (state == CHASE) {
+                targetRows[i] = pacmanRow;
+                targetColumns[i] = pacmanColumn;
+                chasers++;
+                continue;
+            }
+            if (state == FRIGHTENED) {
+                continue;
+            }
+            if (state == SCATTER) {
+                targetRows[i] = (i & 1) == 0 ? 0 : lastRow;
+                targetColumns[i] = (i & 2) == 0 ? lastColumn : 0;
+            } else {
+                // Eaten: return to the ghost house
+                targetRows[i] = ghosts.getHomeRow(i);
+                targetColumns[i] = ghosts.getHomeColumn(i);
+            }
+            // Only ghosts with a way out ask the strategy
+            if (open != 0) {
+                targetKeys[targeted++] = (long) (targetRows[i] * mapColumns + targetColumns[i]) << 32 | k;
+            }
+        }
+        Arrays.sort(targetKeys, 0, targeted);
+
+        // Regroup: chasers, targeted ghosts by target, then the rest in pending order
+        int chaseAt = 0;
+        int end = chasers + targeted;
+        int restAt = end;
+        for (int k = 0; k < pending; k++) {
+            int state = states[pendingGhosts[k]];
+            if (state == CHASE) {
+                regroup(k, chaseAt++);
+            } else if (state == FRIGHTENED || pendingExits[k] == 0) {
+                regroup(k, restAt++);
+            }
+        }
+        for (int j = 0; j < targeted; j++) {
+            regroup((int) targetKeys[j], chasers + j);
+        }
+        int[] swap = pendingGhosts;
+        pendingGhosts = groupedGhosts;
+        groupedGhosts = swap;
+        swap = pendingCells;
+        pendingCells = groupedCells;
+        groupedCells = swap;
+        swap = pendingExits;
+        pendingExits = groupedExits;
+        groupedExits = swap;
 
-                // Check for collision with Pacman
-                if (ghost.getRow() == pacman.getRow() && ghost.getColumn() == pacman.getColumn()) {
-                    // In a real game, you would handle this collision (e.g., lose a life)
-                    System.out.println("Ghost caught Pacman!");
+        // Chasing ghosts all target Pacman, so they share one field that follows Pacman
+        chaseField.setTarget(pacmanRow, pacmanColumn);
+        chaseField.nextDirections(pendingCells, pendingExits, pendingDirections, chasers);
+
+        // One strategy call per run of ghosts with the same target
+        for (int from = chasers; from < end; ) {
+            long target = targetKeys[from - chasers] >>> 32;
+            int to = from + 1;
+            while (to < end && targetKeys[to - chasers] >>> 32 == target) {
+                to++;
+            }
+            int i = pendingGhosts[from];
+            moveStrategy.nextDirections(pendingGhosts, pendingCells, pendingExits, pendingDirections,
+                    from, to, targetRows[i], targetColumns[i]);
+            from = to;
+        }
+
+        for (int k = 0; k < pending; k++) {
+            int i = pendingGhosts[k];
+            int open = pendingExits[k];
+            int best = pendingDirections[k];
+            if (open == 0) {
+                best = GameMap.NONE;
+            } else if (k >= end) {
+                // Frightened: choose the n-th open direction at random
+                int pick = random.nextInt(Integer.bitCount(open));
+                while (pick-- > 0) {
+                    open &= open - 1;
                 }
+                best = Integer.numberOfTrailingZeros(open);
+            } else if (best == GameMap.NONE) {
+                best = towards(rows[i], columns[i], open, targetRows[i], targetColumns[i]);
+            }
+            directions[i] = (byte) best;
+        }
+    }
 
-                // Update the UI
-                gamePane.updateGameState();
+    /**
+     * Copy a pending ghost's entry to its place in the grouped arrays
+     */
+    private void regroup(int from, int to) {
+        groupedGhosts[to] = pendingGhosts[from];
+        groupedCells[to] = pendingCells[from];
+        groupedExits[to] = pendingExits[from];
+    }
 
-                // Wait before next movement based on ghost's speed
-                Thread.sleep(ghost.getMoveDelay());
+    /**
+     * Head for a target cut off from every exit as the crow flies
+     * @return Direction ordinal of the open exit closest to the target
+     */
+    private static int towards(int row, int column, int open, int targetRow, int targetColumn) {
+        int best = GameMap.NONE;
+        int bestDistance = Integer.MAX_VALUE;
+        for (int direction = GameMap.UP; direction <= GameMap.RIGHT; direction++) {
+            if ((open & (1 << direction)) == 0) {
+                continue;
+            }
+            int distance = Math.abs(row + MovementService.getRowDelta(direction) - targetRow)
+                    + Math.abs(column + MovementService.getColumnDelta(direction) - targetColumn);
+            if (distance < bestDistance) {
+                bestDistance = distance;
+                best = direction;
+            }
+        }
+        return best;
+    }
 
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                break;
+    private void growPending(int count) {
+        int capacity = Math.max(count, 2 * pendingGhosts.length);
+        pendingGhosts = new int[capacity];
+        pendingCells = new int[capacity];
+        pendingExits = new int[capacity];
+        pendingDirections = new int[capacity];
+        groupedGhosts = new int[capacity];
+        groupedCells = new int[capacity];
+        groupedExits = new int[capacity];
+        targetKeys = new long[capacity];
+    }
+
+    /**
+     * Keep a field per corner and per distinct ghost home, so eaten ghosts heading for many
+     * different homes don't evict each other every tick; at most what the budget allows
+     */
+    private void sizeDistanceFields(int count) {
+        int mapColumns = gameMap.getColumns();
+        for (int i = 0; i < count; i++) {
+            targetKeys[i] = (long) ghosts.getHomeRow(i) * mapColumns + ghosts.getHomeColumn(i);
+        }
+        Arrays.sort(targetKeys, 0, count);
+        int homes = 0;
+        for (int i = 0; i < count; i++) {
+            if (i == 0 || targetKeys[i] != targetKeys[i - 1]) {
+                homes++;
             }
         }
+        long affordable = Math.max(DISTANCE_FIELDS, DISTANCE_FIELD_BUDGET / distanceFields.getFieldBytes());
+        distanceFields.ensureCapacity((int) Math.min(CORNERS + homes, affordable));
+        sizedFor = count;
     }
-}
\ No newline at end of file
+}
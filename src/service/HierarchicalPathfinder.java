@@ -0,0 +1,735 @@
+package service;
+
+import model.GameMap;
+import model.GameMapWithWalls;
+import model.GhostMoveStrategy;
+
+import java.util.Arrays;
+
+/**
+ * Hierarchical pathfinding (HPA*) for maps too large to search cell by cell.
+ * The map is cut into square clusters. Wherever two neighbouring clusters share a run of
+ * walkable cells across their border, the middle of the run becomes an entrance: a node on
+ * each side, one step apart. Each cluster knows the walking distance between its nodes
+ * inside the cluster. A query searches the cluster around the mover and the cluster around
+ * the target cell by cell, then runs A* over the nodes only.
+ * Paths are near-shortest: they stay within clusters between entrances.
+ * A mover that asks again with the same target follows its cached path, one cluster leg at
+ * a time, without searching. After one cell changes, updateCell rebuilds the entrances and
+ * distances of that cluster and, if the cell is on a border, of the cluster across it.
+ */
+public class HierarchicalPathfinder implements GhostMoveStrategy {
+
+    // Cluster side in cells when none is given
+    public static final int DEFAULT_CLUSTER_SIZE = 32;
+
+    private static final int UNREACHABLE = Integer.MAX_VALUE;
+
+    // Heap entries: estimated total distance, then the estimate left (so ties go to the node
+    // closest to the target, which keeps A* from fanning out over equally good paths), then node
+    private static final int ESTIMATE_SHIFT = 38;
+    private static final int REMAINING_SHIFT = 24;
+    private static final int MAX_REMAINING = (1 << (ESTIMATE_SHIFT - REMAINING_SHIFT)) - 1;
+    private static final int NODE_MASK = (1 << REMAINING_SHIFT) - 1;
+
+    private GameMapWithWalls gameMap;
+    private final int rows;
+    private final int columns;
+    private final int clusterShift;
+    private final int clusterSize;
+    private final int clusterRows;
+    private final int clusterColumns;
+    private final int sideSlots;      // Most entrances on one side of a cluster
+    private final int clusterSlots;   // Node ids per cluster: four sides of sideSlots each
+
+    // Entrances: node id = cluster * clusterSlots + side * sideSlots + entrance on that side;
+    // the node across the border has the same entrance number on the opposite side. A side is
+    // the direction ordinal of the border, GameMap.UP to GameMap.RIGHT
+    private final int[] sideCounts;   // Entrances per cluster side, at cluster * 4 + side
+    private final int[] nodeCells;
+    private final int[] nodeRows;
+    private final int[] nodeColumns;
+
+    // Per cluster: its node ids, and the distance between each pair of them inside the
+    // cluster (UNREACHABLE if cut off), row by row in node order
+    private final int[][] clusterNodes;
+    private final int[][] clusterDistances;
+    private final int[] nodeOrder;    // A node's position in its cluster's list
+
+    // Abstract search state, stamped per query instead of cleared
+    private final long[] nodeKeys;
+    private final int[] nodeDistances;
+    private final int[] nodeParents;  // Previous node on the way there, -1 from the mover
+    private final byte[] nodeFirstSteps;
+    private final int[] nodeStamps;
+    private long[] heap = new long[256];
+    private int heapSize;
+    private int stamp;
+    private int queryRow;
+    private int queryColumn;
+    private int lastNode;             // Last node of the path found, -1 if it went straight to the target
+
+    // Cell searches inside one cluster: around the mover, and around the target
+    private final ClusterSearch startSearch;
+    private final ClusterSearch goalSearch;
+
+    // Per mover: the target and map version its path is for, the cells of the leg it is on,
+    // and the node cells the later legs end at, the target last
+    private int[] moverTargets = new int[0];
+    private int[] moverVersions = new int[0];
+    private int[][] moverLegs = new int[0][];
+    private int[] moverLegLengths = new int[0];
+    private int[] moverLegPositions = new int[0];
+    private int[][] moverWaypoints = new int[0][];
+    private int[] moverWaypointCounts = new int[0];
+    private int[] moverWaypointPositions = new int[0];
+    private int mapVersion;
+
+    private long searches;
+    private long settled;
+    private long pathHits;
+
+    /**
+     * Create a pathfinder with the default cluster size
+     * @param gameMap The map to search
+     */
+    public HierarchicalPathfinder(GameMapWithWalls gameMap) {
+        this(gameMap, DEFAULT_CLUSTER_SIZE);
+    }
+
+    /**
+     * Create a pathfinder
+     * @param gameMap The map to search
+     * @param clusterSize Cluster side in cells, a power of two from 4 to 256; larger
+     *                    clusters mean fewer nodes but longer cell searches
+     */
+    public HierarchicalPathfinder(GameMapWithWalls gameMap, int clusterSize) {
+        if (clusterSize < 4 || clusterSize > 256 || Integer.bitCount(clusterSize) != 1) {
+            throw new IllegalArgumentException("Cluster size must be a power of two from 4 to 256: " + clusterSize);
+        }
+        this.gameMap = gameMap;
+        this.rows = gameMap.getRows();
+        this.columns = gameMap.getColumns();
+        this.clusterSize = clusterSize;
+        this.clusterShift = Integer.numberOfTrailingZeros(clusterSize);
+        this.clusterRows = (rows + clusterSize - 1) >> clusterShift;
+        this.clusterColumns = (columns + clusterSize - 1) >> clusterShift;
+        // Runs along a side are separated by at least one blocked pair
+        this.sideSlots = (clusterSize + 1) / 2;
+        this.clusterSlots = 4 * sideSlots;
+
+        int clusters = clusterRows * clusterColumns;
+        int nodes = clusters * clusterSlots;
+        if (clusters > NODE_MASK / clusterSlots) {
+            throw new IllegalArgumentException("Map too large for cluster size " + clusterSize + ": "
+                    + rows + "x" + columns);
+        }
+        this.sideCounts = new int[clusters * 4];
+        this.nodeCells = new int[nodes];
+        this.nodeRows = new int[nodes];
+        this.nodeColumns = new int[nodes];
+        this.clusterNodes = new int[clusters][];
+        this.clusterDistances = new int[clusters][];
+        this.nodeOrder = new int[nodes];
+        this.nodeKeys = new long[nodes];
+        this.nodeDistances = new int[nodes];
+        this.nodeParents = new int[nodes];
+        this.nodeFirstSteps = new byte[nodes];
+        this.nodeStamps = new int[nodes];
+        this.startSearch = new ClusterSearch();
+        this.goalSearch = new ClusterSearch();
+        build();
+    }
+
+    @Override
+    public void setGameMap(GameMapWithWalls gameMap) {
+        checkSize(gameMap);
+        this.gameMap = gameMap;
+        build();
+    }
+
+    /**
+     * Rebuild only the clusters one changed cell can affect
+     */
+    @Override
+    public void updateCell(GameMapWithWalls gameMap, int row, int column) {
+        checkSize(gameMap);
+        this.gameMap = gameMap;
+        mapVersion++;
+        int clusterRow = row >> clusterShift;
+        int clusterColumn = column >> clusterShift;
+        int cluster = clusterRow * clusterColumns + clusterColumn;
+        int top = clusterRow << clusterShift;
+        int left = clusterColumn << clusterShift;
+
+        // Entrances only change on a border the cell lies on
+        if (row == top && clusterRow > 0) {
+            buildBorder(cluster - clusterColumns, GameMap.DOWN);
+            buildDistances(cluster - clusterColumns);
+        }
+        if (row == top + clusterSize - 1 && clusterRow + 1 < clusterRows) {
+            buildBorder(cluster, GameMap.DOWN);
+            buildDistances(cluster + clusterColumns);
+        }
+        if (column == left && clusterColumn > 0) {
+            buildBorder(cluster - 1, GameMap.RIGHT);
+            buildDistances(cluster - 1);
+        }
+        if (column == left + clusterSize - 1 && clusterColumn + 1 < clusterColumns) {
+            buildBorder(cluster, GameMap.RIGHT);
+            buildDistances(cluster + 1);
+        }
+        buildDistances(cluster);
+    }
+
+    /**
+     * Get the number of entrance nodes
+     */
+    public int getNodeCount() {
+        int count = 0;
+        for (int[] nodes : clusterNodes) {
+            count += nodes.length;
+        }
+        return count;
+    }
+
+    /**
+     * Get the number of abstract searches run so far
+     */
+    public long getSearchCount() {
+        return searches;
+    }
+
+    /**
+     * Get the number of nodes settled over all searches so far
+     */
+    public long getSettledCount() {
+        return settled;
+    }
+
+    /**
+     * Get the number of answers taken from a mover's cached path so far
+     */
+    public long getPathHitCount() {
+        return pathHits;
+    }
+
+    /**
+     * Find the first step of a near-shortest path to a target
+     * @return Direction ordinal; NONE if no exit is allowed or the target can't be reached
+     */
+    @Override
+    public int nextDirection(int cell, int exits, int targetRow, int targetColumn) {
+        int target = gameMap.nearestWalkableCell(targetRow, targetColumn);
+        if (exits == 0 || target < 0) {
+            return GameMap.NONE;
+        }
+        if (target == cell) {
+            return Integer.numberOfTrailingZeros(exits);
+        }
+        return search(cell, exits, target);
+    }
+
+    /**
+     * Follow the mover's cached path while it is still on it and the target hasn't moved;
+     * search and cache a new path otherwise
+     */
+    @Override
+    public int nextDirection(int mover, int cell, int exits, int targetRow, int targetColumn) {
+        int target = gameMap.nearestWalkableCell(targetRow, targetColumn);
+        if (exits == 0 || target < 0) {
+            return GameMap.NONE;
+        }
+        if (target == cell) {
+            return Integer.numberOfTrailingZeros(exits);
+        }
+        if (mover >= moverTargets.length) {
+            growMovers(mover + 1);
+        }
+
+        if (moverTargets[mover] == target && moverVersions[mover] == mapVersion) {
+            int direction = followPath(mover, cell);
+            if (direction != GameMap.NONE && (exits & (1 << direction)) != 0) {
+                pathHits++;
+                return direction;
+            }
+        }
+
+        int direction = search(cell, exits, target);
+        if (direction != GameMap.NONE) {
+            cachePath(mover, cell, direction, target);
+        }
+        return direction;
+    }
+
+    /**
+     * Take the next step of a cached path, refining its next leg when the current one ends
+     * @return Direction ordinal, NONE if the mover left the path or reached its end
+     */
+    private int followPath(int mover, int cell) {
+        int position = moverLegPositions[mover];
+        int[] leg = moverLegs[mover];
+        if (leg[position] != cell) {
+            return GameMap.NONE;
+        }
+        while (position + 1 == moverLegLengths[mover]) {
+            int waypoint = moverWaypointPositions[mover];
+            if (waypoint == moverWaypointCounts[mover]) {
+                return GameMap.NONE;
+            }
+            moverWaypointPositions[mover] = waypoint + 1;
+            refineLeg(mover, cell, moverWaypoints[mover][waypoint]);
+            position = 0;
+            leg = moverLegs[mover];
+        }
+        moverLegPositions[mover] = position + 1;
+        return directionBetween(cell, leg[position + 1]);
+    }
+
+    /**
+     * Find a path's first step: cell searches around the mover's neighbours and the target,
+     * then A* over the entrance nodes
+     */
+    private int search(int cell, int exits, int target) {
+        searches++;
+        if (++stamp == Integer.MAX_VALUE) {
+            Arrays.fill(nodeStamps, 0);
+            stamp = 1;
+        }
+        heapSize = 0;
+        queryRow = target / columns;
+        queryColumn = target - queryRow * columns;
+        int goalCluster = clusterOf(target);
+        goalSearch.run(goalCluster, target, -1, 0);
+
+        // Step to each allowed neighbour, then walk its cluster from there; the way on may
+        // turn straight back, as a distance field's would
+        int best = UNREACHABLE;
+        int bestStep = GameMap.NONE;
+        int bestNode = -1;
+        while (exits != 0) {
+            int direction = Integer.numberOfTrailingZeros(exits);
+            exits &= exits - 1;
+            int next = cell + gameMap.getCellDelta(direction);
+            int cluster = clusterOf(next);
+            startSearch.run(cluster, next, -1, 1);
+            if (cluster == goalCluster) {
+                int distance = startSearch.distance(target);
+                if (distance < best) {
+                    best = distance;
+                    bestStep = direction;
+                }
+            }
+            for (int node : clusterNodes[cluster]) {
+                int distance = startSearch.distance(nodeCells[node]);
+                if (distance != UNREACHABLE) {
+                    offer(node, distance, -1, direction);
+                }
+            }
+        }
+
+        while (heapSize > 0) {
+            long entry = pop();
+            int node = (int) (entry & NODE_MASK);
+            if (entry != nodeKeys[node]) {
+                continue;  // Stale: a shorter way to the node was pushed after this one
+            }
+            if ((int) (entry >>> ESTIMATE_SHIFT) >= best) {
+                break;     // No way on from here can beat the best one found
+            }
+            settled++;
+            int distance = nodeDistances[node];
+            int cluster = node / clusterSlots;
+            if (cluster == goalCluster) {
+                int rest = goalSearch.distance(nodeCells[node]);
+                if (rest != UNREACHABLE && distance + rest < best) {
+                    best = distance + rest;
+                    bestStep = nodeFirstSteps[node];
+                    bestNode = node;
+                }
+            }
+
+            // Across the border, then to the cluster's other entrances
+            int step = nodeFirstSteps[node];
+            offer(partnerOf(node), distance + 1, node, step);
+            int[] nodes = clusterNodes[cluster];
+            int[] distances = clusterDistances[cluster];
+            int from = nodeOrder[node] * nodes.length;
+            for (int i = 0; i < nodes.length; i++) {
+                int between = distances[from + i];
+                if (between != UNREACHABLE && nodes[i] != node) {
+                    offer(nodes[i], distance + between, node, step);
+                }
+            }
+        }
+        lastNode = bestNode;
+        return bestStep;
+    }
+
+    /**
+     * Remember the path the last search found: its nodes as waypoints, then the target
+     */
+    private void cachePath(int mover, int cell, int direction, int target) {
+        int count = 1;
+        for (int node = lastNode; node >= 0; node = nodeParents[node]) {
+            count++;
+        }
+        if (moverWaypoints[mover].length < count) {
+            moverWaypoints[mover] = new int[Math.max(count, 2 * moverWaypoints[mover].length)];
+        }
+        int[] waypoints = moverWaypoints[mover];
+        int i = count - 1;
+        waypoints[i] = target;
+        for (int node = lastNode; node >= 0; node = nodeParents[node]) {
+            waypoints[--i] = nodeCells[node];
+        }
+        moverWaypointCounts[mover] = count;
+        moverWaypointPositions[mover] = 0;
+        moverTargets[mover] = target;
+        moverVersions[mover] = mapVersion;
+
+        // The mover is about to take the first step; the next call refines from there
+        int[] leg = moverLegs[mover];
+        leg[0] = cell;
+        leg[1] = cell + gameMap.getCellDelta(direction);
+        moverLegLengths[mover] = 2;
+        moverLegPositions[mover] = 1;
+        if (leg[1] == waypoints[0]) {
+            moverWaypointPositions[mover] = 1;
+        }
+    }
+
+    /**
+     * Replace a mover's leg with the cells from its cell to the next waypoint, which is
+     * one step away across a border or inside the same cluster
+     */
+    private void refineLeg(int mover, int from, int to) {
+        int[] leg = moverLegs[mover];
+        if (from == to) {
+            leg[0] = from;
+            moverLegLengths[mover] = 1;
+            moverLegPositions[mover] = 0;
+            return;
+        }
+        if (clusterOf(from) != clusterOf(to)) {
+            leg[0] = from;
+            leg[1] = to;
+            moverLegLengths[mover] = 2;
+            moverLegPositions[mover] = 0;
+            return;
+        }
+        // Walk from the waypoint until the mover is reached; parents then lead back to the waypoint
+        startSearch.run(clusterOf(to), to, from, 0);
+        int length = startSearch.distance(from);
+        if (length == UNREACHABLE) {
+            leg[0] = from;
+            moverLegLengths[mover] = 1;
+            moverLegPositions[mover] = 0;
+            moverWaypointPositions[mover] = moverWaypointCounts[mover];
+            return;
+        }
+        if (leg.length < length + 1) {
+            leg = new int[Math.max(length + 1, 2 * leg.length)];
+            moverLegs[mover] = leg;
+        }
+        int current = from;
+        for (int i = 0; i <= length; i++) {
+            leg[i] = current;
+            if (i < length) {
+                current += gameMap.getCellDelta(startSearch.parentDirection(current));
+            }
+        }
+        moverLegLengths[mover] = length + 1;
+        moverLegPositions[mover] = 0;
+    }
+
+    private int directionBetween(int from, int to) {
+        int delta = to - from;
+        return delta == -columns ? GameMap.UP : delta == columns ? GameMap.DOWN
+                : delta == -1 ? GameMap.LEFT : GameMap.RIGHT;
+    }
+
+    private void growMovers(int count) {
+        int old = moverTargets.length;
+        int capacity = Math.max(count, 2 * old);
+        moverTargets = Arrays.copyOf(moverTargets, capacity);
+        moverVersions = Arrays.copyOf(moverVersions, capacity);
+        moverLegs = Arrays.copyOf(moverLegs, capacity);
+        moverLegLengths = Arrays.copyOf(moverLegLengths, capacity);
+        moverLegPositions = Arrays.copyOf(moverLegPositions, capacity);
+        moverWaypoints = Arrays.copyOf(moverWaypoints, capacity);
+        moverWaypointCounts = Arrays.copyOf(moverWaypointCounts, capacity);
+        moverWaypointPositions = Arrays.copyOf(moverWaypointPositions, capacity);
+        for (int mover = old; mover < capacity; mover++) {
+            moverTargets[mover] = -1;
+            moverLegs[mover] = new int[2 * clusterSize];
+            moverWaypoints[mover] = new int[16];
+        }
+    }
+
+    /**
+     * Push a node if this way to it beats the best one this query has seen
+     */
+    private void offer(int node, int distance, int parent, int step) {
+        int estimate = Math.abs(nodeRows[node] - queryRow) + Math.abs(nodeColumns[node] - queryColumn);
+        long entry = (long) (distance + estimate) << ESTIMATE_SHIFT
+                | (long) Math.min(estimate, MAX_REMAINING) << REMAINING_SHIFT | node;
+        if (nodeStamps[node] == stamp && entry >= nodeKeys[node]) {
+            return;
+        }
+        nodeStamps[node] = stamp;
+        nodeKeys[node] = entry;
+        nodeDistances[node] = distance;
+        nodeParents[node] = parent;
+        nodeFirstSteps[node] = (byte) step;
+        if (heapSize == heap.length) {
+            heap = Arrays.copyOf(heap, 2 * heap.length);
+        }
+        int i = heapSize++;
+        while (i > 0) {
+            int up = (i - 1) >>> 1;
+            if (heap[up] <= entry) {
+                break;
+            }
+            heap[i] = heap[up];
+            i = up;
+        }
+        heap[i] = entry;
+    }
+
+    private long pop() {
+        long top = heap[0];
+        long last = heap[--heapSize];
+        int i = 0;
+        int half = heapSize >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            if (child + 1 < heapSize && heap[child + 1] < heap[child]) {
+                child++;
+            }
+            if (heap[child] >= last) {
+                break;
+            }
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = last;
+        return top;
+    }
+
+    private int clusterOf(int cell) {
+        int row = cell / columns;
+        return (row >> clusterShift) * clusterColumns + ((cell - row * columns) >> clusterShift);
+    }
+
+    /**
+     * Get the node across the border from an entrance node
+     */
+    private int partnerOf(int node) {
+        int cluster = node / clusterSlots;
+        int side = (node - cluster * clusterSlots) / sideSlots;
+        int across = cluster + (side == GameMap.UP ? -clusterColumns : side == GameMap.DOWN ? clusterColumns
+                : side == GameMap.LEFT ? -1 : 1);
+        return node + (across - cluster) * clusterSlots + ((side ^ 1) - side) * sideSlots;
+    }
+
+    private void checkSize(GameMapWithWalls gameMap) {
+        if (gameMap.getRows() != rows || gameMap.getColumns() != columns) {
+            throw new IllegalArgumentException("Map size changed: " + gameMap.getRows() + "x" + gameMap.getColumns());
+        }
+    }
+
+    /**
+     * Find every entrance, then every cluster's inner distances
+     */
+    private void build() {
+        mapVersion++;
+        Arrays.fill(sideCounts, 0);
+        for (int cluster = 0; cluster < clusterNodes.length; cluster++) {
+            if ((cluster + 1) % clusterColumns != 0) {
+                buildBorder(cluster, GameMap.RIGHT);
+            }
+            if (cluster + clusterColumns < clusterNodes.length) {
+                buildBorder(cluster, GameMap.DOWN);
+            }
+        }
+        for (int cluster = 0; cluster < clusterNodes.length; cluster++) {
+            buildDistances(cluster);
+        }
+    }
+
+    /**
+     * Find the entrances on a cluster's bottom or right border, a node on each side
+     * @param side DOWN or RIGHT
+     */
+    private void buildBorder(int cluster, int side) {
+        int clusterRow = cluster / clusterColumns;
+        int clusterColumn = cluster - clusterRow * clusterColumns;
+        int across = cluster + (side == GameMap.DOWN ? clusterColumns : 1);
+        // First cell of the border line inside the cluster, the step along it and across it
+        int first;
+        int along;
+        int length;
+        int step;
+        if (side == GameMap.DOWN) {
+            first = (((clusterRow + 1) << clusterShift) - 1) * columns + (clusterColumn << clusterShift);
+            along = 1;
+            length = Math.min(clusterSize, columns - (clusterColumn << clusterShift));
+            step = columns;
+        } else {
+            first = (clusterRow << clusterShift) * columns + ((clusterColumn + 1) << clusterShift) - 1;
+            along = columns;
+            length = Math.min(clusterSize, rows - (clusterRow << clusterShift));
+            step = 1;
+        }
+
+        int count = 0;
+        int runStart = -1;
+        for (int i = 0; i <= length; i++) {
+            int cell = first + i * along;
+            boolean open = i < length && gameMap.isWalkableCell(cell) && gameMap.isWalkableCell(cell + step);
+            if (open && runStart < 0) {
+                runStart = i;
+            } else if (!open && runStart >= 0) {
+                int entrance = first + (runStart + i - 1) / 2 * along;
+                setNode(cluster * clusterSlots + side * sideSlots + count, entrance);
+                setNode(across * clusterSlots + (side ^ 1) * sideSlots + count, entrance + step);
+                count++;
+                runStart = -1;
+            }
+        }
+        sideCounts[cluster * 4 + side] = count;
+        sideCounts[across * 4 + (side ^ 1)] = count;
+    }
+
+    private void setNode(int node, int cell) {
+        nodeCells[node] = cell;
+        nodeRows[node] = cell / columns;
+        nodeColumns[node] = cell % columns;
+    }
+
+    /**
+     * List a cluster's nodes and walk the cluster from each to find the distances between them
+     */
+    private void buildDistances(int cluster) {
+        int count = 0;
+        for (int side = 0; side < 4; side++) {
+            count += sideCounts[cluster * 4 + side];
+        }
+        int[] nodes = new int[count];
+        int n = 0;
+        for (int side = 0; side < 4; side++) {
+            for (int i = 0; i < sideCounts[cluster * 4 + side]; i++) {
+                int node = cluster * clusterSlots + side * sideSlots + i;
+                nodeOrder[node] = n;
+                nodes[n++] = node;
+            }
+        }
+        int[] distances = new int[count * count];
+        for (int from = 0; from < count; from++) {
+            startSearch.run(cluster, nodeCells[nodes[from]], -1, 0);
+            for (int to = 0; to < count; to++) {
+                distances[from * count + to] = startSearch.distance(nodeCells[nodes[to]]);
+            }
+        }
+        clusterNodes[cluster] = nodes;
+        clusterDistances[cluster] = distances;
+    }
+
+    /**
+     * Breadth-first search over the cells of one cluster, indexed locally by row and column
+     * within the cluster
+     */
+    private final class ClusterSearch {
+        private final int[] distances = new int[clusterSize * clusterSize];
+        private final int[] stamps = new int[clusterSize * clusterSize];
+        private final byte[] parentDirections = new byte[clusterSize * clusterSize];
+        private final int[] queue = new int[clusterSize * clusterSize];
+        private int searchStamp;
+        private int top;
+        private int left;
+        private int height;
+        private int width;
+
+        /**
+         * Walk a cluster from one cell
+         * @param cluster Cluster to stay in
+         * @param start Start cell; ignored if outside the cluster or a wall
+         * @param stopAt Cell to stop at once reached, -1 to walk the whole cluster
+         * @param startDistance Distance the start counts as
+         */
+        void run(int cluster, int start, int stopAt, int startDistance) {
+            if (++searchStamp == Integer.MAX_VALUE) {
+                Arrays.fill(stamps, 0);
+                searchStamp = 1;
+            }
+            int clusterRow = cluster / clusterColumns;
+            top = clusterRow << clusterShift;
+            left = (cluster - clusterRow * clusterColumns) << clusterShift;
+            height = Math.min(clusterSize, rows - top);
+            width = Math.min(clusterSize, columns - left);
+            int local = local(start);
+            if (local < 0 || !gameMap.isWalkableCell(start)) {
+                return;
+            }
+            int head = 0;
+            int tail = 0;
+            stamps[local] = searchStamp;
+            distances[local] = startDistance;
+            parentDirections[local] = GameMap.NONE;
+            queue[tail++] = local;
+            while (head < tail) {
+                int current = queue[head++];
+                int row = current >> clusterShift;
+                int column = current & (clusterSize - 1);
+                int cell = (top + row) * columns + left + column;
+                if (cell == stopAt) {
+                    return;
+                }
+                int next = distances[current] + 1;
+                int exits = gameMap.getExitMask(cell);
+                while (exits != 0) {
+                    int direction = Integer.numberOfTrailingZeros(exits);
+                    exits &= exits - 1;
+                    int r = row + MovementService.getRowDelta(direction);
+                    int c = column + MovementService.getColumnDelta(direction);
+                    if (r < 0 || r >= height || c < 0 || c >= width) {
+                        continue;
+                    }
+                    int neighbour = (r << clusterShift) | c;
+                    if (stamps[neighbour] != searchStamp) {
+                        stamps[neighbour] = searchStamp;
+                        distances[neighbour] = next;
+                        parentDirections[neighbour] = (byte) (direction ^ 1);
+                        queue[tail++] = neighbour;
+                    }
+                }
+            }
+        }
+
+        /**
+         * Get a cell's distance in the last walk
+         * @return Steps plus the start distance, UNREACHABLE if not reached or outside the cluster
+         */
+        int distance(int cell) {
+            int local = local(cell);
+            return local >= 0 && stamps[local] == searchStamp ? distances[local] : UNREACHABLE;
+        }
+
+        /**
+         * Get the way from a reached cell back towards the walk's start
+         */
+        int parentDirection(int cell) {
+            return parentDirections[local(cell)];
+        }
+
+        private int local(int cell) {
+            int row = cell / columns - top;
+            int column = cell % columns - left;
+            if (row < 0 || row >= height || column < 0 || column >= width) {
+                return -1;
+            }
+            return (row << clusterShift) | column;
+        }
+    }
+}
@@ -3,25 +3,50 @@ package service;
 import model.Direction;
 import model.GameMapWithWalls;
 import model.Movable;
-import view.GameLayeredPane;
+import model.SubCellMotion;
 
 /**
  * MovementManager - Responsible for continuous movement logic
  * Follows Single Responsibility Principle by focusing only on movement execution
+ * Driven by the game engine tick loop: the entity advances by its speed in
+ * fixed-point sub-cell steps and only changes cell when it crosses a boundary
  */
-public class MovementManager implements Runnable {
+public class MovementManager {
     private final Movable entity;
-    private final GameMapWithWalls gameMap;
-    private final GameLayeredPane gamePane;
-    private volatile boolean running;
-    private Thread movementThread;
-    private int movementDelay = 200; // Movement speed (lower = faster)
+    private GameMapWithWalls gameMap;
+    private int speed = SubCellMotion.delayToFixed(200); // Fixed-point cells per second
+    private int progress;                 // Fixed-point distance travelled towards the next cell
+    private Direction moveDirection;      // Direction of the step in progress
 
-    public MovementManager(Movable entity, GameMapWithWalls gameMap, GameLayeredPane gamePane) {
+    public MovementManager(Movable entity, GameMapWithWalls gameMap) {
         this.entity = entity;
         this.gameMap = gameMap;
-        this.gamePane = gamePane;
-        this.running = false;
+        this.progress = 0;
+        this.moveDirection = Direction.NONE;
+    }
+
+    /**
+     * Switch to another map of the same size, e.g. after the game got its own copy
+     * @param gameMap The new map
+     */
+    public void setGameMap(GameMapWithWalls gameMap) {
+        this.gameMap = gameMap;
+    }
+
+    /**
+     * Set movement speed
+     * @param cellsPerSecond Speed in cells per second
+     */
+    public void setSpeed(double cellsPerSecond) {
+        this.speed = SubCellMotion.toFixed(cellsPerSecond);
+    }
+
+    /**
+     * Get movement speed
+     * @return Speed in cells per second
+     */
+    public double getSpeed() {
+        return SubCellMotion.toCellsPerSecond(speed);
     }
 
     /**
@@ -30,7 +55,7 @@ public class MovementManager implements Runnable {
      */
     public void setMovementDelay(int delay) {
         if (delay >= 50) { // Prevent too fast movement
-            this.movementDelay = delay;
+            this.speed = SubCellMotion.delayToFixed(delay);
         }
     }
 
@@ -39,49 +64,81 @@ public class MovementManager implements Runnable {
      * @return Movement delay in milliseconds
      */
     public int getMovementDelay() {
-        return movementDelay;
+        return SubCellMotion.fixedToDelay(speed);
     }
 
-    public void start() {
-        if (!running) {
-            running = true;
-            movementThread = new Thread(this);
-            movementThread.start();
-        }
+    /**
+     * Get the fixed-point progress towards the next cell
+     * @return Progress, 0 when standing on a cell centre
+     */
+    public int getProgress() {
+        return progress;
     }
 
-    public void stop() {
-        running = false;
-        if (movementThread != null) {
-            movementThread.interrupt();
+    /**
+     * Get the direction of the step in progress
+     * @return Travel direction, NONE when standing still
+     */
+    public Direction getMoveDirection() {
+        return moveDirection;
+    }
+
+    /**
+     * Stop any step in progress, e.g. after the entity was teleported
+     */
+    public void reset() {
+        progress = 0;
+        moveDirection = Direction.NONE;
+    }
+
+    /**
+     * Advance the entity by one engine tick
+     * @param elapsedMs Time covered by the tick in milliseconds
+     * @return Motion event bits, see SubCellMotion
+     */
+    public int update(int elapsedMs) {
+        // Turns are only taken on a cell centre
+        if (progress == 0 && !startStep()) {
+            return SubCellMotion.NOT_MOVED;
+        }
+
+        progress += SubCellMotion.advance(speed, elapsedMs);
+        if (progress < SubCellMotion.ONE) {
+            return SubCellMotion.MOVED;
         }
+
+        // Crossed into the next cell
+        progress -= SubCellMotion.ONE;
+        MovementService.moveEntityCell(entity, entity.getCell(gameMap.getColumns()),
+                moveDirection.ordinal(), gameMap);
+
+        // Carry the leftover distance into the next step, or stop on the centre
+        if (!startStep()) {
+            progress = 0;
+        }
+        return SubCellMotion.MOVED | SubCellMotion.ENTERED_CELL;
     }
 
-    @Override
-    public void run() {
-        while (running) {
-            try {
-                // Move entity in current direction
-                Direction currentDirection = entity.getCurrentDirection();
-                if (currentDirection != Direction.NONE) {
-                    boolean moved = MovementService.moveEntity(
-                            entity,
-                            currentDirection,
-                            gameMap.getWalkableCells()
-                    );
-
-                    // Update the UI
-                    if (moved) {
-                        gamePane.updateGameState();
-                    }
-                }
-
-                // Sleep before next movement
-                Thread.sleep(movementDelay);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                break;
-            }
+    /**
+     * Start a step from the current cell centre in the entity's direction
+     * @return true if the way is open
+     */
+    private boolean startStep() {
+        Direction direction = entity.getCurrentDirection();
+        if (direction == Direction.NONE || !isOpen(direction)) {
+            moveDirection = Direction.NONE;
+            return false;
         }
+        moveDirection = direction;
+        return true;
+    }
+
+    /**
+     * Check if the neighbouring cell in a direction is walkable
+     */
+    private boolean isOpen(Direction direction) {
+        // Open-direction bits are indexed by Direction ordinal
+        int open = gameMap.getExitMask(entity.getCell(gameMap.getColumns()));
+        return direction != Direction.NONE && (open & (1 << direction.ordinal())) != 0;
     }
-}
\ No newline at end of file
+}
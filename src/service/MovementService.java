@@ -2,7 +2,10 @@ package service;
 
 import model.Collidable;
 import model.Direction;
+import model.GameMap;
+import model.OccupancyIndex;
 import model.Movable;
+import model.WalkableMap;
 
 import java.util.List;
 
@@ -12,31 +15,52 @@ import java.util.List;
  */
 public class MovementService {
 
+    // Returned by the cell-index API when a step leaves the map or runs into a wall
+    public static final int NO_CELL = -1;
+
+    // Row and column change of a one-cell step, indexed by Direction ordinal
+    private static final int[] ROW_DELTAS = {-1, 1, 0, 0, 0};
+    private static final int[] COLUMN_DELTAS = {0, 0, -1, 1, 0};
+
     /**
      * Calculate new position based on current position, direction, and speed
+     * Allocates the result; the tick path uses calculateNewRow/calculateNewColumn instead
      */
     public static int[] calculateNewPosition(int row, int column, Direction direction, int speed) {
-        int[] newPosition = new int[] {row, column};
+        return new int[] {
+                calculateNewRow(row, direction, speed),
+                calculateNewColumn(column, direction, speed)
+        };
+    }
 
+    /**
+     * Calculate the row after moving in a direction
+     * @param row Current row
+     * @param direction Direction of movement
+     * @param speed Cells per move
+     * @return New row
+     */
+    public static int calculateNewRow(int row, Direction direction, int speed) {
         switch (direction) {
-            case UP:
-                newPosition[0] -= speed;
-                break;
-            case DOWN:
-                newPosition[0] += speed;
-                break;
-            case LEFT:
-                newPosition[1] -= speed;
-                break;
-            case RIGHT:
-                newPosition[1] += speed;
-                break;
-            case NONE:
-                // No movement
-                break;
+            case UP: return row - speed;
+            case DOWN: return row + speed;
+            default: return row;
         }
+    }
 
-        return newPosition;
+    /**
+     * Calculate the column after moving in a direction
+     * @param column Current column
+     * @param direction Direction of movement
+     * @param speed Cells per move
+     * @return New column
+     */
+    public static int calculateNewColumn(int column, Direction direction, int speed) {
+        switch (direction) {
+            case LEFT: return column - speed;
+            case RIGHT: return column + speed;
+            default: return column;
+        }
     }
 
     /**
@@ -47,21 +71,153 @@ public class MovementService {
      * @return true if movement was successful
      */
     public static boolean moveEntity(Movable entity, Direction direction, boolean[][] walkableCells) {
-        int[] newPosition = calculateNewPosition(
-                entity.getRow(),
-                entity.getColumn(),
-                direction,
-                entity.getSpeed()
-        );
+        int speed = entity.getSpeed();
+        int newRow = calculateNewRow(entity.getRow(), direction, speed);
+        int newColumn = calculateNewColumn(entity.getColumn(), direction, speed);
 
         // Check if the new position is valid
-        if (isValidMove(newPosition[0], newPosition[1], walkableCells)) {
-            entity.setPosition(newPosition[0], newPosition[1]);
+        if (isValidMove(newRow, newColumn, walkableCells)) {
+            entity.setPosition(newRow, newColumn);
             return true;
         }
         return false;
     }
 
+    /**
+     * Move entity if the move is valid, reading the map's bitset directly
+     * @param entity The entity to move
+     * @param direction The direction to move in
+     * @param gameMap The game map
+     * @return true if movement was successful
+     */
+    public static boolean moveEntity(Movable entity, Direction direction, GameMap gameMap) {
+        int speed = entity.getSpeed();
+        if (speed == 1 && direction != Direction.NONE) {
+            // One-cell steps only need the current cell's exit mask
+            int row = entity.getRow();
+            int column = entity.getColumn();
+            if (row < 0 || row >= gameMap.getRows() || column < 0 || column >= gameMap.getColumns()) {
+                return false;
+            }
+            int cell = gameMap.getCellIndex(row, column);
+            return moveEntityCell(entity, cell, direction.ordinal(), gameMap) != NO_CELL;
+        }
+
+        int newRow = calculateNewRow(entity.getRow(), direction, speed);
+        int newColumn = calculateNewColumn(entity.getColumn(), direction, speed);
+
+        // isWalkable is false outside the map
+        if (gameMap.isWalkable(newRow, newColumn)) {
+            entity.setPosition(newRow, newColumn);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Move entity if the move is valid, on any map representation, e.g. a ChunkedGameMap
+     * @param entity The entity to move
+     * @param direction The direction to move in
+     * @param map The map to check walkability against
+     * @return true if movement was successful
+     */
+    public static boolean moveEntity(Movable entity, Direction direction, WalkableMap map) {
+        int speed = entity.getSpeed();
+        int newRow = calculateNewRow(entity.getRow(), direction, speed);
+        int newColumn = calculateNewColumn(entity.getColumn(), direction, speed);
+
+        // isWalkable is false outside the map
+        if (map.isWalkable(newRow, newColumn)) {
+            entity.setPosition(newRow, newColumn);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Move an entity one cell from a known cell index, checking only the cell's exit mask
+     * @param entity The entity to move
+     * @param cell Cell index of the entity's position
+     * @param direction Direction ordinal
+     * @param gameMap The game map
+     * @return The new cell index, or NO_CELL if the way is blocked
+     */
+    public static int moveEntityCell(Movable entity, int cell, int direction, GameMap gameMap) {
+        int next = stepCell(gameMap, cell, direction);
+        if (next != NO_CELL) {
+            entity.setPosition(entity.getRow() + ROW_DELTAS[direction],
+                    entity.getColumn() + COLUMN_DELTAS[direction]);
+        }
+        return next;
+    }
+
+    /**
+     * Take a one-cell step if the neighbour is walkable
+     * @param gameMap The game map
+     * @param cell Cell index, see GameMap.getCellIndex
+     * @param direction Direction ordinal; NONE never moves
+     * @return The neighbouring cell index, or NO_CELL if it is a wall or off the map
+     */
+    public static int stepCell(GameMap gameMap, int cell, int direction) {
+        // Open-direction bits are indexed by Direction ordinal; NONE has no bit
+        if ((gameMap.getCellOpenDirections(cell) & (1 << direction)) == 0) {
+            return NO_CELL;
+        }
+        return cell + gameMap.getCellDelta(direction);
+    }
+
+    /**
+     * Get the neighbouring cell in a direction, whether walkable or not
+     * @param gameMap The game map
+     * @param cell Cell index, see GameMap.getCellIndex
+     * @param direction Direction ordinal
+     * @return The neighbouring cell index, or NO_CELL past the map edge
+     */
+    public static int getNeighbourCell(GameMap gameMap, int cell, int direction) {
+        if (isEdgeStep(gameMap, cell, direction)) {
+            return NO_CELL;
+        }
+        return cell + gameMap.getCellDelta(direction);
+    }
+
+    /**
+     * Get the neighbouring cell in a direction, wrapping around the map edges like a tunnel
+     * @param gameMap The game map
+     * @param cell Cell index, see GameMap.getCellIndex
+     * @param direction Direction ordinal
+     * @return The neighbouring cell index; NONE returns the cell itself
+     */
+    public static int getWrappedNeighbourCell(GameMap gameMap, int cell, int direction) {
+        if (!isEdgeStep(gameMap, cell, direction)) {
+            return cell + gameMap.getCellDelta(direction);
+        }
+        int columns = gameMap.getColumns();
+        switch (direction) {
+            case 0: return cell + gameMap.getCellCount() - columns;  // Top row to bottom row
+            case 1: return cell - gameMap.getCellCount() + columns;  // Bottom row to top row
+            case 2: return cell + columns - 1;                       // First column to last
+            default: return cell - columns + 1;                      // Last column to first
+        }
+    }
+
+    /**
+     * Get the row change of a one-cell step
+     * @param direction Direction ordinal
+     * @return -1, 0 or 1
+     */
+    public static int getRowDelta(int direction) {
+        return ROW_DELTAS[direction];
+    }
+
+    /**
+     * Get the column change of a one-cell step
+     * @param direction Direction ordinal
+     * @return -1, 0 or 1
+     */
+    public static int getColumnDelta(int direction) {
+        return COLUMN_DELTAS[direction];
+    }
+
     /**
      * Move entity with collision detection
      * @param entity The entity to move
@@ -73,24 +229,78 @@ public class MovementService {
     public static boolean moveEntityWithCollision(Movable entity, Direction direction,
                                                   boolean[][] walkableCells,
                                                   List<? extends Collidable> obstacles) {
-        int[] newPosition = calculateNewPosition(
-                entity.getRow(),
-                entity.getColumn(),
-                direction,
-                entity.getSpeed()
-        );
+        int speed = entity.getSpeed();
+        int newRow = calculateNewRow(entity.getRow(), direction, speed);
+        int newColumn = calculateNewColumn(entity.getColumn(), direction, speed);
 
         // Check if the new position is valid
-        if (isValidMove(newPosition[0], newPosition[1], walkableCells)) {
+        if (isValidMove(newRow, newColumn, walkableCells)) {
             // Check for collisions with obstacles
-            if (!CollisionService.wouldCollide(newPosition[0], newPosition[1], obstacles)) {
-                entity.setPosition(newPosition[0], newPosition[1]);
+            if (!CollisionService.wouldCollide(newRow, newColumn, obstacles)) {
+                entity.setPosition(newRow, newColumn);
                 return true;
             }
         }
         return false;
     }
 
+    /**
+     * Move entity with collision detection against an occupancy index
+     * @param entity The entity to move
+     * @param direction The direction to move in
+     * @param gameMap The game map
+     * @param obstacles Occupancy index of the obstacles
+     * @return true if movement was successful
+     */
+    public static boolean moveEntityWithCollision(Movable entity, Direction direction,
+                                                  GameMap gameMap, OccupancyIndex obstacles) {
+        int speed = entity.getSpeed();
+        int newRow = calculateNewRow(entity.getRow(), direction, speed);
+        int newColumn = calculateNewColumn(entity.getColumn(), direction, speed);
+
+        // Check if the new position is valid and free
+        if (gameMap.isWalkable(newRow, newColumn)
+                && !CollisionService.wouldCollide(newRow, newColumn, obstacles)) {
+            entity.setPosition(newRow, newColumn);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Move entity one cell with collision detection against an occupancy index, by cell index
+     * @param entity The entity to move
+     * @param cell Cell index of the entity's position
+     * @param direction Direction ordinal
+     * @param gameMap The game map
+     * @param obstacles Occupancy index of the obstacles
+     * @return The new cell index, or NO_CELL if the way is blocked or occupied
+     */
+    public static int moveEntityCellWithCollision(Movable entity, int cell, int direction,
+                                                  GameMap gameMap, OccupancyIndex obstacles) {
+        int next = stepCell(gameMap, cell, direction);
+        if (next == NO_CELL || CollisionService.wouldCollideCell(next, obstacles)) {
+            return NO_CELL;
+        }
+        entity.setPosition(entity.getRow() + ROW_DELTAS[direction],
+                entity.getColumn() + COLUMN_DELTAS[direction]);
+        return next;
+    }
+
+    /**
+     * Check if a one-cell step from a cell would leave the map
+     */
+    private static boolean isEdgeStep(GameMap gameMap, int cell, int direction) {
+        int columns = gameMap.getColumns();
+        switch (direction) {
+            case 0: return cell < columns;
+            case 1: return cell >= gameMap.getCellCount() - columns;
+            case 2: return cell % columns == 0;
+            case 3: return cell % columns == columns - 1;
+            default: return false;
+        }
+    }
+
     /**
      * Check if a move is valid based on walkable cells
      */
@@ -0,0 +1,315 @@
+package service;
+
+import model.GameMap;
+import model.GameMapWithWalls;
+import model.GhostMoveStrategy;
+
+import java.util.Arrays;
+
+/**
+ * Grid pathfinding for ghosts and other AI movers, answering only "which way first".
+ * Searches run A* (Manhattan heuristic) or plain BFS over the map's exit masks. Every node
+ * remembers the first step that led to it, so no path is rebuilt at the end.
+ * The open set is a bucket queue over primitive arrays: one list of cells per estimated
+ * total cost, which on a grid with unit steps only ever grows, popped newest first so ties
+ * go to the deepest cell. The closed set is a stamp per cell, bumped per query instead of
+ * cleared, so queries never allocate.
+ * An expansion limit bounds the work per query; a search that hits it, or finds the target
+ * cut off, heads for the closest cell it reached.
+ */
+public class PathfindingService implements GhostMoveStrategy {
+
+    /**
+     * Search algorithm
+     */
+    public enum Algorithm {
+        A_STAR, // Expands towards the target first; fewest nodes for a single target
+        BFS     // Expands in rings; no heuristic, same paths on an unweighted grid
+    }
+
+    private static final int EMPTY = -1;
+
+    private GameMapWithWalls gameMap;
+    private int columns;
+    private Algorithm algorithm = Algorithm.A_STAR;
+    private int expansionLimit = Integer.MAX_VALUE;
+
+    // Per-cell search state packed into one word, so a neighbour check is one load:
+    // query stamp in the high half, then the closed flag, the first step and the cost.
+    // A cell whose stamp isn't the current query's hasn't been seen by it.
+    private static final long CLOSED = 1L << 31;
+    private static final int FIRST_STEP_SHIFT = 28;
+    private static final int COST_MASK = (1 << FIRST_STEP_SHIFT) - 1;
+    private final long[] nodes;
+    private long stamp;
+
+    // Open set: doubly linked list of cells per estimated total cost, EMPTY terminated
+    private final int[] bucketHeads;
+    private final int[] nextInBucket;
+    private final int[] previousInBucket;
+    private final int[] buckets;          // Bucket each open cell is in
+    private int lowestBucket;             // No open cell is in a lower bucket
+    private int openCount;
+
+    // BFS ring queue
+    private final int[] queue;
+
+    private long expansions;
+
+    /**
+     * Create a pathfinder
+     * @param gameMap The map to search
+     */
+    public PathfindingService(GameMapWithWalls gameMap) {
+        int cells = gameMap.getCellCount();
+        this.nodes = new long[cells];
+        // A total cost estimate never exceeds a walk over every cell plus the map's span
+        this.bucketHeads = new int[cells + gameMap.getRows() + gameMap.getColumns() + 1];
+        this.nextInBucket = new int[cells];
+        this.previousInBucket = new int[cells];
+        this.buckets = new int[cells];
+        Arrays.fill(bucketHeads, EMPTY);
+        this.queue = new int[cells];
+        setGameMap(gameMap);
+    }
+
+    @Override
+    public void setGameMap(GameMapWithWalls gameMap) {
+        if (gameMap.getCellCount() != nodes.length) {
+            throw new IllegalArgumentException("Map size changed: " + gameMap.getRows() + "x" + gameMap.getColumns());
+        }
+        // Nothing is cached between queries, so changed walls need no extra work
+        this.gameMap = gameMap;
+        this.columns = gameMap.getColumns();
+    }
+
+    /**
+     * Choose the search algorithm
+     * @param algorithm A_STAR or BFS
+     */
+    public void setAlgorithm(Algorithm algorithm) {
+        this.algorithm = algorithm;
+    }
+
+    /**
+     * Bound the work per query, e.g. to keep hundreds of ghosts on a large map within a tick
+     * @param expansionLimit Most cells to expand per query, at least 1
+     */
+    public void setExpansionLimit(int expansionLimit) {
+        if (expansionLimit < 1) {
+            throw new IllegalArgumentException("Expansion limit must be at least 1: " + expansionLimit);
+        }
+        this.expansionLimit = expansionLimit;
+    }
+
+    /**
+     * Get the number of cells expanded over all queries so far
+     */
+    public long getExpansionCount() {
+        return expansions;
+    }
+
+    /**
+     * Find the first step of a shortest path to a target
+     * @return Direction ordinal; towards the closest cell reached if the target is cut off or
+     *         beyond the expansion limit; NONE if no exit is allowed
+     */
+    @Override
+    public int nextDirection(int cell, int exits, int targetRow, int targetColumn) {
+        if (exits == 0) {
+            return GameMap.NONE;
+        }
+        int target = gameMap.nearestWalkableCell(targetRow, targetColumn);
+        if (target < 0) {
+            return GameMap.NONE;
+        }
+        if (++stamp == 1L << 31) {
+            // Stamps wrapped: forget every old mark so none can match by accident
+            Arrays.fill(nodes, 0L);
+            stamp = 1;
+        }
+        return algorithm == Algorithm.A_STAR
+                ? searchAStar(cell, exits, target)
+                : searchBfs(cell, exits, target);
+    }
+
+    /**
+     * A* from a cell, the first ring restricted to the allowed exits
+     */
+    private int searchAStar(int start, int exits, int target) {
+        int targetRow = target / columns;
+        int targetColumn = target % columns;
+        // Every node of this query is at least seen; closed ones sort above all open ones
+        long seen = stamp << 32;
+        long closed = seen | CLOSED;
+        lowestBucket = Integer.MAX_VALUE;
+        openCount = 0;
+        nodes[start] = closed;
+
+        // Seed the open set with the allowed first steps
+        int startRow = start / columns;
+        int startColumn = start - startRow * columns;
+        while (exits != 0) {
+            int direction = Integer.numberOfTrailingZeros(exits);
+            exits &= exits - 1;
+            int neighbour = start + gameMap.getCellDelta(direction);
+            nodes[neighbour] = seen | (long) direction << FIRST_STEP_SHIFT | 1;
+            push(neighbour, 1 + Math.abs(startRow + MovementService.getRowDelta(direction) - targetRow)
+                    + Math.abs(startColumn + MovementService.getColumnDelta(direction) - targetColumn));
+        }
+
+        int closest = -1;
+        int closestDistance = Integer.MAX_VALUE;
+        int expanded = 0;
+        while (openCount > 0 && expanded < expansionLimit) {
+            int cell = pop();
+            long node = nodes[cell] | CLOSED;
+            nodes[cell] = node;
+            expanded++;
+            if (cell == target) {
+                closest = cell;
+                break;
+            }
+            int row = cell / columns;
+            int column = cell - row * columns;
+            int distance = Math.abs(row - targetRow) + Math.abs(column - targetColumn);
+            if (distance < closestDistance) {
+                closestDistance = distance;
+                closest = cell;
+            }
+
+            // Children inherit the first step; the cost sits in the low bits, so adding adds to it
+            long child = (node & ~CLOSED) + 1;
+            int cost = (int) child & COST_MASK;
+            int open = gameMap.getExitMask(cell);
+            while (open != 0) {
+                int direction = Integer.numberOfTrailingZeros(open);
+                open &= open - 1;
+                int neighbour = cell + gameMap.getCellDelta(direction);
+                long neighbourNode = nodes[neighbour];
+                if (neighbourNode >= closed) {
+                    continue;
+                }
+                int estimate = cost + Math.abs(row + MovementService.getRowDelta(direction) - targetRow)
+                        + Math.abs(column + MovementService.getColumnDelta(direction) - targetColumn);
+                if (neighbourNode < seen) {
+                    nodes[neighbour] = child;
+                    push(neighbour, estimate);
+                } else if (cost < ((int) neighbourNode & COST_MASK)) {
+                    nodes[neighbour] = child;
+                    remove(neighbour);
+                    push(neighbour, estimate);
+                }
+            }
+        }
+        expansions += expanded;
+
+        // Leave every bucket empty for the next query
+        while (openCount > 0) {
+            pop();
+        }
+        return closest < 0 ? GameMap.NONE : firstStep(closest);
+    }
+
+    /**
+     * Breadth-first search from a cell, the first ring restricted to the allowed exits
+     */
+    private int searchBfs(int start, int exits, int target) {
+        int targetRow = target / columns;
+        int targetColumn = target % columns;
+        long seen = stamp << 32;
+        int head = 0;
+        int tail = 0;
+        nodes[start] = seen;
+        while (exits != 0) {
+            int direction = Integer.numberOfTrailingZeros(exits);
+            exits &= exits - 1;
+            int neighbour = start + gameMap.getCellDelta(direction);
+            nodes[neighbour] = seen | (long) direction << FIRST_STEP_SHIFT;
+            queue[tail++] = neighbour;
+        }
+
+        int closest = -1;
+        int closestDistance = Integer.MAX_VALUE;
+        while (head < tail && head < expansionLimit) {
+            int cell = queue[head++];
+            if (cell == target) {
+                closest = cell;
+                break;
+            }
+            int distance = heuristic(cell, targetRow, targetColumn);
+            if (distance < closestDistance) {
+                closestDistance = distance;
+                closest = cell;
+            }
+
+            long child = nodes[cell];
+            int open = gameMap.getExitMask(cell);
+            while (open != 0) {
+                int direction = Integer.numberOfTrailingZeros(open);
+                open &= open - 1;
+                int neighbour = cell + gameMap.getCellDelta(direction);
+                if (nodes[neighbour] < seen) {
+                    nodes[neighbour] = child;
+                    queue[tail++] = neighbour;
+                }
+            }
+        }
+        expansions += head;
+        return closest < 0 ? GameMap.NONE : firstStep(closest);
+    }
+
+    private int firstStep(int cell) {
+        return (int) (nodes[cell] >>> FIRST_STEP_SHIFT) & 7;
+    }
+
+    private int heuristic(int cell, int targetRow, int targetColumn) {
+        int row = cell / columns;
+        return Math.abs(row - targetRow) + Math.abs(cell - row * columns - targetColumn);
+    }
+
+    /**
+     * Add a cell to the front of its bucket
+     */
+    private void push(int cell, int bucket) {
+        int head = bucketHeads[bucket];
+        nextInBucket[cell] = head;
+        previousInBucket[cell] = EMPTY;
+        if (head != EMPTY) {
+            previousInBucket[head] = cell;
+        }
+        bucketHeads[bucket] = cell;
+        buckets[cell] = bucket;
+        lowestBucket = Math.min(lowestBucket, bucket);
+        openCount++;
+    }
+
+    /**
+     * Unlink an open cell from its bucket
+     */
+    private void remove(int cell) {
+        int next = nextInBucket[cell];
+        int previous = previousInBucket[cell];
+        if (previous == EMPTY) {
+            bucketHeads[buckets[cell]] = next;
+        } else {
+            nextInBucket[previous] = next;
+        }
+        if (next != EMPTY) {
+            previousInBucket[next] = previous;
+        }
+        openCount--;
+    }
+
+    /**
+     * Take the newest cell from the lowest non-empty bucket
+     */
+    private int pop() {
+        while (bucketHeads[lowestBucket] == EMPTY) {
+            lowestBucket++;
+        }
+        int cell = bucketHeads[lowestBucket];
+        remove(cell);
+        return cell;
+    }
+}
@@ -1,6 +1,8 @@
 package view;
 
 import model.Collidable;
+import model.Direction;
+import model.SubCellMotion;
 
 import javax.swing.*;
 import java.awt.*;
@@ -38,6 +40,27 @@ public abstract class AbstractRenderer {
         updatePosition();
     }
 
+    /**
+     * Place the label between a cell and its neighbour for smooth movement
+     * @param row Cell row
+     * @param column Cell column
+     * @param direction Direction of the step in progress
+     * @param progress Fixed-point progress towards the neighbour, see SubCellMotion
+     */
+    protected void setCellBounds(int row, int column, Direction direction, int progress) {
+        long x = (long) column * SubCellMotion.ONE;
+        long y = (long) row * SubCellMotion.ONE;
+        switch (direction) {
+            case UP: y -= progress; break;
+            case DOWN: y += progress; break;
+            case LEFT: x -= progress; break;
+            case RIGHT: x += progress; break;
+            default: break;
+        }
+        renderLabel.setBounds((int) ((x * cellSize) >> SubCellMotion.SHIFT),
+                (int) ((y * cellSize) >> SubCellMotion.SHIFT), cellSize, cellSize);
+    }
+
     /**
      * Resize an image to fit the current cell size
      */
@@ -1,5 +1,6 @@
 package view;
 
+import controller.GameSnapshot;
 import model.PacmanModel;
 import model.Direction;
 
@@ -11,37 +12,67 @@ import java.awt.image.BufferedImage;
 /**
  * Responsible for rendering the Pacman character
  * Follows Single Responsibility Principle by focusing only on visual representation
+ * Position, direction and frame come from the engine's published snapshot
  */
 public class CharacterRenderer extends AbstractRenderer {
     private PacmanModel pacman;
+    private GameSnapshot snapshot;
 
-    public CharacterRenderer(PacmanModel pacman, int cellSize) {
+    // Scaled and rotated frames by frame index and direction ordinal, rebuilt when the cell size changes
+    private ImageIcon[][] iconCache;
+    private int iconCacheCellSize;
+
+    public CharacterRenderer(PacmanModel pacman, GameSnapshot snapshot, int cellSize) {
         super(cellSize);
         this.pacman = pacman;
+        this.snapshot = snapshot;
         updateImage();
         updatePosition();
     }
 
+    /**
+     * Set the snapshot to render from
+     * @param snapshot The latest published game state
+     */
+    public void setSnapshot(GameSnapshot snapshot) {
+        this.snapshot = snapshot;
+    }
+
     @Override
     public void updateImage() {
-        ImageIcon originalIcon = pacman.getCurrentFrame();
-        if (originalIcon != null) {
+        java.util.List<ImageIcon> frames = pacman.getAnimationFrames();
+        int frame = snapshot.getPacmanFrame();
+        ImageIcon originalIcon = frame < frames.size() ? frames.get(frame) : null;
+        if (originalIcon == null) {
+            return;
+        }
+
+        if (iconCache == null || iconCache.length != frames.size() || iconCacheCellSize != cellSize) {
+            iconCache = new ImageIcon[frames.size()][Direction.values().length];
+            iconCacheCellSize = cellSize;
+        }
+
+        Direction direction = snapshot.getPacmanDirection();
+        ImageIcon icon = iconCache[frame][direction.ordinal()];
+        if (icon == null) {
             // Resize the image to fit the cell
             Image resizedImg = resizeImage(originalIcon.getImage());
             ImageIcon resizedIcon = new ImageIcon(resizedImg);
 
             // Apply rotation based on direction
-            ImageIcon rotatedIcon = rotateIconForDirection(resizedIcon, pacman.getCurrentDirection());
+            icon = rotateIconForDirection(resizedIcon, direction);
+            iconCache[frame][direction.ordinal()] = icon;
+        }
 
-            renderLabel.setIcon(rotatedIcon);
+        if (renderLabel.getIcon() != icon) {
+            renderLabel.setIcon(icon);
         }
     }
 
     @Override
     public void updatePosition() {
-        int x = pacman.getColumn() * cellSize;
-        int y = pacman.getRow() * cellSize;
-        renderLabel.setBounds(x, y, cellSize, cellSize);
+        setCellBounds(snapshot.getPacmanRow(), snapshot.getPacmanColumn(),
+                snapshot.getPacmanMoveDirection(), snapshot.getPacmanProgress());
     }
 
     private ImageIcon rotateIconForDirection(ImageIcon icon, Direction direction) {
@@ -1,20 +1,27 @@
 package view;
 
+import controller.DirtyFlags;
 import controller.GameEngine;
+import controller.GameSnapshot;
+import controller.GameStateListener;
 import model.GameMapWithWalls;
-import model.Wall;
+import model.Point;
+import model.WallSegments;
 
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ComponentAdapter;
 import java.awt.event.ComponentEvent;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Main game panel using JLayeredPane to organize game elements in layers
+ * Owns all renderers so the game engine itself stays free of Swing
  */
-public class GameLayeredPane extends JLayeredPane {
+public class GameLayeredPane extends JLayeredPane implements GameStateListener {
     // Layer constants
     public static final Integer GRID_LAYER = 1;
     public static final Integer WALL_LAYER = 2;
@@ -36,9 +43,17 @@ public class GameLayeredPane extends JLayeredPane {
     private JLabel livesLabel;
 
     private final int CELL_SIZE = 20; // Default cell size
+    private int cellSize = CELL_SIZE; // Cell size after the last resize
     private GridRenderer gridRenderer;
     private List<WallRenderer> wallRenderers;
+    private CharacterRenderer pacmanRenderer;
+    private List<GhostRenderer> ghostRenderers;
+    private List<PointRenderer> pointRenderers;
+    // Eaten-dot bits the point renderers currently show, compared against each new snapshot
+    private long[] shownEatenDots = new long[0];
     private boolean initialized = false;
+    // Set while a refresh is queued on the EDT, so loop notifications coalesce
+    private final AtomicBoolean refreshPending = new AtomicBoolean();
 
     /**
      * Create a new game layered pane
@@ -49,16 +64,21 @@ public class GameLayeredPane extends JLayeredPane {
         this.gameMap = gameMap;
         this.gameEngine = gameEngine;
         this.wallRenderers = new ArrayList<>();
+        this.pointRenderers = new ArrayList<>();
+        this.ghostRenderers = new ArrayList<>();
 
         setLayout(null); // JLayeredPane uses absolute positioning
         setBackground(Color.BLACK);
         setOpaque(true);
 
+        // Publish the first snapshot for the renderers to start from
+        gameEngine.setPublishSnapshots(true);
+
         // Initialize the character renderers first
-        gameEngine.initializeRenderers(CELL_SIZE);
+        initializeRenderers(CELL_SIZE);
 
         // Initialize point renderers
-        gameEngine.initializePointRenderers(CELL_SIZE);
+        initializePointRenderers(CELL_SIZE);
 
         // Now initialize the layers
         initializeLayers();
@@ -87,6 +107,30 @@ public class GameLayeredPane extends JLayeredPane {
         });
     }
 
+    /**
+     * Initialize renderers for game characters
+     * @param cellSize Cell size in pixels
+     */
+    private void initializeRenderers(int cellSize) {
+        GameSnapshot snapshot = gameEngine.getSnapshot();
+        pacmanRenderer = new CharacterRenderer(gameEngine.getPacman(), snapshot, cellSize);
+        for (int i = 0; i < snapshot.getGhostCount(); i++) {
+            ghostRenderers.add(new GhostRenderer(i, snapshot, cellSize));
+        }
+    }
+
+    /**
+     * Initialize point renderers
+     * @param cellSize Cell size in pixels
+     */
+    private void initializePointRenderers(int cellSize) {
+        pointRenderers.clear();
+        shownEatenDots = new long[0];
+        for (Point point : gameEngine.getPoints()) {
+            pointRenderers.add(new PointRenderer(point, cellSize));
+        }
+    }
+
     private void initializeLayers() {
         // 1. Grid layer
         gridPanel = new JPanel(null);
@@ -173,7 +217,6 @@ public class GameLayeredPane extends JLayeredPane {
      * Add points to the edible layer
      */
     private void addPointsToLayers() {
-        List<PointRenderer> pointRenderers = gameEngine.getPointRenderers();
         for (PointRenderer renderer : pointRenderers) {
             ediblePanel.add(renderer.getLabel());
         }
@@ -181,22 +224,22 @@ public class GameLayeredPane extends JLayeredPane {
 
     private void addCharactersToLayers() {
         // Add Pacman to the character layer
-        CharacterRenderer pacmanRenderer = gameEngine.getPacmanRenderer();
         if (pacmanRenderer != null) {
             characterPanel.add(pacmanRenderer.getLabel());
         }
 
-        // Add ghost to the character layer
-        GhostRenderer ghostRenderer = gameEngine.getGhostRenderer();
-        if (ghostRenderer != null) {
+        // Add ghosts to the character layer
+        for (GhostRenderer ghostRenderer : ghostRenderers) {
             characterPanel.add(ghostRenderer.getLabel());
         }
     }
 
     private void addWallsToLayers() {
-        // Create wall renderers
-        for (Wall wall : gameMap.getWalls()) {
-            WallRenderer renderer = new WallRenderer(wall, CELL_SIZE);
+        // Create one wall renderer per horizontal run of walls
+        WallSegments segments = gameMap.getWallSegments();
+        for (int i = 0; i < segments.size(); i++) {
+            WallRenderer renderer = new WallRenderer(segments.getRow(i), segments.getColumn(i),
+                    segments.getLength(i), CELL_SIZE);
             wallRenderers.add(renderer);
             wallPanel.add(renderer.getLabel());
         }
@@ -237,8 +280,9 @@ public class GameLayeredPane extends JLayeredPane {
         // Set grid renderer bounds
         gridRenderer.setBounds(0, 0, gameWidth, gameHeight);
 
-        // Update character renderers
-        gameEngine.updateRendererSize(newCellSize);
+        // Update character and point renderers
+        cellSize = newCellSize;
+        updateRendererSize(newCellSize);
 
         // Update wall renderers
         for (WallRenderer wallRenderer : wallRenderers) {
@@ -246,7 +290,78 @@ public class GameLayeredPane extends JLayeredPane {
         }
 
         // Update characters
-        gameEngine.updateRenderers();
+        updateRenderers();
+    }
+
+    /**
+     * Update the cell size of character and point renderers
+     * @param cellSize New cell size in pixels
+     */
+    private void updateRendererSize(int cellSize) {
+        pacmanRenderer.updateCellSize(cellSize);
+        for (GhostRenderer ghostRenderer : ghostRenderers) {
+            ghostRenderer.updateCellSize(cellSize);
+        }
+        for (PointRenderer renderer : pointRenderers) {
+            renderer.updateCellSize(cellSize);
+        }
+    }
+
+    /**
+     * Update character renderers from the current model state
+     */
+    private void updateRenderers() {
+        pacmanRenderer.updatePosition();
+        pacmanRenderer.updateImage();
+        for (GhostRenderer ghostRenderer : ghostRenderers) {
+            ghostRenderer.updatePosition();
+        }
+    }
+
+    /**
+     * Match the ghost renderers to the snapshot's ghosts, which the engine may add after start
+     * @param snapshot The snapshot to take the ghost count from
+     */
+    private void updateGhostRendererCount(GameSnapshot snapshot) {
+        int count = snapshot.getGhostCount();
+        while (ghostRenderers.size() < count) {
+            GhostRenderer renderer = new GhostRenderer(ghostRenderers.size(), snapshot, cellSize);
+            ghostRenderers.add(renderer);
+            characterPanel.add(renderer.getLabel());
+        }
+        if (ghostRenderers.size() > count) {
+            while (ghostRenderers.size() > count) {
+                characterPanel.remove(ghostRenderers.remove(ghostRenderers.size() - 1).getLabel());
+            }
+            // A removed label doesn't clear the area it was drawn in
+            characterPanel.repaint();
+        }
+    }
+
+    /**
+     * Update point renderers from a snapshot
+     * @param snapshot The snapshot to read eaten dots from
+     */
+    private void updatePointRenderers(GameSnapshot snapshot) {
+        int words = snapshot.getEatenDotsWordCount();
+        if (words > shownEatenDots.length) {
+            shownEatenDots = Arrays.copyOf(shownEatenDots, words);
+        }
+
+        // Only touch the renderers whose bit changed, found a word at a time
+        for (int word = 0; word < words; word++) {
+            long eaten = snapshot.getEatenDotsWord(word);
+            long changed = eaten ^ shownEatenDots[word];
+            while (changed != 0) {
+                int bit = Long.numberOfTrailingZeros(changed);
+                int i = (word << 6) + bit;
+                if (i < pointRenderers.size()) {
+                    pointRenderers.get(i).setEaten((eaten & (1L << bit)) != 0);
+                }
+                changed &= changed - 1;
+            }
+            shownEatenDots[word] = eaten;
+        }
     }
 
     @Override
@@ -259,17 +374,53 @@ public class GameLayeredPane extends JLayeredPane {
 
     /**
      * Update game state (character positions, etc.)
+     * Must run on the EDT; applies only the parts the engine marked as changed
      */
     public void updateGameState() {
-        // Check if Pacman has collected any points
-        gameEngine.checkPointCollection();
+        refreshPending.set(false);
+        int flags = gameEngine.consumeDirtyFlags();
+        if (flags == 0) {
+            return;
+        }
+
+        // Read the flags first: the snapshot is then at least as new as the changes they describe
+        GameSnapshot snapshot = gameEngine.getSnapshot();
+        pacmanRenderer.setSnapshot(snapshot);
+        updateGhostRendererCount(snapshot);
+        for (GhostRenderer ghostRenderer : ghostRenderers) {
+            ghostRenderer.setSnapshot(snapshot);
+        }
 
-        // Update score display
-        scoreLabel.setText("Score: " + gameEngine.getScore());
+        if (DirtyFlags.isSet(flags, DirtyFlags.SCORE)) {
+            scoreLabel.setText("Score: " + snapshot.getScore());
+        }
+        if (DirtyFlags.isSet(flags, DirtyFlags.LIVES)) {
+            livesLabel.setText("Lives: " + snapshot.getLives());
+        }
+        if (DirtyFlags.isSet(flags, DirtyFlags.DOTS)) {
+            updatePointRenderers(snapshot);
+        }
 
-        // Update character positions
-        gameEngine.updateRenderers();
-        repaint();
+        // Moving a label repaints only its old and new bounds, so no full repaint is needed
+        if (DirtyFlags.isSet(flags, DirtyFlags.ENTITIES)) {
+            pacmanRenderer.updatePosition();
+            for (GhostRenderer ghostRenderer : ghostRenderers) {
+                ghostRenderer.updatePosition();
+            }
+        }
+        if (DirtyFlags.isSet(flags, DirtyFlags.ENTITIES | DirtyFlags.ANIMATION)) {
+            pacmanRenderer.updateImage();
+        }
+    }
+
+    /**
+     * Called from the game loop thread; queues at most one refresh on the EDT
+     */
+    @Override
+    public void onGameStateChanged() {
+        if (refreshPending.compareAndSet(false, true)) {
+            SwingUtilities.invokeLater(this::updateGameState);
+        }
     }
 
     /**
@@ -1,52 +1,101 @@
 package view;
 
-import model.Blinky;
+import controller.GameSnapshot;
 
 import javax.swing.*;
 import java.awt.*;
 
 /**
  * Renderer for a ghost character
+ * Position comes from the engine's published snapshot; all ghosts share one image
  */
 public class GhostRenderer extends AbstractRenderer {
 
-    private Blinky ghost;
+    private static ImageIcon ghostImage;
+
+    // Ghost image scaled to the cell, shared by all ghosts
+    private static ImageIcon scaledGhostImage;
+    private static int scaledCellSize;
+
+    private int ghostIndex;
+    private GameSnapshot snapshot;
+
+    // Static initializer to load the ghost image once
+    static {
+        try {
+            ghostImage = new ImageIcon("res/ghosts/enemyRed.png");
+
+            // If the image couldn't be loaded, create a fallback
+            if (ghostImage.getIconWidth() <= 0) {
+                createFallbackImage();
+            }
+        } catch (Exception e) {
+            System.err.println("Error loading ghost image: " + e.getMessage());
+            createFallbackImage();
+        }
+    }
+
+    /**
+     * Create a fallback image if the real image can't be loaded
+     */
+    private static void createFallbackImage() {
+        // Create a simple red square as fallback
+        java.awt.image.BufferedImage img = new java.awt.image.BufferedImage(
+                20, 20, java.awt.image.BufferedImage.TYPE_INT_ARGB);
+        java.awt.Graphics2D g = img.createGraphics();
+        g.setColor(java.awt.Color.RED);
+        g.fillRect(0, 0, 20, 20);
+        g.dispose();
+
+        ghostImage = new ImageIcon(img);
+    }
 
     /**
      * Create a new ghost renderer
-     * @param ghost The ghost to render
+     * @param ghostIndex Index of the ghost in the snapshot
+     * @param snapshot The snapshot to render from
      * @param cellSize Cell size in pixels
      */
-    public GhostRenderer(Blinky ghost, int cellSize) {
+    public GhostRenderer(int ghostIndex, GameSnapshot snapshot, int cellSize) {
         super(cellSize);
-        this.ghost = ghost;
+        this.ghostIndex = ghostIndex;
+        this.snapshot = snapshot;
         updateImage();
         updatePosition();
     }
 
+    /**
+     * Set the snapshot to render from
+     * @param snapshot The latest published game state
+     */
+    public void setSnapshot(GameSnapshot snapshot) {
+        this.snapshot = snapshot;
+    }
+
     @Override
     public void updateImage() {
-        ImageIcon originalIcon = ghost.getCurrentFrame();
-        if (originalIcon != null) {
-            // Resize the image to fit the cell
-            Image resizedImg = resizeImage(originalIcon.getImage());
-            renderLabel.setIcon(new ImageIcon(resizedImg));
+        if (ghostImage != null) {
+            // Resize the image to fit the cell, once per cell size
+            if (scaledGhostImage == null || scaledCellSize != cellSize) {
+                scaledGhostImage = new ImageIcon(resizeImage(ghostImage.getImage()));
+                scaledCellSize = cellSize;
+            }
+            renderLabel.setIcon(scaledGhostImage);
         }
     }
 
     @Override
     public void updatePosition() {
-        int x = ghost.getColumn() * cellSize;
-        int y = ghost.getRow() * cellSize;
-        renderLabel.setBounds(x, y, cellSize, cellSize);
+        setCellBounds(snapshot.getGhostRow(ghostIndex), snapshot.getGhostColumn(ghostIndex),
+                snapshot.getGhostDirection(ghostIndex), snapshot.getGhostProgress(ghostIndex));
     }
 
     /**
-     * Get the ghost model
-     * @return The ghost
+     * Get the index of the rendered ghost
+     * @return The ghost index
      */
-    public Blinky getGhost() {
-        return ghost;
+    public int getGhostIndex() {
+        return ghostIndex;
     }
 
     /**
@@ -56,4 +105,4 @@ public class GhostRenderer extends AbstractRenderer {
     public JLabel getLabel() {
         return renderLabel;
     }
-}
\ No newline at end of file
+}
@@ -11,10 +11,15 @@ import java.awt.*;
 public class PointRenderer {
 
     private Point point;
+    private boolean eaten;
     private JLabel renderLabel;
     private int cellSize;
     private static ImageIcon pointImage;
 
+    // Scaled point image shared by all points, rebuilt when the point size changes
+    private static ImageIcon scaledPointImage;
+    private static int scaledPointSize;
+
     // Static initializer to load the point image once
     static {
         try {
@@ -52,6 +57,7 @@ public class PointRenderer {
      */
     public PointRenderer(Point point, int cellSize) {
         this.point = point;
+        this.eaten = false;
         this.cellSize = cellSize;
         this.renderLabel = new JLabel();
         this.renderLabel.setVisible(true);
@@ -60,21 +66,45 @@ public class PointRenderer {
         updatePosition();
     }
 
+    /**
+     * Set whether the point has been eaten, as seen in the latest snapshot
+     * @param eaten true if eaten
+     */
+    public void setEaten(boolean eaten) {
+        if (this.eaten != eaten) {
+            this.eaten = eaten;
+            updateImage();
+        }
+    }
+
     /**
      * Update the point's visual representation
      */
     public void updateImage() {
-        if (pointImage != null && !point.isCollected()) {
+        if (pointImage != null && !eaten) {
             // Resize the image to fit the cell (make it smaller than the cell)
             int pointSize = Math.max(cellSize / 3, 5); // Point size is 1/3 of cell size, min 5px
-            Image resizedImg = pointImage.getImage().getScaledInstance(pointSize, pointSize, Image.SCALE_SMOOTH);
-            renderLabel.setIcon(new ImageIcon(resizedImg));
+            renderLabel.setIcon(getScaledPointImage(pointSize));
         } else {
             // If point is collected or image is null, show nothing
             renderLabel.setIcon(null);
         }
     }
 
+    /**
+     * Get the point image scaled to a size, shared by all points
+     * @param pointSize Point size in pixels
+     * @return The scaled image
+     */
+    private static ImageIcon getScaledPointImage(int pointSize) {
+        if (scaledPointImage == null || scaledPointSize != pointSize) {
+            Image resizedImg = pointImage.getImage().getScaledInstance(pointSize, pointSize, Image.SCALE_SMOOTH);
+            scaledPointImage = new ImageIcon(resizedImg);
+            scaledPointSize = pointSize;
+        }
+        return scaledPointImage;
+    }
+
     /**
      * Update the point's position
      */
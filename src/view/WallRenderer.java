@@ -1,18 +1,26 @@
 package view;
 
-import model.Wall;
-
 import javax.swing.*;
 import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
- * Renderer for wall elements
+ * Renderer for a horizontal run of wall cells
  * Follows Single Responsibility Principle by focusing only on wall rendering
+ * One label covers the whole segment, showing the wall image tiled once per cell.
  */
 public class WallRenderer extends AbstractRenderer {
-    private Wall wall;
+    private final int row;
+    private final int column;
+    private final int length;
     private static ImageIcon wallImage = null;
 
+    // Tiled strips shared by all segments of the same length, rebuilt when the cell size changes
+    private static final Map<Integer, ImageIcon> stripImages = new HashMap<>();
+    private static int stripCellSize;
+
     // Static initializer to load wall image once
     static {
         try {
@@ -22,9 +30,18 @@ public class WallRenderer extends AbstractRenderer {
         }
     }
 
-    public WallRenderer(Wall wall, int cellSize) {
+    /**
+     * Create a renderer for a wall segment
+     * @param row Row of the segment
+     * @param column First column of the segment
+     * @param length Number of wall cells in the segment
+     * @param cellSize Cell size in pixels
+     */
+    public WallRenderer(int row, int column, int length, int cellSize) {
         super(cellSize);
-        this.wall = wall;
+        this.row = row;
+        this.column = column;
+        this.length = length;
         updateImage();
         updatePosition();
     }
@@ -32,20 +49,53 @@ public class WallRenderer extends AbstractRenderer {
     @Override
     public void updateImage() {
         if (wallImage != null) {
-            // Resize the image to fit the cell
-            Image resizedImg = resizeImage(wallImage.getImage());
-            renderLabel.setIcon(new ImageIcon(resizedImg));
+            renderLabel.setIcon(getStrip(length, cellSize));
         }
     }
 
     @Override
     public void updatePosition() {
-        int x = wall.getColumn() * cellSize;
-        int y = wall.getRow() * cellSize;
-        renderLabel.setBounds(x, y, cellSize, cellSize);
+        int x = column * cellSize;
+        int y = row * cellSize;
+        renderLabel.setBounds(x, y, length * cellSize, cellSize);
+    }
+
+    /**
+     * Get the wall image tiled over a run of cells
+     * @param length Number of cells
+     * @param cellSize Cell size in pixels
+     * @return Shared strip image
+     */
+    private static ImageIcon getStrip(int length, int cellSize) {
+        if (stripCellSize != cellSize) {
+            stripImages.clear();
+            stripCellSize = cellSize;
+        }
+        ImageIcon strip = stripImages.get(length);
+        if (strip == null) {
+            Image tile = wallImage.getImage();
+            BufferedImage image = new BufferedImage(length * cellSize, cellSize, BufferedImage.TYPE_INT_ARGB);
+            Graphics2D g = image.createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            for (int i = 0; i < length; i++) {
+                g.drawImage(tile, i * cellSize, 0, cellSize, cellSize, null);
+            }
+            g.dispose();
+            strip = new ImageIcon(image);
+            stripImages.put(length, strip);
+        }
+        return strip;
+    }
+
+    public int getRow() {
+        return row;
+    }
+
+    public int getColumn() {
+        return column;
     }
 
-    public Wall getWall() {
-        return wall;
+    public int getLength() {
+        return length;
     }
-}
\ No newline at end of file
+}